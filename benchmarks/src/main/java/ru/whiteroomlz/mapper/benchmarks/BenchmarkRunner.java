@@ -0,0 +1,32 @@
+package ru.whiteroomlz.mapper.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Точка входа jar-файла с бенчмарками. Принимает те же аргументы, что и org.openjdk.jmh.Main, и всегда подключает
+ * профилировщик gc, чтобы вместе с пропускной способностью выводилась скорость выделения памяти.
+ * <p>
+ * Пример вызова:
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar CollectionBenchmark -p size=1000
+ * </pre>
+ */
+public final class BenchmarkRunner {
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder()
+                .parent(commandLineOptions)
+                .addProfiler(GCProfiler.class)
+                .build()
+        ).run();
+    }
+}
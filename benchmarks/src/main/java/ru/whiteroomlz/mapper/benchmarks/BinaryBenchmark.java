@@ -0,0 +1,102 @@
+package ru.whiteroomlz.mapper.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.whiteroomlz.mapper.BinaryMapper;
+import ru.whiteroomlz.mapper.JsonMapper;
+import ru.whiteroomlz.mapper.benchmarks.model.PointCloud;
+import testingclasses.Person;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение двоичного формата с JSON по пропускной способности. Размер документа каждого бенчмарка выводится
+ * счётчиком {@link DocumentSize}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BinaryBenchmark {
+    @Param({"100", "10000"})
+    public int size;
+
+    private JsonMapper jsonMapper;
+    private BinaryMapper binaryMapper;
+
+    private Person person;
+    private PointCloud pointCloud;
+
+    private String personJson;
+    private String pointCloudJson;
+    private byte[] personBinary;
+    private byte[] pointCloudBinary;
+    private long personJsonBytes;
+    private long pointCloudJsonBytes;
+
+    @Setup
+    public void setUp() {
+        jsonMapper = new JsonMapper(false);
+        binaryMapper = new BinaryMapper(false);
+
+        person = Fixtures.person(size);
+        pointCloud = Fixtures.pointCloud(size);
+
+        personJson = jsonMapper.writeToString(person);
+        pointCloudJson = jsonMapper.writeToString(pointCloud);
+        personBinary = binaryMapper.writeToBytes(person);
+        pointCloudBinary = binaryMapper.writeToBytes(pointCloud);
+        personJsonBytes = personJson.getBytes(StandardCharsets.UTF_8).length;
+        pointCloudJsonBytes = pointCloudJson.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    @Benchmark
+    public String writePersonJson(DocumentSize documentSize) {
+        documentSize.bytes = personJsonBytes;
+        return jsonMapper.writeToString(person);
+    }
+
+    @Benchmark
+    public byte[] writePersonBinary(DocumentSize documentSize) {
+        documentSize.bytes = personBinary.length;
+        return binaryMapper.writeToBytes(person);
+    }
+
+    @Benchmark
+    public Person readPersonJson(DocumentSize documentSize) {
+        documentSize.bytes = personJsonBytes;
+        return jsonMapper.readFromString(Person.class, personJson);
+    }
+
+    @Benchmark
+    public Person readPersonBinary(DocumentSize documentSize) {
+        documentSize.bytes = personBinary.length;
+        return binaryMapper.readFromBytes(Person.class, personBinary);
+    }
+
+    @Benchmark
+    public String writePointCloudJson(DocumentSize documentSize) {
+        documentSize.bytes = pointCloudJsonBytes;
+        return jsonMapper.writeToString(pointCloud);
+    }
+
+    @Benchmark
+    public byte[] writePointCloudBinary(DocumentSize documentSize) {
+        documentSize.bytes = pointCloudBinary.length;
+        return binaryMapper.writeToBytes(pointCloud);
+    }
+
+    @Benchmark
+    public PointCloud readPointCloudJson(DocumentSize documentSize) {
+        documentSize.bytes = pointCloudJsonBytes;
+        return jsonMapper.readFromString(PointCloud.class, pointCloudJson);
+    }
+
+    @Benchmark
+    public PointCloud readPointCloudBinary(DocumentSize documentSize) {
+        documentSize.bytes = pointCloudBinary.length;
+        return binaryMapper.readFromBytes(PointCloud.class, pointCloudBinary);
+    }
+}
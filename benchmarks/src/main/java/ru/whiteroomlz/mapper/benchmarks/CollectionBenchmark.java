@@ -0,0 +1,53 @@
+package ru.whiteroomlz.mapper.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.whiteroomlz.mapper.JsonMapper;
+import ru.whiteroomlz.mapper.benchmarks.model.PointCloud;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запись и чтение коллекций от 10 до 1 000 000 элементов. Параметр parallelThreshold позволяет сравнить
+ * последовательную и параллельную обработку элементов, параметр positionalCollections - обычную и позиционную
+ * запись.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CollectionBenchmark {
+    @Param({"10", "1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"0"})
+    public int parallelThreshold;
+
+    @Param({"false", "true"})
+    public boolean positionalCollections;
+
+    private JsonMapper mapper;
+    private PointCloud pointCloud;
+    private String document;
+
+    @Setup
+    public void setUp() {
+        mapper = new JsonMapper(false);
+        mapper.setParallelThreshold(parallelThreshold);
+        mapper.setPositionalCollections(positionalCollections);
+
+        pointCloud = Fixtures.pointCloud(size);
+        document = mapper.writeToString(pointCloud);
+    }
+
+    @Benchmark
+    public String write() {
+        return mapper.writeToString(pointCloud);
+    }
+
+    @Benchmark
+    public PointCloud read() {
+        return mapper.readFromString(PointCloud.class, document);
+    }
+}
@@ -0,0 +1,18 @@
+package ru.whiteroomlz.mapper.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Размер документа, который записывает или читает бенчмарк. JMH выводит его вспомогательным счётчиком рядом с
+ * результатом бенчмарка, а не в общий вывод прогона.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class DocumentSize {
+    /**
+     * Размер документа в кодировке UTF-8; присваивается бенчмарком при каждом вызове.
+     */
+    public long bytes;
+}
@@ -0,0 +1,42 @@
+package ru.whiteroomlz.mapper.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.whiteroomlz.mapper.JsonMapper;
+import ru.whiteroomlz.mapper.benchmarks.model.Palette;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запись и чтение перечислений, в том числе коллекции перечислений.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EnumBenchmark {
+    @Param({"10", "1000"})
+    public int shadesCount;
+
+    private JsonMapper mapper;
+    private Palette palette;
+    private String document;
+
+    @Setup
+    public void setUp() {
+        mapper = new JsonMapper(false);
+        palette = Fixtures.palette(shadesCount);
+        document = mapper.writeToString(palette);
+    }
+
+    @Benchmark
+    public String write() {
+        return mapper.writeToString(palette);
+    }
+
+    @Benchmark
+    public Palette read() {
+        return mapper.readFromString(Palette.class, document);
+    }
+}
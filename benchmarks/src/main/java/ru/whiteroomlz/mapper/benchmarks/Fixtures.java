@@ -0,0 +1,58 @@
+package ru.whiteroomlz.mapper.benchmarks;
+
+import ru.whiteroomlz.mapper.benchmarks.model.Palette;
+import ru.whiteroomlz.mapper.benchmarks.model.PointCloud;
+import testingclasses.Person;
+import testingclasses.Point2D;
+import testingclasses.Point3D;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Объекты, сериализуемые и восстанавливаемые бенчмарками.
+ */
+final class Fixtures {
+    private static final LocalDateTime REGISTRATION = LocalDateTime.parse("2022-02-26T02:32:52.0");
+
+    private Fixtures() {
+    }
+
+    static Person person(int childrenCount) {
+        List<Person> children = new ArrayList<>(childrenCount);
+        for (int index = 0; index < childrenCount; index++) {
+            children.add(new Person("Child " + index, "Smirnov", index % 18, Person.Sex.FEMALE,
+                    REGISTRATION.plusDays(index), false, List.of(), 'B'));
+        }
+
+        return new Person("Пётр", "Смирнов", 37, Person.Sex.MALE, REGISTRATION, true, children, 'Ж');
+    }
+
+    static Point2D point2D() {
+        return new Point2D(1.5, -2.25);
+    }
+
+    static Point3D point3D() {
+        return new Point3D(1.5, -2.25, 100.0);
+    }
+
+    static PointCloud pointCloud(int size) {
+        List<Point2D> points = new ArrayList<>(size);
+        for (int index = 0; index < size; index++) {
+            points.add(new Point2D(index + 0.5, index - 0.5));
+        }
+
+        return new PointCloud(points);
+    }
+
+    static Palette palette(int shadesCount) {
+        Palette.Color[] colors = Palette.Color.values();
+        List<Palette.Color> shades = new ArrayList<>(shadesCount);
+        for (int index = 0; index < shadesCount; index++) {
+            shades.add(colors[index % colors.length]);
+        }
+
+        return new Palette(Palette.Color.DARK_RED, Palette.Color.DEEP_SKY_BLUE, shades);
+    }
+}
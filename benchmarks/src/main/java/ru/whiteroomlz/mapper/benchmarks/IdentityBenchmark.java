@@ -0,0 +1,45 @@
+package ru.whiteroomlz.mapper.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.whiteroomlz.mapper.JsonMapper;
+import testingclasses.Person;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запись и чтение графа объектов с сохранением идентичности и без него.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class IdentityBenchmark {
+    @Param({"false", "true"})
+    public boolean retainIdentity;
+
+    @Param({"100"})
+    public int childrenCount;
+
+    private JsonMapper mapper;
+    private Person person;
+    private String document;
+
+    @Setup
+    public void setUp() {
+        mapper = new JsonMapper(retainIdentity);
+        person = Fixtures.person(childrenCount);
+        document = mapper.writeToString(person);
+    }
+
+    @Benchmark
+    public String write() {
+        return mapper.writeToString(person);
+    }
+
+    @Benchmark
+    public Person read() {
+        return mapper.readFromString(Person.class, document);
+    }
+}
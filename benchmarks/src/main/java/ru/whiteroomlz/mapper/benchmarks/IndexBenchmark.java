@@ -0,0 +1,57 @@
+package ru.whiteroomlz.mapper.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.whiteroomlz.mapper.JsonIndex;
+import ru.whiteroomlz.mapper.JsonMapper;
+import ru.whiteroomlz.mapper.JsonParseException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Построение структурного индекса документа разными реализациями поиска структурных символов. Документ задаётся
+ * параметром file, например {@code -p file=/data/sample.json} для замеров на больших образцах; по умолчанию
+ * используется сгенерированное облако из size точек. Размер документа выводится счётчиком {@link DocumentSize}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class IndexBenchmark {
+    @Param({"vector", "scalar"})
+    public String indexer;
+
+    @Param({"1000000"})
+    public int size;
+
+    @Param({""})
+    public String file;
+
+    private String document;
+    private long documentBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Реализация выбирается один раз при первом построении индекса, а каждый набор параметров
+        // выполняется в отдельной JVM.
+        System.setProperty("ru.whiteroomlz.mapper.indexer", indexer);
+
+        if (file.isEmpty()) {
+            document = new JsonMapper(false).writeToString(Fixtures.pointCloud(size));
+        } else {
+            document = Files.readString(Path.of(file), StandardCharsets.UTF_8);
+        }
+        documentBytes = document.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    @Benchmark
+    public String index(DocumentSize documentSize) throws JsonParseException {
+        documentSize.bytes = documentBytes;
+        return new JsonIndex(document).queryText("");
+    }
+}
@@ -0,0 +1,69 @@
+package ru.whiteroomlz.mapper.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.whiteroomlz.mapper.JsonMapper;
+import testingclasses.Point2D;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Масштабирование чтения NDJSON файла методом readLines в зависимости от числа потоков. Размер файла задаётся
+ * параметром lines, например {@code -p lines=50000000} даёт файл размером около 2 ГБ.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LinesBenchmark {
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    @Param({"1000000"})
+    public int lines;
+
+    @Param({"false"})
+    public boolean preserveOrder;
+
+    private JsonMapper mapper;
+    private ForkJoinPool pool;
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = new JsonMapper(false);
+        pool = new ForkJoinPool(parallelism);
+
+        file = Files.createTempFile("mapper-benchmark-lines", ".ndjson");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int index = 0; index < lines; index++) {
+                writer.write(mapper.writeToString(new Point2D(index + 0.5, index - 0.5)));
+                writer.newLine();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public double readLines() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> {
+            try (Stream<Point2D> points = mapper.readLines(Point2D.class, file, preserveOrder)) {
+                return points.mapToDouble(Point2D::x).sum();
+            }
+        }).get();
+    }
+}
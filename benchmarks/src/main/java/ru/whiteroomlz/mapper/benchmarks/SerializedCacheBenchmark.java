@@ -0,0 +1,44 @@
+package ru.whiteroomlz.mapper.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.whiteroomlz.mapper.JsonMapper;
+import ru.whiteroomlz.mapper.JsonSerializedCache;
+import ru.whiteroomlz.mapper.benchmarks.model.PointCloud;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запись коллекции одних и тех же record-объектов с кэшем строковых представлений и без него.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializedCacheBenchmark {
+    @Param({"1000"})
+    public int size;
+
+    private PointCloud cloud;
+    private JsonMapper mapper;
+    private JsonMapper cachingMapper;
+
+    @Setup
+    public void setUp() {
+        cloud = Fixtures.pointCloud(size);
+        mapper = new JsonMapper(false);
+        cachingMapper = new JsonMapper(false);
+        cachingMapper.setSerializedCache(new JsonSerializedCache(size));
+    }
+
+    @Benchmark
+    public String write() {
+        return mapper.writeToString(cloud);
+    }
+
+    @Benchmark
+    public String writeCached() {
+        return cachingMapper.writeToString(cloud);
+    }
+}
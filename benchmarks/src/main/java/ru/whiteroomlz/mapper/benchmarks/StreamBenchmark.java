@@ -0,0 +1,75 @@
+package ru.whiteroomlz.mapper.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.whiteroomlz.mapper.JsonMapper;
+import testingclasses.Person;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запись и чтение через потоки в памяти и через файлы.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class StreamBenchmark {
+    @Param({"10", "1000"})
+    public int childrenCount;
+
+    private JsonMapper mapper;
+    private Person person;
+    private byte[] document;
+    private File readFile;
+    private File writeFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = new JsonMapper(false);
+        person = Fixtures.person(childrenCount);
+        document = mapper.writeToString(person).getBytes(StandardCharsets.UTF_8);
+
+        readFile = Files.createTempFile("mapper-benchmark-read", ".json").toFile();
+        writeFile = Files.createTempFile("mapper-benchmark-write", ".json").toFile();
+        Files.write(readFile.toPath(), document);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(readFile.toPath());
+        Files.deleteIfExists(writeFile.toPath());
+    }
+
+    @Benchmark
+    public int writeStream() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(document.length);
+        mapper.write(person, outputStream);
+
+        return outputStream.size();
+    }
+
+    @Benchmark
+    public Person readStream() throws IOException {
+        return mapper.read(Person.class, new ByteArrayInputStream(document));
+    }
+
+    @Benchmark
+    public File writeFile() throws IOException {
+        mapper.write(person, writeFile);
+
+        return writeFile;
+    }
+
+    @Benchmark
+    public Person readFile() throws IOException {
+        return mapper.read(Person.class, readFile);
+    }
+}
@@ -0,0 +1,73 @@
+package ru.whiteroomlz.mapper.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.whiteroomlz.mapper.JsonMapper;
+import testingclasses.Person;
+import testingclasses.Point2D;
+import testingclasses.Point3D;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запись в строку и чтение из строки record-классов (Point2D, Point3D) и обычного класса (Person).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class StringBenchmark {
+    private JsonMapper mapper;
+
+    private Point2D point2D;
+    private Point3D point3D;
+    private Person person;
+
+    private String point2DDocument;
+    private String point3DDocument;
+    private String personDocument;
+
+    @Setup
+    public void setUp() {
+        mapper = new JsonMapper(false);
+
+        point2D = Fixtures.point2D();
+        point3D = Fixtures.point3D();
+        person = Fixtures.person(3);
+
+        point2DDocument = mapper.writeToString(point2D);
+        point3DDocument = mapper.writeToString(point3D);
+        personDocument = mapper.writeToString(person);
+    }
+
+    @Benchmark
+    public String writePoint2D() {
+        return mapper.writeToString(point2D);
+    }
+
+    @Benchmark
+    public Point2D readPoint2D() {
+        return mapper.readFromString(Point2D.class, point2DDocument);
+    }
+
+    @Benchmark
+    public String writePoint3D() {
+        return mapper.writeToString(point3D);
+    }
+
+    @Benchmark
+    public Point3D readPoint3D() {
+        return mapper.readFromString(Point3D.class, point3DDocument);
+    }
+
+    @Benchmark
+    public String writePerson() {
+        return mapper.writeToString(person);
+    }
+
+    @Benchmark
+    public Person readPerson() {
+        return mapper.readFromString(Person.class, personDocument);
+    }
+}
@@ -0,0 +1,52 @@
+package ru.whiteroomlz.mapper.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.whiteroomlz.mapper.JsonCollection;
+import ru.whiteroomlz.mapper.JsonMapper;
+import ru.whiteroomlz.mapper.JsonParseException;
+import ru.whiteroomlz.mapper.JsonTape;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Разбор документа в дерево JsonObject и в ленту JsonTape. Объём памяти, выделяемой на один разбор, выводится
+ * профилировщиком gc как gc.alloc.rate.norm и примерно равен размеру построенного дерева. Размер документа
+ * выводится счётчиком {@link DocumentSize}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TapeBenchmark {
+    @Param({"10000"})
+    public int size;
+
+    private String document;
+    private long documentBytes;
+
+    @Setup
+    public void setUp() {
+        JsonMapper mapper = new JsonMapper(false);
+        document = IntStream.range(0, size)
+                .mapToObj(index -> mapper.writeToString(Fixtures.person(3)))
+                .collect(Collectors.joining(",", "[", "]"));
+        documentBytes = document.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    @Benchmark
+    public JsonCollection tree(DocumentSize documentSize) throws JsonParseException {
+        documentSize.bytes = documentBytes;
+        return new JsonCollection(document);
+    }
+
+    @Benchmark
+    public JsonTape tape(DocumentSize documentSize) throws JsonParseException {
+        documentSize.bytes = documentBytes;
+        return new JsonTape(document);
+    }
+}
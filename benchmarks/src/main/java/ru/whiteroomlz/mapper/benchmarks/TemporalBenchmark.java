@@ -0,0 +1,60 @@
+package ru.whiteroomlz.mapper.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.whiteroomlz.mapper.JsonMapper;
+import ru.whiteroomlz.mapper.benchmarks.model.FormattedSchedule;
+import ru.whiteroomlz.mapper.benchmarks.model.Schedule;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запись и чтение LocalDateTime, LocalDate и LocalTime полей с аннотацией @DateFormat и без неё.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TemporalBenchmark {
+    private JsonMapper mapper;
+
+    private Schedule schedule;
+    private FormattedSchedule formattedSchedule;
+
+    private String scheduleDocument;
+    private String formattedScheduleDocument;
+
+    @Setup
+    public void setUp() {
+        mapper = new JsonMapper(false);
+
+        LocalDateTime start = LocalDateTime.parse("2022-02-26T02:32:52");
+        schedule = new Schedule(start, start.toLocalDate(), start.toLocalTime());
+        formattedSchedule = new FormattedSchedule(start, start.toLocalDate(), start.toLocalTime());
+
+        scheduleDocument = mapper.writeToString(schedule);
+        formattedScheduleDocument = mapper.writeToString(formattedSchedule);
+    }
+
+    @Benchmark
+    public String writeDefaultFormat() {
+        return mapper.writeToString(schedule);
+    }
+
+    @Benchmark
+    public Schedule readDefaultFormat() {
+        return mapper.readFromString(Schedule.class, scheduleDocument);
+    }
+
+    @Benchmark
+    public String writeDateFormat() {
+        return mapper.writeToString(formattedSchedule);
+    }
+
+    @Benchmark
+    public FormattedSchedule readDateFormat() {
+        return mapper.readFromString(FormattedSchedule.class, formattedScheduleDocument);
+    }
+}
@@ -0,0 +1,14 @@
+package ru.whiteroomlz.mapper.benchmarks.model;
+
+import ru.hse.homework4.DateFormat;
+import ru.hse.homework4.Exported;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@Exported
+public record FormattedSchedule(@DateFormat("uuuu-MMMM-dd HH:mm:ss") LocalDateTime start,
+                                @DateFormat("dd.MM.uuuu") LocalDate day,
+                                @DateFormat("HH:mm") LocalTime reminder) {
+}
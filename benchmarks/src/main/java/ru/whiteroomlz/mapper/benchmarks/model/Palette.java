@@ -0,0 +1,15 @@
+package ru.whiteroomlz.mapper.benchmarks.model;
+
+import ru.hse.homework4.Exported;
+
+import java.util.List;
+
+@Exported
+public record Palette(Color primary, Color secondary, List<Color> shades) {
+    public enum Color {
+        DARK_RED,
+        LIGHT_GREEN,
+        DEEP_SKY_BLUE,
+        WHITE
+    }
+}
@@ -0,0 +1,10 @@
+package ru.whiteroomlz.mapper.benchmarks.model;
+
+import ru.hse.homework4.Exported;
+import testingclasses.Point2D;
+
+import java.util.List;
+
+@Exported
+public record PointCloud(List<Point2D> points) {
+}
@@ -0,0 +1,11 @@
+package ru.whiteroomlz.mapper.benchmarks.model;
+
+import ru.hse.homework4.Exported;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@Exported
+public record Schedule(LocalDateTime start, LocalDate day, LocalTime reminder) {
+}
@@ -0,0 +1,15 @@
+package ru.hse.homework4;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Отмечает класс, экземпляры которого не изменяются после создания. Такие объекты могут кэшироваться
+ * сериализатором наравне с record-классами.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Immutable {
+}
@@ -0,0 +1,338 @@
+package ru.whiteroomlz.mapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Неблокирующие чтение и запись файлов через AsynchronousFileChannel. Используются два буфера из общего пула
+ * direct-буферов: пока один буфер записывается в канал (или заполняется из него), второй заполняется
+ * закодированными символами (или декодируется в документ).
+ */
+final class AsyncFileTransfer {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Максимальное количество буферов, хранимых в пуле. Лишние буферы отдаются сборщику мусора.
+     */
+    private static final int MAX_POOLED_BUFFERS = 16;
+
+    private static final ConcurrentLinkedQueue<ByteBuffer> BUFFER_POOL = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger POOLED_BUFFERS_COUNT = new AtomicInteger();
+
+    private AsyncFileTransfer() {
+    }
+
+    private static ByteBuffer acquireBuffer() {
+        ByteBuffer buffer = BUFFER_POOL.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(BUFFER_SIZE);
+        }
+
+        POOLED_BUFFERS_COUNT.decrementAndGet();
+        return buffer.clear();
+    }
+
+    private static void releaseBuffer(ByteBuffer buffer) {
+        if (POOLED_BUFFERS_COUNT.incrementAndGet() <= MAX_POOLED_BUFFERS) {
+            BUFFER_POOL.offer(buffer);
+        } else {
+            POOLED_BUFFERS_COUNT.decrementAndGet();
+        }
+    }
+
+    /**
+     * Асинхронно считывает документ из файла в кодировке UTF-8. Разделители строк отбрасываются так же, как
+     * в {@link JsonMapper#readDocument(java.io.InputStream, JsonBufferPool)}.
+     *
+     * @param path путь к файлу.
+     * @return future, завершающийся считанным документом.
+     */
+    static CompletableFuture<String> read(Path path) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        AsynchronousFileChannel channel;
+        try {
+            channel = AsynchronousFileChannel.open(path, StandardOpenOption.READ);
+        } catch (IOException exception) {
+            future.completeExceptionally(exception);
+            return future;
+        }
+
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new IOException("The file is too large to be read into a single document.");
+            }
+
+            new Reader(channel, size, future).start();
+        } catch (IOException exception) {
+            closeQuietly(channel, exception);
+            future.completeExceptionally(exception);
+        }
+
+        return future;
+    }
+
+    /**
+     * Асинхронно записывает строку в файл в кодировке UTF-8, заменяя его содержимое.
+     *
+     * @param path    путь к файлу.
+     * @param content записываемая строка.
+     * @return future, завершающийся после записи и закрытия файла.
+     */
+    static CompletableFuture<Void> write(Path path, String content) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        try {
+            AsynchronousFileChannel channel = AsynchronousFileChannel.open(path, StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            new Writer(channel, CharBuffer.wrap(content), future).start();
+        } catch (IOException exception) {
+            future.completeExceptionally(exception);
+        }
+
+        return future;
+    }
+
+    private static void closeQuietly(AsynchronousFileChannel channel, Throwable cause) {
+        try {
+            channel.close();
+        } catch (IOException exception) {
+            cause.addSuppressed(exception);
+        }
+    }
+
+    /**
+     * Цепочка чтений файла. Пока очередная порция файла считывается в текущий буфер, предыдущая порция
+     * декодируется в документ. Чтения и декодирование порций выполняются по очереди, поэтому буферы разбора,
+     * принадлежащие цепочке, не используются одновременно несколькими потоками.
+     */
+    private static final class Reader implements CompletionHandler<Integer, ByteBuffer> {
+        private final AsynchronousFileChannel channel;
+        private final long size;
+        private final CompletableFuture<String> future;
+        private ByteBuffer current = acquireBuffer();
+        private ByteBuffer previous = acquireBuffer().flip();
+        private long position;
+
+        /**
+         * Буферы декодирования. Цепочка выполняется в потоках канала, поэтому набор буферов принадлежит ей,
+         * а не потоку.
+         */
+        private final JsonBufferPool pool = new JsonBufferPool();
+        private final CharsetDecoder decoder = pool.decoder();
+        private final CharBuffer chars = pool.charBuffer();
+        private final StringBuilder builder = pool.acquireStringBuilder();
+
+        /**
+         * Байты символа, разделённого границей порций.
+         */
+        private final ByteBuffer carry = ByteBuffer.allocate(8);
+
+        /**
+         * Количество событий (чтение в текущий буфер и декодирование предыдущего), которые должны произойти,
+         * прежде чем буферы поменяются местами.
+         */
+        private final AtomicInteger pendingEvents = new AtomicInteger();
+
+        /**
+         * Ошибка чтения; буферы возвращаются в пулы, когда завершится и декодирование предыдущей порции.
+         */
+        private volatile Throwable failure;
+
+        Reader(AsynchronousFileChannel channel, long size, CompletableFuture<String> future) {
+            this.channel = channel;
+            this.size = size;
+            this.future = future;
+            builder.ensureCapacity((int) size);
+        }
+
+        void start() {
+            step();
+        }
+
+        private void step() {
+            if (position == size) {
+                decode(previous);
+                carry.flip();
+                JsonMapper.decode(carry, chars, decoder, builder, true);
+                releaseBuffer(current);
+                releaseBuffer(previous);
+                try {
+                    channel.close();
+                    future.complete(builder.toString());
+                } catch (IOException exception) {
+                    future.completeExceptionally(exception);
+                } finally {
+                    pool.releaseStringBuilder(builder);
+                }
+                return;
+            }
+
+            pendingEvents.set(2);
+            current.clear().limit((int) Math.min(current.capacity(), size - position));
+            channel.read(current, position, current, this);
+            decode(previous);
+            arrive();
+        }
+
+        /**
+         * Декодирует порцию файла. Байты символа, не поместившегося в порцию, переносятся в начало следующей.
+         */
+        private void decode(ByteBuffer bytes) {
+            while (carry.position() > 0 && bytes.hasRemaining()) {
+                carry.put(bytes.get()).flip();
+                JsonMapper.decode(carry, chars, decoder, builder, false);
+                carry.compact();
+            }
+            JsonMapper.decode(bytes, chars, decoder, builder, false);
+            carry.put(bytes);
+        }
+
+        private void arrive() {
+            if (pendingEvents.decrementAndGet() == 0) {
+                if (failure != null) {
+                    releaseBuffer(current);
+                    releaseBuffer(previous);
+                    pool.releaseStringBuilder(builder);
+                    future.completeExceptionally(failure);
+                    return;
+                }
+
+                ByteBuffer decoded = previous;
+                previous = current.flip();
+                position += previous.remaining();
+                current = decoded;
+                step();
+            }
+        }
+
+        @Override
+        public void completed(Integer read, ByteBuffer buffer) {
+            if (read < 0) {
+                failed(new IOException("The file was truncated while it was being read."), buffer);
+            } else {
+                arrive();
+            }
+        }
+
+        @Override
+        public void failed(Throwable exception, ByteBuffer buffer) {
+            closeQuietly(channel, exception);
+            failure = exception;
+            arrive();
+        }
+    }
+
+    /**
+     * Цепочка записей в файл. Пока текущий буфер записывается, следующий заполняется закодированными символами.
+     */
+    private static final class Writer implements CompletionHandler<Integer, ByteBuffer> {
+        private final AsynchronousFileChannel channel;
+        private final CharBuffer source;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        private final CompletableFuture<Void> future;
+        private ByteBuffer current = acquireBuffer();
+        private ByteBuffer next = acquireBuffer();
+        private long position;
+        private boolean encoded;
+
+        /**
+         * Количество событий (запись текущего буфера и заполнение следующего), которые должны произойти,
+         * прежде чем буферы поменяются местами.
+         */
+        private final AtomicInteger pendingEvents = new AtomicInteger();
+
+        /**
+         * Ошибка записи; буферы возвращаются в пул, когда завершится и заполнение следующего буфера.
+         */
+        private volatile Throwable failure;
+
+        Writer(AsynchronousFileChannel channel, CharBuffer source, CompletableFuture<Void> future) {
+            this.channel = channel;
+            this.source = source;
+            this.future = future;
+        }
+
+        void start() {
+            fill(current);
+            step();
+        }
+
+        private void step() {
+            if (!current.hasRemaining()) {
+                releaseBuffer(current);
+                releaseBuffer(next);
+                try {
+                    channel.close();
+                    future.complete(null);
+                } catch (IOException exception) {
+                    future.completeExceptionally(exception);
+                }
+                return;
+            }
+
+            pendingEvents.set(2);
+            channel.write(current, position, current, this);
+            fill(next);
+            arrive();
+        }
+
+        private void arrive() {
+            if (pendingEvents.decrementAndGet() == 0) {
+                if (failure != null) {
+                    releaseBuffer(current);
+                    releaseBuffer(next);
+                    future.completeExceptionally(failure);
+                    return;
+                }
+
+                ByteBuffer written = current;
+                current = next;
+                next = written;
+                step();
+            }
+        }
+
+        /**
+         * Заполняет буфер очередной порцией закодированных символов и подготавливает его к записи.
+         */
+        private void fill(ByteBuffer buffer) {
+            buffer.clear();
+            if (!encoded) {
+                CoderResult result = encoder.encode(source, buffer, true);
+                if (result.isUnderflow() && encoder.flush(buffer).isUnderflow()) {
+                    encoded = true;
+                }
+            }
+            buffer.flip();
+        }
+
+        @Override
+        public void completed(Integer written, ByteBuffer buffer) {
+            position += written;
+            if (buffer.hasRemaining()) {
+                channel.write(buffer, position, buffer, this);
+            } else {
+                arrive();
+            }
+        }
+
+        @Override
+        public void failed(Throwable exception, ByteBuffer buffer) {
+            closeQuietly(channel, exception);
+            failure = exception;
+            arrive();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package ru.whiteroomlz.mapper;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Чтение значений двоичного формата, записанных {@link BinaryOutput}, из массива байтов.
+ */
+final class BinaryInput {
+    private final byte[] buffer;
+    private int position;
+
+    BinaryInput(byte[] buffer) {
+        this.buffer = buffer;
+    }
+
+    private void require(long bytes) throws JsonParseException {
+        if (bytes < 0 || position + bytes > buffer.length) {
+            throw new JsonParseException("Unexpected end of the binary document.", position);
+        }
+    }
+
+    boolean isExhausted() {
+        return position == buffer.length;
+    }
+
+    int readByte() throws JsonParseException {
+        require(1);
+        return buffer[position++];
+    }
+
+    long readVarLong() throws JsonParseException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int current = readByte();
+            value |= (long) (current & 0x7F) << shift;
+            if ((current & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new JsonParseException("Malformed variable-length integer in the binary document.", position);
+    }
+
+    long readSignedVarLong() throws JsonParseException {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    float readFloat() throws JsonParseException {
+        return Float.intBitsToFloat((int) readFixed(Integer.BYTES));
+    }
+
+    double readDouble() throws JsonParseException {
+        return Double.longBitsToDouble(readFixed(Long.BYTES));
+    }
+
+    private long readFixed(int bytes) throws JsonParseException {
+        require(bytes);
+        long bits = 0;
+        for (int index = 0; index < bytes; index++) {
+            bits = (bits << 8) | (buffer[position++] & 0xFF);
+        }
+
+        return bits;
+    }
+
+    String readString() throws JsonParseException {
+        long length = readVarLong();
+        require(length);
+        String value = new String(buffer, position, (int) length, StandardCharsets.UTF_8);
+        position += (int) length;
+
+        return value;
+    }
+}
@@ -0,0 +1,44 @@
+package ru.whiteroomlz.mapper;
+
+/**
+ * Преобразует документы между JSON-представлением {@link JsonMapper} и двоичным представлением
+ * {@link BinaryMapper}. Двоичный формат не содержит ключей и типов, поэтому преобразование выполняется через
+ * восстановленный экземпляр класса документа.
+ * <p>
+ * Двоичный формат хранит все значения без потерь, поэтому JSON-документ, преобразованный в двоичный и обратно,
+ * совпадает с исходным. В обратном направлении точность Temporal значений ограничена аннотацией @DateFormat.
+ * <p>
+ * Пример вызова:
+ *
+ * <pre>
+ * BinaryJsonConverter converter = new BinaryJsonConverter(new JsonMapper(false), new BinaryMapper(false));
+ * byte[] binary = converter.toBinary(Person.class, jsonDocument);
+ * </pre>
+ */
+public final class BinaryJsonConverter {
+    private final JsonMapper jsonMapper;
+    private final BinaryMapper binaryMapper;
+
+    public BinaryJsonConverter(JsonMapper jsonMapper, BinaryMapper binaryMapper) {
+        this.jsonMapper = jsonMapper;
+        this.binaryMapper = binaryMapper;
+    }
+
+    /**
+     * @param clazz  класс, сохранённый экземпляр которого находится в документе.
+     * @param binary двоичное представление документа.
+     * @return JSON-представление документа.
+     */
+    public String toJson(Class<?> clazz, byte[] binary) {
+        return jsonMapper.writeToString(binaryMapper.readFromBytes(clazz, binary));
+    }
+
+    /**
+     * @param clazz        класс, сохранённый экземпляр которого находится в документе.
+     * @param jsonDocument JSON-представление документа.
+     * @return двоичное представление документа.
+     */
+    public byte[] toBinary(Class<?> clazz, String jsonDocument) {
+        return binaryMapper.writeToBytes(jsonMapper.readFromString(clazz, jsonDocument));
+    }
+}
@@ -0,0 +1,427 @@
+package ru.whiteroomlz.mapper;
+
+import ru.hse.homework4.Mapper;
+
+import java.io.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Сериализатор в компактный двоичный формат, использующий те же аннотации, что и {@link JsonMapper}:
+ * состав и порядок свойств определяются аннотациями @Exported и @Ignored, а ключи @PropertyName используются
+ * только при преобразовании в JSON ({@link BinaryJsonConverter}).
+ * <p>
+ * Свойства записываются подряд в порядке объявления без ключей, поэтому документ читается только классом с тем же
+ * набором свойств. Значения кодируются по объявленному типу свойства:
+ * <ul>
+ *     <li>byte, short, int, long и char - целые числа переменной длины (varint, со знаком - после zigzag);</li>
+ *     <li>float и double - 4 и 8 байтов в формате IEEE 754;</li>
+ *     <li>String - длина в байтах и байты в кодировке UTF-8;</li>
+ *     <li>перечисления - порядковый номер константы;</li>
+ *     <li>LocalDate - номер дня от 1970-01-01, LocalTime - наносекунды от начала дня,
+ *     LocalDateTime - оба значения. Аннотация @DateFormat влияет только на JSON-представление;</li>
+ *     <li>коллекции - количество элементов и элементы.</li>
+ * </ul>
+ * Перед каждым значением ссылочного типа записывается байт-маркер: null, значение или, при сохранении
+ * идентичности объектов, ссылка на ранее записанный объект. Поэтому null сохраняется независимо от
+ * {@code nullHandling}, а {@code unknownPropertiesPolicy} не применяется.
+ * <p>
+ * Методы {@link #writeToString(Object)} и {@link #readFromString(Class, String)} работают с представлением
+ * документа в Base64. В отличие от {@link JsonMapper}, состояние вызова не хранится в объекте, поэтому один
+ * экземпляр может использоваться несколькими потоками одновременно.
+ */
+public class BinaryMapper implements Mapper {
+    private static final int NULL_MARKER = 0;
+    private static final int VALUE_MARKER = 1;
+    private static final int REFERENCE_MARKER = 2;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final boolean retainIdentity;
+
+    public BinaryMapper(boolean retainIdentity) {
+        this.retainIdentity = retainIdentity;
+    }
+
+    /**
+     * Читает сохранённый экземпляр класса {@code clazz} из массива байтов.
+     *
+     * @param clazz класс, аннотированный @Exported.
+     * @param input двоичное представление сохранённого экземпляра.
+     * @param <T>   тип восстанавливаемого объекта.
+     * @return восстановленный экземпляр {@code clazz}.
+     */
+    public <T> T readFromBytes(Class<T> clazz, byte[] input) {
+        try {
+            BinaryInput binaryInput = new BinaryInput(input);
+            T object = clazz.cast(new Decoder(binaryInput).readValue(clazz, null));
+            if (!binaryInput.isExhausted()) {
+                throw new JsonParseException("Unexpected bytes after the end of the binary document.", 0);
+            }
+
+            return object;
+        } catch (JsonParseException exception) {
+            throw new IllegalArgumentException("Impossible to parse binary document", exception);
+        }
+    }
+
+    /**
+     * Сохраняет {@code object} в массив байтов.
+     *
+     * @param object объект класса, аннотированного @Exported.
+     * @return двоичное представление объекта.
+     */
+    public byte[] writeToBytes(Object object) {
+        return encode(object).toByteArray();
+    }
+
+    private BinaryOutput encode(Object object) {
+        ExportedClass.of(object.getClass());
+
+        BinaryOutput output = new BinaryOutput(INITIAL_CAPACITY);
+        new Encoder(output).writeValue(object.getClass(), null, object);
+
+        return output;
+    }
+
+    @Override
+    public <T> T readFromString(Class<T> clazz, String input) {
+        return readFromBytes(clazz, Base64.getDecoder().decode(input));
+    }
+
+    @Override
+    public <T> T read(Class<T> clazz, InputStream inputStream) throws IOException {
+        try (inputStream) {
+            return readFromBytes(clazz, inputStream.readAllBytes());
+        }
+    }
+
+    @Override
+    public <T> T read(Class<T> clazz, File file) throws IOException {
+        return read(clazz, new FileInputStream(file));
+    }
+
+    @Override
+    public String writeToString(Object object) {
+        return Base64.getEncoder().encodeToString(writeToBytes(object));
+    }
+
+    @Override
+    public void write(Object object, OutputStream outputStream) throws IOException {
+        try (outputStream) {
+            encode(object).writeTo(outputStream);
+        }
+    }
+
+    @Override
+    public void write(Object object, File file) throws IOException {
+        BinaryOutput output = encode(object);
+        try (FileOutputStream outputStream = new FileOutputStream(file)) {
+            output.writeTo(outputStream);
+        }
+    }
+
+    /**
+     * @param type тип свойства.
+     * @return тип-обёртка для примитивного типа либо сам тип.
+     */
+    private static Class<?> box(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        } else if (type == boolean.class) {
+            return Boolean.class;
+        } else if (type == byte.class) {
+            return Byte.class;
+        } else if (type == char.class) {
+            return Character.class;
+        } else if (type == short.class) {
+            return Short.class;
+        } else if (type == int.class) {
+            return Integer.class;
+        } else if (type == long.class) {
+            return Long.class;
+        } else if (type == float.class) {
+            return Float.class;
+        } else {
+            return Double.class;
+        }
+    }
+
+    /**
+     * Состояние одной операции записи.
+     */
+    private final class Encoder {
+        private final BinaryOutput output;
+        private final IdentityHashMap<Object, Integer> identities;
+
+        Encoder(BinaryOutput output) {
+            this.output = output;
+            this.identities = retainIdentity ? new IdentityHashMap<>() : null;
+        }
+
+        /**
+         * Записывает значение свойства. Перед значениями ссылочных типов записывается байт-маркер.
+         *
+         * @param type        объявленный тип свойства.
+         * @param genericType тип элементов коллекции; null, если свойство не является коллекцией.
+         * @param value       записываемое значение.
+         */
+        void writeValue(Class<?> type, Class<?> genericType, Object value) {
+            if (type.isPrimitive()) {
+                writePayload(box(type), genericType, value);
+                return;
+            }
+
+            if (value == null) {
+                output.writeByte(NULL_MARKER);
+                return;
+            }
+
+            if (identities != null && isStructure(type)) {
+                Integer id = identities.get(value);
+                if (id != null) {
+                    output.writeByte(REFERENCE_MARKER);
+                    output.writeVarLong(id);
+                    return;
+                }
+                identities.put(value, identities.size());
+            }
+
+            output.writeByte(VALUE_MARKER);
+            writePayload(type, genericType, value);
+        }
+
+        private void writePayload(Class<?> type, Class<?> genericType, Object value) {
+            if (type == Boolean.class) {
+                output.writeByte((Boolean) value ? 1 : 0);
+            } else if (type == Byte.class) {
+                output.writeByte((Byte) value);
+            } else if (type == Short.class || type == Integer.class || type == Long.class) {
+                output.writeSignedVarLong(((Number) value).longValue());
+            } else if (type == Character.class) {
+                output.writeVarLong((Character) value);
+            } else if (type == Float.class) {
+                output.writeFloat((Float) value);
+            } else if (type == Double.class) {
+                output.writeDouble((Double) value);
+            } else if (type == String.class) {
+                output.writeString((String) value);
+            } else if (type.isEnum()) {
+                output.writeVarLong(((Enum<?>) value).ordinal());
+            } else if (type == LocalDate.class) {
+                output.writeSignedVarLong(((LocalDate) value).toEpochDay());
+            } else if (type == LocalTime.class) {
+                output.writeVarLong(((LocalTime) value).toNanoOfDay());
+            } else if (type == LocalDateTime.class) {
+                LocalDateTime dateTime = (LocalDateTime) value;
+                output.writeSignedVarLong(dateTime.toLocalDate().toEpochDay());
+                output.writeVarLong(dateTime.toLocalTime().toNanoOfDay());
+            } else if (Collection.class.isAssignableFrom(type)) {
+                if (genericType == null) {
+                    throw new IllegalArgumentException("The collection must be parameterized with an element type.");
+                }
+
+                Collection<?> collection = (Collection<?>) value;
+                output.writeVarLong(collection.size());
+                for (Object item : collection) {
+                    writeValue(genericType, null, item);
+                }
+            } else {
+                ExportedClass exportedClass = ExportedClass.of(type);
+                for (ExportedProperty property : exportedClass.getProperties()) {
+                    writeValue(property.getType(), property.getGenericType(), property.get(value));
+                }
+            }
+        }
+    }
+
+    /**
+     * Состояние одной операции чтения.
+     */
+    private final class Decoder {
+        private final BinaryInput input;
+        private final List<Object> identities;
+
+        Decoder(BinaryInput input) {
+            this.input = input;
+            this.identities = retainIdentity ? new ArrayList<>() : null;
+        }
+
+        /**
+         * Читает значение свойства, записанное {@link Encoder#writeValue(Class, Class, Object)}.
+         *
+         * @param type        объявленный тип свойства.
+         * @param genericType тип элементов коллекции; null, если свойство не является коллекцией.
+         * @return прочитанное значение.
+         * @throws JsonParseException если документ повреждён.
+         */
+        Object readValue(Class<?> type, Class<?> genericType) throws JsonParseException {
+            if (type.isPrimitive()) {
+                return readPayload(box(type), genericType);
+            }
+
+            int marker = input.readByte();
+            if (marker == NULL_MARKER) {
+                return null;
+            } else if (marker == REFERENCE_MARKER && identities != null) {
+                long id = input.readVarLong();
+                if (id >= identities.size() || identities.get((int) id) == null) {
+                    throw new JsonParseException("Reference to an unknown object in the binary document.", 0);
+                }
+
+                return identities.get((int) id);
+            } else if (marker != VALUE_MARKER) {
+                throw new JsonParseException("Unexpected value marker in the binary document.", 0);
+            }
+
+            return readPayload(type, genericType);
+        }
+
+        private Object readPayload(Class<?> type, Class<?> genericType) throws JsonParseException {
+            if (type == Boolean.class) {
+                return input.readByte() != 0;
+            } else if (type == Byte.class) {
+                return (byte) input.readByte();
+            } else if (type == Short.class) {
+                return (short) input.readSignedVarLong();
+            } else if (type == Integer.class) {
+                return (int) input.readSignedVarLong();
+            } else if (type == Long.class) {
+                return input.readSignedVarLong();
+            } else if (type == Character.class) {
+                return (char) input.readVarLong();
+            } else if (type == Float.class) {
+                return input.readFloat();
+            } else if (type == Double.class) {
+                return input.readDouble();
+            } else if (type == String.class) {
+                return input.readString();
+            } else if (type.isEnum()) {
+                Object[] constants = type.getEnumConstants();
+                long ordinal = input.readVarLong();
+                if (ordinal >= constants.length) {
+                    throw new JsonParseException(String.format("Unknown constant of enum %s.", type.getName()), 0);
+                }
+
+                return constants[(int) ordinal];
+            } else if (type == LocalDate.class) {
+                return LocalDate.ofEpochDay(input.readSignedVarLong());
+            } else if (type == LocalTime.class) {
+                return LocalTime.ofNanoOfDay(input.readVarLong());
+            } else if (type == LocalDateTime.class) {
+                LocalDate date = LocalDate.ofEpochDay(input.readSignedVarLong());
+                return LocalDateTime.of(date, LocalTime.ofNanoOfDay(input.readVarLong()));
+            } else if (Collection.class.isAssignableFrom(type)) {
+                return readCollection(type, genericType);
+            } else {
+                return readStructure(ExportedClass.of(type));
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object readCollection(Class<?> type, Class<?> genericType) throws JsonParseException {
+            if (genericType == null) {
+                throw new IllegalArgumentException("The collection must be parameterized with an element type.");
+            }
+
+            long size = input.readVarLong();
+            Collection<Object> collection = (Collection<Object>) newCollection(type);
+            for (long index = 0; index < size; index++) {
+                collection.add(readValue(genericType, null));
+            }
+
+            return collection;
+        }
+
+        private Object readStructure(ExportedClass exportedClass) throws JsonParseException {
+            List<ExportedProperty> properties = exportedClass.getProperties();
+
+            if (exportedClass.isRecord()) {
+                int slot = reserveIdentity();
+                Object[] arguments = new Object[properties.size()];
+                for (int index = 0; index < arguments.length; index++) {
+                    ExportedProperty property = properties.get(index);
+                    arguments[index] = readValue(property.getType(), property.getGenericType());
+                }
+
+                Object instance = exportedClass.newInstance(arguments);
+                if (slot >= 0) {
+                    identities.set(slot, instance);
+                }
+
+                return instance;
+            } else {
+                Object instance = exportedClass.newInstance();
+                int slot = reserveIdentity();
+                if (slot >= 0) {
+                    identities.set(slot, instance);
+                }
+
+                for (ExportedProperty property : properties) {
+                    property.set(instance, readValue(property.getType(), property.getGenericType()));
+                }
+
+                return instance;
+            }
+        }
+
+        /**
+         * Резервирует номер для объекта, порядок номеров совпадает с порядком при записи.
+         *
+         * @return зарезервированный номер либо -1, если идентичность объектов не сохраняется.
+         */
+        private int reserveIdentity() {
+            if (identities == null) {
+                return -1;
+            }
+
+            identities.add(null);
+            return identities.size() - 1;
+        }
+    }
+
+    /**
+     * @param type объявленный тип свойства.
+     * @return true, если значение этого типа записывается как объект класса, аннотированного @Exported.
+     */
+    private static boolean isStructure(Class<?> type) {
+        return !(type == Boolean.class || type == Byte.class || type == Short.class || type == Integer.class
+                || type == Long.class || type == Character.class || type == Float.class || type == Double.class
+                || type == String.class || type.isEnum() || type == LocalDate.class || type == LocalTime.class
+                || type == LocalDateTime.class || Collection.class.isAssignableFrom(type));
+    }
+
+    /**
+     * Создаёт пустую коллекцию объявленного типа. Для интерфейсов List, Set и Collection используются
+     * ArrayList и HashSet, как и в {@link JsonMapper}.
+     *
+     * @param type объявленный тип коллекции.
+     * @return пустая коллекция.
+     */
+    private static Collection<?> newCollection(Class<?> type) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            if (Set.class.isAssignableFrom(type)) {
+                return new HashSet<>();
+            } else if (type.isAssignableFrom(ArrayList.class)) {
+                return new ArrayList<>();
+            } else {
+                throw new IllegalArgumentException(String.format("Unsupported collection type %s.", type.getName()));
+            }
+        }
+
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.trySetAccessible();
+            return (Collection<?>) constructor.newInstance();
+        } catch (ReflectiveOperationException exception) {
+            throw new RuntimeException(
+                    String.format("Impossible to create a new instance of %s", type.getName()),
+                    exception
+            );
+        }
+    }
+}
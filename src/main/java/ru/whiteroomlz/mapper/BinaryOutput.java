@@ -0,0 +1,81 @@
+package ru.whiteroomlz.mapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Расширяемый буфер, в который записываются значения двоичного формата: целые числа переменной длины (varint),
+ * числа с плавающей точкой в формате IEEE 754 и строки в кодировке UTF-8 с префиксом длины.
+ */
+final class BinaryOutput {
+    private byte[] buffer;
+    private int size;
+
+    BinaryOutput(int capacity) {
+        buffer = new byte[capacity];
+    }
+
+    private void ensureCapacity(int additional) {
+        if (size + additional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + additional));
+        }
+    }
+
+    void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+    }
+
+    /**
+     * Записывает неотрицательное число в формате varint: по 7 бит в байте, старший бит означает продолжение.
+     */
+    void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    /**
+     * Записывает число со знаком в формате varint после zigzag-преобразования, чтобы небольшие по модулю
+     * отрицательные числа занимали мало байтов.
+     */
+    void writeSignedVarLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    void writeFloat(float value) {
+        writeFixed(Float.floatToRawIntBits(value), Integer.BYTES);
+    }
+
+    void writeDouble(double value) {
+        writeFixed(Double.doubleToRawLongBits(value), Long.BYTES);
+    }
+
+    private void writeFixed(long bits, int bytes) {
+        ensureCapacity(bytes);
+        for (int shift = (bytes - 1) * 8; shift >= 0; shift -= 8) {
+            buffer[size++] = (byte) (bits >>> shift);
+        }
+    }
+
+    void writeString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    void writeTo(OutputStream outputStream) throws IOException {
+        outputStream.write(buffer, 0, size);
+    }
+}
@@ -0,0 +1,208 @@
+package ru.whiteroomlz.mapper;
+
+import ru.hse.homework4.Exported;
+import ru.hse.homework4.Ignored;
+import ru.hse.homework4.Immutable;
+
+import java.lang.reflect.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Описание класса, аннотированного @Exported: экспортируемые свойства в порядке объявления и конструктор.
+ * Описания вычисляются один раз для каждого класса и кэшируются.
+ */
+final class ExportedClass {
+    private static final ClassValue<ExportedClass> DESCRIPTORS = new ClassValue<>() {
+        @Override
+        protected ExportedClass computeValue(Class<?> clazz) {
+            return new ExportedClass(clazz);
+        }
+    };
+
+    private final Class<?> clazz;
+    private final Exported exported;
+    private final List<ExportedProperty> properties;
+    private final Constructor<?> constructor;
+    private final boolean constructorAccessible;
+
+    /**
+     * Значения параметров канонического конструктора record-класса по умолчанию. Используются для компонент,
+     * помеченных аннотацией @Ignored, и для свойств, отсутствующих в документе.
+     */
+    private final Object[] defaultArguments;
+
+    /**
+     * Индексы параметров канонического конструктора record-класса, соответствующих экспортируемым свойствам.
+     */
+    private final int[] argumentIndexes;
+
+    /**
+     * Неизменяемы ли экземпляры класса; null, пока не вычислено.
+     */
+    private volatile Boolean immutable;
+
+    private static final Set<Class<?>> IMMUTABLE_VALUE_TYPES = Set.of(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+            Float.class, Double.class, LocalDate.class, LocalTime.class, LocalDateTime.class
+    );
+
+    private ExportedClass(Class<?> clazz) {
+        if (!clazz.isAnnotationPresent(Exported.class)) {
+            throw new IllegalArgumentException("The serializable class must be marked with the @Exported annotation.");
+        }
+
+        this.clazz = clazz;
+        this.exported = clazz.getAnnotation(Exported.class);
+
+        if (clazz.isRecord()) {
+            RecordComponent[] components = clazz.getRecordComponents();
+            List<ExportedProperty> recordProperties = new ArrayList<>();
+            List<Integer> indexes = new ArrayList<>();
+            defaultArguments = new Object[components.length];
+            for (int index = 0; index < components.length; index++) {
+                Class<?> type = components[index].getType();
+                defaultArguments[index] = type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+                if (!components[index].isAnnotationPresent(Ignored.class)) {
+                    recordProperties.add(ExportedProperty.of(components[index]));
+                    indexes.add(index);
+                }
+            }
+
+            properties = List.copyOf(recordProperties);
+            argumentIndexes = indexes.stream().mapToInt(Integer::intValue).toArray();
+            constructor = clazz.getDeclaredConstructors()[0];
+        } else {
+            properties = Arrays.stream(clazz.getDeclaredFields())
+                    .filter(field -> !field.isAnnotationPresent(Ignored.class))
+                    .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                    .filter(field -> !field.isSynthetic())
+                    .map(ExportedProperty::of)
+                    .toList();
+            constructor = Arrays.stream(clazz.getDeclaredConstructors())
+                    .filter(candidate -> candidate.getParameterCount() == 0)
+                    .findFirst()
+                    .orElse(null);
+            defaultArguments = null;
+            argumentIndexes = null;
+        }
+
+        constructorAccessible = constructor != null && constructor.trySetAccessible();
+    }
+
+    /**
+     * @param clazz класс, аннотированный @Exported.
+     * @return описание класса.
+     * @throws IllegalArgumentException если класс не аннотирован @Exported.
+     */
+    static ExportedClass of(Class<?> clazz) {
+        return DESCRIPTORS.get(clazz);
+    }
+
+    Class<?> getType() {
+        return clazz;
+    }
+
+    Exported getExported() {
+        return exported;
+    }
+
+    boolean isRecord() {
+        return clazz.isRecord();
+    }
+
+    List<ExportedProperty> getProperties() {
+        return properties;
+    }
+
+    /**
+     * @return true, если экземпляры класса не изменяются после создания: класс аннотирован @Immutable либо
+     * является record-классом, все экспортируемые свойства которого имеют неизменяемые типы.
+     */
+    boolean isImmutable() {
+        Boolean result = immutable;
+        if (result == null) {
+            result = isImmutable(new HashSet<>());
+            immutable = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * @param visiting классы, неизменяемость которых уже проверяется; циклическая ссылка на такой класс не
+     *                 делает его изменяемым.
+     */
+    private boolean isImmutable(Set<Class<?>> visiting) {
+        if (clazz.isAnnotationPresent(Immutable.class) || !visiting.add(clazz)) {
+            return true;
+        }
+        if (!clazz.isRecord()) {
+            return false;
+        }
+
+        for (ExportedProperty property : properties) {
+            Class<?> type = property.getType();
+            boolean immutableType = type.isPrimitive() || type.isEnum() || IMMUTABLE_VALUE_TYPES.contains(type)
+                    || (type.isAnnotationPresent(Exported.class) && of(type).isImmutable(visiting));
+            if (!immutableType) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return массив значений свойств в порядке {@link #getProperties()}, заполненный значениями по умолчанию;
+     * свойства примитивных типов record-класса получают нулевые значения.
+     */
+    Object[] newArguments() {
+        Object[] arguments = new Object[properties.size()];
+        if (argumentIndexes != null) {
+            for (int index = 0; index < argumentIndexes.length; index++) {
+                arguments[index] = defaultArguments[argumentIndexes[index]];
+            }
+        }
+
+        return arguments;
+    }
+
+    /**
+     * Создаёт экземпляр класса. Для record-классов аргументы передаются в канонический конструктор,
+     * для остальных классов вызывается конструктор без параметров.
+     *
+     * @param arguments значения экспортируемых свойств record-класса в порядке {@link #getProperties()};
+     *                  не используются для обычных классов.
+     * @return созданный экземпляр.
+     */
+    Object newInstance(Object... arguments) {
+        if (!constructorAccessible) {
+            String exceptionMessage = String.format(
+                    "Deserializable class %s must have an available constructor%s.",
+                    clazz.getName(), clazz.isRecord() ? "" : " without parameters"
+            );
+            throw new IllegalArgumentException(exceptionMessage);
+        }
+
+        try {
+            if (clazz.isRecord()) {
+                Object[] constructorArguments = defaultArguments.clone();
+                for (int index = 0; index < argumentIndexes.length; index++) {
+                    constructorArguments[argumentIndexes[index]] = arguments[index];
+                }
+
+                return constructor.newInstance(constructorArguments);
+            } else {
+                return constructor.newInstance();
+            }
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException exception) {
+            throw new RuntimeException(
+                    String.format("Impossible to create a new instance of %s", clazz.getName()),
+                    exception
+            );
+        }
+    }
+}
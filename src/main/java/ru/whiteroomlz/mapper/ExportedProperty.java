@@ -0,0 +1,94 @@
+package ru.whiteroomlz.mapper;
+
+import ru.hse.homework4.DateFormat;
+import ru.hse.homework4.PropertyName;
+
+import java.lang.reflect.*;
+
+/**
+ * Описание экспортируемого поля класса или компоненты record-класса: ключ, тип, тип элементов коллекции и
+ * формат Temporal значения.
+ */
+final class ExportedProperty {
+    private final String key;
+    private final Class<?> type;
+    private final Class<?> genericType;
+    private final DateFormat dateFormat;
+    private final Field field;
+    private final Method accessor;
+
+    private ExportedProperty(AnnotatedElement element, String name, Class<?> type, Type genericType,
+                             Field field, Method accessor) {
+        if (element.isAnnotationPresent(PropertyName.class)) {
+            this.key = element.getAnnotation(PropertyName.class).value().replaceAll("[\"]", "'");
+        } else {
+            this.key = name;
+        }
+
+        this.type = type;
+        if (genericType instanceof ParameterizedType parameterizedType) {
+            this.genericType = (Class<?>) parameterizedType.getActualTypeArguments()[0];
+        } else {
+            this.genericType = null;
+        }
+        this.dateFormat = element.getAnnotation(DateFormat.class);
+        this.field = field;
+        this.accessor = accessor;
+    }
+
+    static ExportedProperty of(Field field) {
+        field.trySetAccessible();
+        return new ExportedProperty(field, field.getName(), field.getType(), field.getGenericType(), field, null);
+    }
+
+    static ExportedProperty of(RecordComponent component) {
+        Method accessor = component.getAccessor();
+        accessor.trySetAccessible();
+        return new ExportedProperty(component, component.getName(), component.getType(), component.getGenericType(),
+                null, accessor);
+    }
+
+    /**
+     * @return ключ свойства с учётом аннотации @PropertyName.
+     */
+    String getKey() {
+        return key;
+    }
+
+    Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @return тип, которым параметризовано свойство, либо null, если тип свойства не параметризован.
+     */
+    Class<?> getGenericType() {
+        return genericType;
+    }
+
+    /**
+     * @return аннотация @DateFormat свойства либо null.
+     */
+    DateFormat getDateFormat() {
+        return dateFormat;
+    }
+
+    Object get(Object instance) {
+        try {
+            return field != null ? field.get(instance) : accessor.invoke(instance);
+        } catch (IllegalAccessException | InvocationTargetException exception) {
+            throw new IllegalArgumentException("Impossible to get value of object element.", exception);
+        }
+    }
+
+    /**
+     * Присваивает значение полю объекта. Не применим к компонентам record-классов.
+     */
+    void set(Object instance, Object value) {
+        try {
+            field.set(instance, value);
+        } catch (IllegalAccessException exception) {
+            throw new IllegalArgumentException("Impossible to set value of object element.", exception);
+        }
+    }
+}
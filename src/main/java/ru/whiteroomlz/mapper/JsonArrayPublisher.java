@@ -0,0 +1,201 @@
+package ru.whiteroomlz.mapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Источник элементов корневой коллекции JSON документа, поддерживающий обратное давление. Документ читается из
+ * канала по мере того, как подписчик запрашивает элементы через {@link Flow.Subscription#request(long)}, поэтому
+ * количество разобранных, но не доставленных элементов ограничено размером одного считанного фрагмента.
+ * <p>
+ * Источник допускает только одного подписчика. Чтение канала и доставка элементов выполняются в {@code executor}.
+ * <p>
+ * Пример вызова:
+ *
+ * <pre>
+ * new JsonArrayPublisher&lt;&gt;(mapper, Person.class, new FileInputStream("/tmp/people.json"), executor)
+ *         .subscribe(subscriber);
+ * </pre>
+ *
+ * @param <T> тип элементов коллекции.
+ */
+public final class JsonArrayPublisher<T> implements Flow.Publisher<T> {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final JsonMapper mapper;
+    private final Class<T> clazz;
+    private final ReadableByteChannel channel;
+    private final Executor executor;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * @param mapper   десериализатор, копия которого используется для восстановления элементов.
+     * @param clazz    класс элементов коллекции.
+     * @param channel  блокирующий канал, содержащий документ в кодировке UTF-8. Закрывается после завершения
+     *                 чтения.
+     * @param executor исполнитель, в котором читается канал и доставляются элементы.
+     */
+    public JsonArrayPublisher(JsonMapper mapper, Class<T> clazz, ReadableByteChannel channel, Executor executor) {
+        this.mapper = mapper;
+        this.clazz = clazz;
+        this.channel = Objects.requireNonNull(channel);
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    /**
+     * @param mapper      десериализатор, копия которого используется для восстановления элементов.
+     * @param clazz       класс элементов коллекции.
+     * @param inputStream поток, содержащий документ в кодировке UTF-8. Закрывается после завершения чтения.
+     * @param executor    исполнитель, в котором читается поток и доставляются элементы.
+     */
+    public JsonArrayPublisher(JsonMapper mapper, Class<T> clazz, InputStream inputStream, Executor executor) {
+        this(mapper, clazz, Channels.newChannel(inputStream), executor);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber);
+
+        if (subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new ArraySubscription(subscriber));
+        } else {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("The publisher supports only a single subscriber."));
+        }
+    }
+
+    private final class ArraySubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final JsonFeedParser<T> parser = new JsonFeedParser<>(mapper, clazz);
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger workInProgress = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable pendingError;
+        private boolean terminated;
+
+        ArraySubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                pendingError = new IllegalArgumentException("The number of requested elements must be positive.");
+            } else {
+                demand.getAndAccumulate(n, (current, added) -> {
+                    long sum = current + added;
+                    return sum < 0 ? Long.MAX_VALUE : sum;
+                });
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (workInProgress.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        /**
+         * Доставляет запрошенные элементы, считывая канал только тогда, когда разобранных элементов недостаточно.
+         * Одновременно выполняется не более одного вызова.
+         * <p>
+         * Ошибки чтения и разбора документа передаются подписчику через onError. Исключение, выброшенное самим
+         * подписчиком, нарушает правило 2.13 Reactive Streams: подписка отменяется, подписчику больше не
+         * отправляются сигналы, а исключение пробрасывается в {@code executor}.
+         */
+        private void drain() {
+            int missed = 1;
+            do {
+                if (!terminated) {
+                    try {
+                        emit();
+                    } catch (Throwable exception) {
+                        terminate();
+                        throw exception;
+                    }
+                }
+                missed = workInProgress.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emit() {
+            while (!terminated) {
+                if (cancelled) {
+                    terminate();
+                    return;
+                }
+                if (pendingError != null) {
+                    terminate();
+                    subscriber.onError(pendingError);
+                    return;
+                }
+
+                if (parser.available() > 0) {
+                    if (demand.get() == 0) {
+                        return;
+                    }
+                    demand.decrementAndGet();
+                    subscriber.onNext(parser.poll());
+                } else if (parser.isFinished()) {
+                    terminate();
+                    subscriber.onComplete();
+                    return;
+                } else if (demand.get() == 0) {
+                    return;
+                } else {
+                    try {
+                        read();
+                    } catch (IOException | JsonParseException | RuntimeException exception) {
+                        terminate();
+                        subscriber.onError(exception);
+                        return;
+                    }
+                }
+            }
+        }
+
+        private void read() throws IOException, JsonParseException {
+            buffer.clear();
+            if (channel.read(buffer) < 0) {
+                parser.endOfInput();
+            } else {
+                parser.feed(buffer.flip());
+            }
+        }
+
+        private void terminate() {
+            terminated = true;
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Ошибка закрытия канала не влияет на уже доставленные элементы.
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package ru.whiteroomlz.mapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * Подписчик, записывающий получаемые объекты в канал в виде корневой JSON коллекции. Объекты запрашиваются
+ * порциями фиксированного размера, поэтому медленный канал ограничивает скорость источника.
+ * <p>
+ * Пример вызова:
+ *
+ * <pre>
+ * JsonArraySubscriber&lt;Person&gt; subscriber =
+ *         new JsonArraySubscriber&lt;&gt;(mapper, new FileOutputStream("/tmp/people.json"));
+ * publisher.subscribe(subscriber);
+ * subscriber.getCompletion().join();
+ * </pre>
+ *
+ * @param <T> тип записываемых объектов.
+ */
+public final class JsonArraySubscriber<T> implements Flow.Subscriber<T> {
+    /**
+     * Количество объектов, запрашиваемых у источника за один раз.
+     */
+    private static final int BATCH_SIZE = 16;
+
+    private final JsonMapper mapper;
+    private final WritableByteChannel channel;
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+    private Flow.Subscription subscription;
+    private long written;
+    private int receivedInBatch;
+
+    /**
+     * @param mapper  сериализатор, копия которого используется для записи объектов.
+     * @param channel канал, в который записывается коллекция. Закрывается после завершения записи.
+     */
+    public JsonArraySubscriber(JsonMapper mapper, WritableByteChannel channel) {
+        this.mapper = mapper.fork();
+        this.channel = Objects.requireNonNull(channel);
+    }
+
+    /**
+     * @param mapper       сериализатор, копия которого используется для записи объектов.
+     * @param outputStream поток, в который записывается коллекция. Закрывается после завершения записи.
+     */
+    public JsonArraySubscriber(JsonMapper mapper, OutputStream outputStream) {
+        this(mapper, Channels.newChannel(outputStream));
+    }
+
+    /**
+     * @return future, завершающийся после записи закрывающей скобки коллекции и закрытия канала.
+     */
+    public CompletableFuture<Void> getCompletion() {
+        return completion;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+
+        this.subscription = subscription;
+        subscription.request(BATCH_SIZE);
+    }
+
+    @Override
+    public void onNext(T item) {
+        try {
+            write((written == 0 ? "[" : ",") + mapper.writeToString(item));
+            written++;
+        } catch (IOException | RuntimeException exception) {
+            subscription.cancel();
+            fail(exception);
+            return;
+        }
+
+        if (++receivedInBatch == BATCH_SIZE) {
+            receivedInBatch = 0;
+            subscription.request(BATCH_SIZE);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        fail(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        if (completion.isDone()) {
+            return;
+        }
+
+        try {
+            write(written == 0 ? "[]" : "]");
+            channel.close();
+            completion.complete(null);
+        } catch (IOException exception) {
+            fail(exception);
+        }
+    }
+
+    private void write(String fragment) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(fragment.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void fail(Throwable throwable) {
+        try {
+            channel.close();
+        } catch (IOException exception) {
+            throwable.addSuppressed(exception);
+        }
+        completion.completeExceptionally(throwable);
+    }
+}
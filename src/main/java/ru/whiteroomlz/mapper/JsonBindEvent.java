@@ -0,0 +1,12 @@
+package ru.whiteroomlz.mapper;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Восстановление корневого объекта из дерева JSON объектов.
+ */
+@Name("ru.whiteroomlz.mapper.Bind")
+@Label("JSON Bind")
+final class JsonBindEvent extends JsonMapperEvent {
+}
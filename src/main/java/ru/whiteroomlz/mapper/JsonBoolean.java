@@ -5,7 +5,7 @@ package ru.whiteroomlz.mapper;
  */
 final class JsonBoolean extends JsonPrimitive {
     public JsonBoolean(Boolean value) {
-        this.value = value;
+        super(value);
     }
 
     /**
@@ -20,8 +20,12 @@ final class JsonBoolean extends JsonPrimitive {
      * @throws JsonParseException если не удалось обработать переданный фрагмент.
      */
     public JsonBoolean(String jsonDocument) throws JsonParseException {
+        super(parse(jsonDocument));
+    }
+
+    private static Boolean parse(String jsonDocument) throws JsonParseException {
         if ("true".equalsIgnoreCase(jsonDocument) || "false".equalsIgnoreCase(jsonDocument)) {
-            value = Boolean.parseBoolean(jsonDocument);
+            return Boolean.parseBoolean(jsonDocument);
         } else {
             String exceptionMessage = String.format(
                     "Impossible to convert the part of specified JSON document:\"%s\" to the boolean value.",
@@ -0,0 +1,206 @@
+package ru.whiteroomlz.mapper;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.text.NumberFormat;
+
+/**
+ * Набор вспомогательных буферов, используемых при разборе и записи документов: буферы символов и байтов,
+ * кодировщики UTF-8, стек скобок и форматтер чисел.
+ * <p>
+ * Экземпляр, возвращаемый методом {@link #current()}, принадлежит текущему потоку и переиспользуется всеми
+ * вызовами сериализатора в этом потоке. Буферы, выросшие больше {@link #MAX_RETAINED_CAPACITY}, не
+ * сохраняются, чтобы однажды обработанный большой документ не удерживал память. Экземпляр не является
+ * потокобезопасным.
+ */
+final class JsonBufferPool {
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Максимальная ёмкость буфера, который сохраняется для повторного использования.
+     */
+    static final int MAX_RETAINED_CAPACITY = 1 << 20;
+
+    private static final ThreadLocal<JsonBufferPool> POOLS = ThreadLocal.withInitial(JsonBufferPool::new);
+
+    private StringBuilder stringBuilder;
+    private boolean stringBuilderAcquired;
+    private ByteBuffer byteBuffer;
+    private CharBuffer charBuffer;
+    private CharsetDecoder decoder;
+    private CharsetEncoder encoder;
+    private NumberFormat numberFormat;
+    private StringBuilder brackets = new StringBuilder();
+
+    /**
+     * Таблица, из которой берутся ключи и строковые значения разбираемого документа; null, если строки не
+     * дедуплицируются.
+     */
+    private JsonStringTable stringTable;
+
+    /**
+     * Таблица ссылок на строки разбираемого документа; null, если документ записан без ссылок.
+     */
+    private JsonStringReferences stringReferences;
+
+    /**
+     * @return набор буферов текущего потока.
+     */
+    static JsonBufferPool current() {
+        return POOLS.get();
+    }
+
+    /**
+     * Выдаёт пустой StringBuilder. Если буфер текущего набора уже выдан (например, при вложенном вызове
+     * сериализатора), возвращается новый экземпляр.
+     *
+     * @return пустой StringBuilder, который следует вернуть методом {@link #releaseStringBuilder(StringBuilder)}.
+     */
+    StringBuilder acquireStringBuilder() {
+        if (stringBuilderAcquired) {
+            return new StringBuilder();
+        }
+
+        if (stringBuilder == null) {
+            stringBuilder = new StringBuilder(BUFFER_SIZE);
+        }
+        stringBuilderAcquired = true;
+        stringBuilder.setLength(0);
+
+        return stringBuilder;
+    }
+
+    /**
+     * @param builder StringBuilder, ранее выданный методом {@link #acquireStringBuilder()}.
+     */
+    void releaseStringBuilder(StringBuilder builder) {
+        if (builder != stringBuilder) {
+            return;
+        }
+
+        stringBuilderAcquired = false;
+        if (builder.capacity() > MAX_RETAINED_CAPACITY) {
+            stringBuilder = null;
+        }
+    }
+
+    /**
+     * @return очищенный буфер байтов с доступным массивом.
+     */
+    ByteBuffer byteBuffer() {
+        if (byteBuffer == null) {
+            byteBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+        }
+
+        return byteBuffer.clear();
+    }
+
+    /**
+     * @return очищенный буфер символов.
+     */
+    CharBuffer charBuffer() {
+        if (charBuffer == null) {
+            charBuffer = CharBuffer.allocate(BUFFER_SIZE);
+        }
+
+        return charBuffer.clear();
+    }
+
+    /**
+     * @return сброшенный декодер UTF-8, заменяющий некорректные последовательности так же, как InputStreamReader.
+     */
+    CharsetDecoder decoder() {
+        if (decoder == null) {
+            decoder = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+
+        return decoder.reset();
+    }
+
+    /**
+     * @return сброшенный кодировщик UTF-8, заменяющий некорректные символы так же, как OutputStreamWriter.
+     */
+    CharsetEncoder encoder() {
+        if (encoder == null) {
+            encoder = StandardCharsets.UTF_8.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+
+        return encoder.reset();
+    }
+
+    /**
+     * @return форматтер чисел, используемый при разборе JSON-Number.
+     */
+    NumberFormat numberFormat() {
+        if (numberFormat == null) {
+            numberFormat = NumberFormat.getInstance();
+        }
+
+        return numberFormat;
+    }
+
+    JsonStringTable getStringTable() {
+        return stringTable;
+    }
+
+    /**
+     * @param stringTable таблица строк, используемая при разборе, либо null.
+     */
+    void setStringTable(JsonStringTable stringTable) {
+        this.stringTable = stringTable;
+    }
+
+    JsonStringReferences getStringReferences() {
+        return stringReferences;
+    }
+
+    /**
+     * @param stringReferences таблица ссылок на строки разбираемого документа либо null.
+     */
+    void setStringReferences(JsonStringReferences stringReferences) {
+        this.stringReferences = stringReferences;
+    }
+
+    /**
+     * @return строка {@code document.substring(from, to)}, взятая из таблицы строк, если она подключена.
+     */
+    String substring(String document, int from, int to) {
+        return stringTable == null ? document.substring(from, to) : stringTable.get(document, from, to);
+    }
+
+    /**
+     * Выдаёт пустой стек скобок. Вложенные фрагменты документа разбираются только тогда, когда стек
+     * внешнего фрагмента пуст, поэтому один стек разделяется всеми уровнями вложенности.
+     *
+     * @return пустой стек скобок.
+     */
+    StringBuilder brackets() {
+        if (brackets.capacity() > MAX_RETAINED_CAPACITY) {
+            brackets = new StringBuilder();
+        }
+        brackets.setLength(0);
+
+        return brackets;
+    }
+
+    /**
+     * Извлекает верхнюю скобку из стека, выданного методом {@link #brackets()}.
+     *
+     * @param brackets непустой стек скобок.
+     * @return извлечённая скобка.
+     */
+    static char popBracket(StringBuilder brackets) {
+        char bracket = brackets.charAt(brackets.length() - 1);
+        brackets.setLength(brackets.length() - 1);
+
+        return bracket;
+    }
+}
@@ -5,7 +5,7 @@ package ru.whiteroomlz.mapper;
  */
 final class JsonCharacter extends JsonPrimitive {
     public JsonCharacter(Character value) {
-        this.value = value;
+        super(value);
     }
 
     /**
@@ -20,18 +20,23 @@ final class JsonCharacter extends JsonPrimitive {
      * @throws JsonParseException если не удалось обработать переданный фрагмент.
      */
     public JsonCharacter(String jsonDocument) throws JsonParseException {
+        super(parse(jsonDocument));
+    }
+
+    private static Character parse(String jsonDocument) throws JsonParseException {
         if (jsonDocument.length() == 1) {
-            value = jsonDocument.charAt(0);
+            return jsonDocument.charAt(0);
         } else if (jsonDocument.startsWith("\\")) {
 
             // Отдельная обработка эскейп-последовательностей, поддерживаемых виртуальной машиной Java.
-            switch (jsonDocument.charAt(1)) {
-                case 't' -> value = '\t';
-                case 'b' -> value = '\b';
-                case 'n' -> value = '\n';
-                case 'r' -> value = '\r';
-                case 'f' -> value = '\f';
-            }
+            return switch (jsonDocument.charAt(1)) {
+                case 't' -> '\t';
+                case 'b' -> '\b';
+                case 'n' -> '\n';
+                case 'r' -> '\r';
+                case 'f' -> '\f';
+                default -> null;
+            };
         } else {
             String exceptionMessage = String.format(
                     "Impossible to convert the part of specified JSON document:\"%s\" to the character value.",
@@ -42,15 +47,15 @@ final class JsonCharacter extends JsonPrimitive {
     }
 
     @Override
-    public String toString() {
-        return switch ((Character) value) {
-            case '\t' -> "\\t";
-            case '\b' -> "\\b";
-            case '\n' -> "\\n";
-            case '\r' -> "\\r";
-            case '\f' -> "\\f";
-            default -> super.toString();
-        };
+    void appendTo(StringBuilder builder) {
+        switch ((Character) value) {
+            case '\t' -> builder.append("\\t");
+            case '\b' -> builder.append("\\b");
+            case '\n' -> builder.append("\\n");
+            case '\r' -> builder.append("\\r");
+            case '\f' -> builder.append("\\f");
+            default -> super.appendTo(builder);
+        }
     }
 
     @Override
@@ -0,0 +1,115 @@
+package ru.whiteroomlz.mapper;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счётчики одного класса. Все счётчики распределены по ячейкам (LongAdder, LongAccumulator), поэтому
+ * одновременные вызовы сериализатора из разных потоков не конкурируют за одну переменную.
+ */
+final class JsonClassStatistics implements JsonClassStatisticsMXBean {
+    private final Class<?> clazz;
+
+    private final LongAdder serializeCount = new LongAdder();
+    private final LongAdder serializeTotalNanos = new LongAdder();
+    private final LongAccumulator serializeMaxNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder bytesProduced = new LongAdder();
+
+    private final LongAdder deserializeCount = new LongAdder();
+    private final LongAdder deserializeTotalNanos = new LongAdder();
+    private final LongAccumulator deserializeMaxNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder bytesConsumed = new LongAdder();
+
+    private final ConcurrentHashMap<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+    JsonClassStatistics(Class<?> clazz) {
+        this.clazz = clazz;
+    }
+
+    void recordSerialization(long nanos, long bytes) {
+        serializeCount.increment();
+        serializeTotalNanos.add(nanos);
+        serializeMaxNanos.accumulate(nanos);
+        bytesProduced.add(bytes);
+    }
+
+    void recordDeserialization(long nanos, long bytes) {
+        deserializeCount.increment();
+        deserializeTotalNanos.add(nanos);
+        deserializeMaxNanos.accumulate(nanos);
+        bytesConsumed.add(bytes);
+    }
+
+    void recordFailure(Throwable throwable) {
+        failures.computeIfAbsent(throwable.getClass().getName(), name -> new LongAdder()).increment();
+    }
+
+    @Override
+    public String getClassName() {
+        return clazz.getName();
+    }
+
+    @Override
+    public long getSerializeCount() {
+        return serializeCount.sum();
+    }
+
+    @Override
+    public long getSerializeTotalNanos() {
+        return serializeTotalNanos.sum();
+    }
+
+    @Override
+    public long getSerializeMaxNanos() {
+        return serializeMaxNanos.get();
+    }
+
+    @Override
+    public long getBytesProduced() {
+        return bytesProduced.sum();
+    }
+
+    @Override
+    public long getDeserializeCount() {
+        return deserializeCount.sum();
+    }
+
+    @Override
+    public long getDeserializeTotalNanos() {
+        return deserializeTotalNanos.sum();
+    }
+
+    @Override
+    public long getDeserializeMaxNanos() {
+        return deserializeMaxNanos.get();
+    }
+
+    @Override
+    public long getBytesConsumed() {
+        return bytesConsumed.sum();
+    }
+
+    @Override
+    public Map<String, Long> getFailures() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        failures.forEach((name, count) -> snapshot.put(name, count.sum()));
+
+        return snapshot;
+    }
+
+    @Override
+    public void reset() {
+        serializeCount.reset();
+        serializeTotalNanos.reset();
+        serializeMaxNanos.reset();
+        bytesProduced.reset();
+        deserializeCount.reset();
+        deserializeTotalNanos.reset();
+        deserializeMaxNanos.reset();
+        bytesConsumed.reset();
+        failures.values().forEach(LongAdder::reset);
+    }
+}
@@ -0,0 +1,45 @@
+package ru.whiteroomlz.mapper;
+
+import java.util.Map;
+
+/**
+ * Статистика сериализации и десериализации одного класса, доступная через JMX.
+ */
+public interface JsonClassStatisticsMXBean {
+    /**
+     * @return полное имя класса.
+     */
+    String getClassName();
+
+    long getSerializeCount();
+
+    long getSerializeTotalNanos();
+
+    long getSerializeMaxNanos();
+
+    /**
+     * @return количество байтов в кодировке UTF-8, записанных при сериализации.
+     */
+    long getBytesProduced();
+
+    long getDeserializeCount();
+
+    long getDeserializeTotalNanos();
+
+    long getDeserializeMaxNanos();
+
+    /**
+     * @return количество байтов в кодировке UTF-8, прочитанных при десериализации.
+     */
+    long getBytesConsumed();
+
+    /**
+     * @return количество неудачных вызовов по полному имени класса исключения.
+     */
+    Map<String, Long> getFailures();
+
+    /**
+     * Обнуляет все счётчики.
+     */
+    void reset();
+}
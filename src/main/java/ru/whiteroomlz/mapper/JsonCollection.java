@@ -6,10 +6,52 @@ import java.util.*;
  * Класс, предназначенный для хранения классов, реализующих интерфейс List или Set.
  */
 public final class JsonCollection extends JsonObject {
+    /**
+     * Неизменяемое представление элементов коллекции.
+     */
     final List<? super JsonObject> collection;
 
+    private int hash;
+    private boolean hashIsZero;
+
+    /**
+     * Строковые представления последовательных частей коллекции, подготовленные при параллельной сериализации.
+     * null, если коллекция не разбивалась на части. Элементы такой коллекции не хранятся, поле collection пусто.
+     */
+    private final List<String> renderedChunks;
+
+    /**
+     * Количество JSON значений в частях renderedChunks, включая вложенные; 0, если они не подсчитывались.
+     */
+    final long renderedElements;
+
     public JsonCollection(Collection<? extends JsonObject> jsonObjects) {
-        collection = new ArrayList<>(jsonObjects);
+        collection = Collections.unmodifiableList(new ArrayList<>(jsonObjects));
+        renderedChunks = null;
+        renderedElements = 0;
+    }
+
+    /**
+     * Создаёт коллекцию, представленную только строками своих частей. Такая коллекция может быть лишь записана
+     * в документ и равна только коллекции с тем же строковым представлением, созданной так же.
+     *
+     * @param renderedChunks   строковые представления непустых последовательных частей коллекции без
+     *                         обрамляющих скобок, в совокупности содержащие все её элементы.
+     * @param renderedElements количество JSON значений в частях, включая вложенные.
+     */
+    JsonCollection(List<String> renderedChunks, long renderedElements) {
+        collection = List.of();
+        this.renderedChunks = renderedChunks;
+        this.renderedElements = renderedElements;
+    }
+
+    /**
+     * @param elements ленивые элементы коллекции, разбираемые при первом обращении.
+     */
+    JsonCollection(LazyJsonTree.ElementList elements) {
+        collection = Collections.unmodifiableList(elements);
+        renderedChunks = null;
+        renderedElements = 0;
     }
 
     /**
@@ -25,6 +67,28 @@ public final class JsonCollection extends JsonObject {
      * @throws JsonParseException если не удалось обработать переданный фрагмент.
      */
     public JsonCollection(String jsonDocument) throws JsonParseException {
+        this(jsonDocument, new JsonBufferPool());
+    }
+
+    /**
+     * @param jsonDocument фрагмент JSON документа, содержащий строковый объект, представимый в виде JSON-Collection.
+     *                     Должен быть обрамлён квадратными скобками '[', ']'.
+     * @param pool         набор вспомогательных буферов, используемых при разборе.
+     * @throws JsonParseException если не удалось обработать переданный фрагмент.
+     */
+    JsonCollection(String jsonDocument, JsonBufferPool pool) throws JsonParseException {
+        this(jsonDocument, pool, null);
+    }
+
+    /**
+     * @param jsonDocument фрагмент JSON документа, содержащий строковый объект, представимый в виде JSON-Collection.
+     *                     Должен быть обрамлён квадратными скобками '[', ']'.
+     * @param pool         набор вспомогательных буферов, используемых при разборе.
+     * @param projection   проекция, с которой разбираются элементы-структуры; null, если элементы разбираются
+     *                     полностью. Вложенные коллекции (например, строки позиционной записи) разбираются полностью.
+     * @throws JsonParseException если не удалось обработать переданный фрагмент.
+     */
+    JsonCollection(String jsonDocument, JsonBufferPool pool, JsonProjection projection) throws JsonParseException {
         // Проверка на принадлежность к типу JsonCollection.
         if (jsonDocument.startsWith("[") && jsonDocument.endsWith("]")) {
             jsonDocument = jsonDocument.substring(1, jsonDocument.length() - 1);
@@ -32,30 +96,33 @@ public final class JsonCollection extends JsonObject {
             throw new IncorrectStructureException("The collection must start with '[' and end with ']' characters");
         }
 
-        collection = new ArrayList<>();
+        List<JsonObject> elements = new ArrayList<>();
+        collection = Collections.unmodifiableList(elements);
+        renderedChunks = null;
+        renderedElements = 0;
 
         if (jsonDocument.length() == 0) {
             return;
         }
 
         // С помощью стека проверяется корректность скобочной последовательности.
-        Stack<Character> stack = new Stack<>();
+        StringBuilder stack = pool.brackets();
 
         char bracket;
         int sequenceStart = 0, sequenceEnd;
         for (int char_index = 0; char_index < jsonDocument.length(); char_index++) {
             switch (jsonDocument.charAt(char_index)) {
                 case '[':
-                    stack.push('[');
+                    stack.append('[');
                     break;
                 case '{':
-                    stack.push('{');
+                    stack.append('{');
                     break;
                 case ']':
-                    if (stack.empty()) {
+                    if (stack.isEmpty()) {
                         throw new IncorrectStructureException("Unexpected bracket: ]", char_index);
                     }
-                    if ((bracket = stack.pop()) != '[') {
+                    if ((bracket = JsonBufferPool.popBracket(stack)) != '[') {
                         String exceptionMessage = String.format(
                                 IncorrectStructureException.BRACKETS_CLOSING_ORDER_EXCEPTION_MESSAGE,
                                 bracket
@@ -64,10 +131,10 @@ public final class JsonCollection extends JsonObject {
                     }
                     break;
                 case '}':
-                    if (stack.empty()) {
+                    if (stack.isEmpty()) {
                         throw new IncorrectStructureException("Unexpected bracket: }", char_index);
                     }
-                    if ((bracket = stack.pop()) != '{') {
+                    if ((bracket = JsonBufferPool.popBracket(stack)) != '{') {
                         String exceptionMessage = String.format(
                                 IncorrectStructureException.BRACKETS_CLOSING_ORDER_EXCEPTION_MESSAGE,
                                 bracket
@@ -78,35 +145,87 @@ public final class JsonCollection extends JsonObject {
                 // Разделитель элементов в последовательном представлении коллекции.
                 // Происходит обработка выделенного фрагмента.
                 case ',':
-                    if (stack.empty()) {
+                    if (stack.isEmpty()) {
                         sequenceEnd = char_index;
                         if (sequenceStart == sequenceEnd) {
                             throw new IncorrectStructureException("Duplicate separators detected.", char_index);
                         }
-                        collection.add(JsonMapper.parseDocument(jsonDocument.substring(sequenceStart, sequenceEnd)));
+                        addElement(elements, jsonDocument, sequenceStart, sequenceEnd, pool, projection);
                         sequenceStart = char_index + 1;
                     }
                     break;
             }
         }
 
-        if (stack.empty()) {
-            collection.add(JsonMapper.parseDocument(jsonDocument.substring(sequenceStart)));
+        if (stack.isEmpty()) {
+            addElement(elements, jsonDocument, sequenceStart, jsonDocument.length(), pool, projection);
         } else {
             String exceptionMessage = String.format(
                     IncorrectStructureException.NOT_ALL_BRACKETS_CLOSED_EXCEPTION_MESSAGE,
-                    stack.peek()
+                    stack.charAt(stack.length() - 1)
             );
             throw new IncorrectStructureException(exceptionMessage);
         }
     }
 
+    private static void addElement(List<JsonObject> elements, String jsonDocument, int from, int to,
+                                   JsonBufferPool pool, JsonProjection projection) throws JsonParseException {
+        boolean nestedCollection = from < to && jsonDocument.charAt(from) == '[';
+        elements.add(JsonMapper.parseValue(jsonDocument, from, to, pool, nestedCollection ? null : projection));
+    }
+
+    /**
+     * @return true, если коллекция представлена только строками частей, записанных параллельно.
+     */
+    boolean isRendered() {
+        return renderedChunks != null;
+    }
+
     @Override
-    public String toString() {
-        StringJoiner stringJoiner = new StringJoiner(",", "[", "]");
-        collection.forEach(value -> stringJoiner.add(value == null ? null : value.toString()));
+    void appendTo(StringBuilder builder) {
+        builder.append('[');
 
-        return stringJoiner.toString();
+        if (renderedChunks != null) {
+            for (int index = 0; index < renderedChunks.size(); index++) {
+                if (index > 0) {
+                    builder.append(',');
+                }
+                builder.append(renderedChunks.get(index));
+            }
+        } else {
+            appendElements(collection, 0, collection.size(), builder);
+        }
+
+        builder.append(']');
+    }
+
+    /**
+     * Дописывает разделённые запятыми строковые представления элементов в переданный буфер.
+     *
+     * @param elements элементы коллекции.
+     * @param from     индекс первого элемента.
+     * @param to       индекс, следующий за индексом последнего элемента.
+     * @param builder  буфер, в который записываются представления.
+     */
+    static void appendElements(List<?> elements, int from, int to, StringBuilder builder) {
+        for (int index = from; index < to; index++) {
+            if (index > from) {
+                builder.append(',');
+            }
+            appendElement((JsonObject) elements.get(index), builder);
+        }
+    }
+
+    /**
+     * @param element элемент коллекции; null записывается как null.
+     * @param builder буфер, в который записывается представление.
+     */
+    static void appendElement(JsonObject element, StringBuilder builder) {
+        if (element == null) {
+            builder.append("null");
+        } else {
+            element.appendTo(builder);
+        }
     }
 
     @Override
@@ -114,15 +233,28 @@ public final class JsonCollection extends JsonObject {
         if (this == o) {
             return true;
         }
-        if (!(o instanceof JsonCollection that)) {
+        if (!(o instanceof JsonCollection that) || hashCode() != that.hashCode()) {
             return false;
         }
+        if (renderedChunks != null || that.renderedChunks != null) {
+            return renderedChunks != null && that.renderedChunks != null && toString().equals(that.toString());
+        }
 
-        return Objects.equals(collection, that.collection);
+        return collection.equals(that.collection);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), collection);
+        int h = hash;
+        if (h == 0 && !hashIsZero) {
+            h = renderedChunks != null ? toString().hashCode() : collection.hashCode();
+            if (h == 0) {
+                hashIsZero = true;
+            } else {
+                hash = h;
+            }
+        }
+
+        return h;
     }
 }
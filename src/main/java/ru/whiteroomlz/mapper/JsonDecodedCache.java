@@ -0,0 +1,159 @@
+package ru.whiteroomlz.mapper;
+
+import ru.hse.homework4.Exported;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Кэш объектов, восстановленных из документов. Кэш подключается к сериализатору методом
+ * {@link JsonMapper#setDecodedCache(JsonDecodedCache)}; при повторном чтении того же документа в тот же класс
+ * возвращается ранее восстановленный объект, и документ не разбирается. Повторное чтение неизменившегося
+ * документа стоит одного вычисления хеш-кода строки и одного сравнения строк.
+ * <p>
+ * Кэшируются только объекты классов, экземпляры которых не изменяются после создания (см.
+ * {@link JsonSerializedCache}), так как один и тот же объект возвращается всем читающим. Записи сопоставляются
+ * по классу и полному тексту документа.
+ * <p>
+ * Количество записей ограничено; при переполнении вытесняется запись, к которой дольше всего не обращались.
+ * Кэш потокобезопасен и может разделяться сериализаторами с одинаковыми настройками.
+ * <p>
+ * Пример вызова:
+ *
+ * <pre>
+ * JsonDecodedCache cache = new JsonDecodedCache(64);
+ * mapper.setDecodedCache(cache);
+ * </pre>
+ */
+public final class JsonDecodedCache {
+    private final int maximumSize;
+    private final Map<Key, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maximumSize наибольшее количество запоминаемых объектов.
+     */
+    public JsonDecodedCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size must be positive.");
+        }
+
+        this.maximumSize = maximumSize;
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > JsonDecodedCache.this.maximumSize) {
+                    evictions.increment();
+                    return true;
+                }
+
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @param clazz класс восстанавливаемого объекта.
+     * @return true, если восстановленные объекты класса могут кэшироваться.
+     */
+    static boolean isCacheable(Class<?> clazz) {
+        return clazz.isAnnotationPresent(Exported.class) && ExportedClass.of(clazz).isImmutable();
+    }
+
+    /**
+     * Промах учитывается в статистике сериализатора при разборе документа, попадание - здесь. Размер документа
+     * в байтах запоминается при промахе, поэтому попадание не требует повторного прохода по документу.
+     *
+     * @param clazz      класс, для которого {@link #isCacheable(Class)} вернул true.
+     * @param input      строковое представление документа.
+     * @param reader     восстанавливает объект, если документ ещё не встречался.
+     * @param statistics статистика сериализатора либо null, если она не собирается.
+     * @return запомненный либо восстановленный объект.
+     */
+    <T> T get(Class<T> clazz, String input, Function<String, T> reader, JsonMapperStatistics statistics) {
+        long start = statistics == null ? 0 : System.nanoTime();
+        Key key = new Key(clazz, input);
+
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry != null) {
+            hits.increment();
+            if (statistics != null) {
+                long bytes = entry.bytes >= 0 ? entry.bytes : JsonMapper.utf8Length(input);
+                statistics.recordDeserialization(clazz, System.nanoTime() - start, bytes);
+            }
+
+            return clazz.cast(entry.object);
+        }
+
+        misses.increment();
+        T restored = reader.apply(input);
+        long bytes = statistics == null ? -1 : JsonMapper.utf8Length(input);
+        synchronized (entries) {
+            entries.put(key, new Entry(restored, bytes));
+        }
+
+        return restored;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return количество чтений, вернувших запомненный объект.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return количество чтений, разобравших документ.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return количество записей, вытесненных при переполнении.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Удаляет все записи. Счётчики не сбрасываются.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Ключ записи. Хеш-код строки вычисляется один раз для каждого экземпляра строки, а при совпадении хеш-кодов
+     * документы сравниваются целиком, поэтому коллизии не приводят к ошибочным попаданиям.
+     */
+    private record Key(Class<?> clazz, String input) {
+    }
+
+    /**
+     * @param object восстановленный объект.
+     * @param bytes  размер документа в байтах UTF-8 либо -1, если он не вычислялся.
+     */
+    private record Entry(Object object, long bytes) {
+    }
+}
@@ -0,0 +1,376 @@
+package ru.whiteroomlz.mapper;
+
+import ru.hse.homework4.DateFormat;
+import ru.hse.homework4.Exported;
+
+import java.util.*;
+
+/**
+ * Построение и применение патчей объектов классов, аннотированных @Exported. Формат патча описан в
+ * {@link JsonMapper#diff(Object, Object)}. Значения операций записываются и восстанавливаются тем же
+ * экземпляром JsonMapper, что и при обычной сериализации.
+ * <p>
+ * Экземпляр используется для одного патча и не является потокобезопасным.
+ */
+final class JsonDiff {
+    private final JsonMapper mapper;
+
+    /**
+     * @param mapper экземпляр, записывающий и восстанавливающий значения операций.
+     */
+    JsonDiff(JsonMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * @param oldValue прежняя версия объекта.
+     * @param newValue новая версия объекта того же класса.
+     * @return патч, переводящий {@code oldValue} в состояние {@code newValue}.
+     */
+    JsonStructure diff(Object oldValue, Object newValue) {
+        return diffStructure(oldValue, newValue, new IdentityHashMap<>());
+    }
+
+    /**
+     * @param target обновляемый объект.
+     * @param patch  структура с операциями над свойствами объекта.
+     */
+    void applyPatch(Object target, JsonStructure patch) {
+        applyStructurePatch(target, patch);
+    }
+
+    /**
+     * Строит патч объекта класса, аннотированного @Exported.
+     *
+     * @param oldValue прежняя версия объекта.
+     * @param newValue новая версия объекта того же класса.
+     * @param visited  пары версий, патчи которых уже строятся; нужны для обхода циклических графов.
+     * @return структура с операциями над изменившимися свойствами.
+     */
+    private JsonStructure diffStructure(Object oldValue, Object newValue, IdentityHashMap<Object, Object> visited) {
+        visited.put(oldValue, newValue);
+
+        List<String> keys = new ArrayList<>();
+        List<JsonObject> operations = new ArrayList<>();
+        for (ExportedProperty property : ExportedClass.of(newValue.getClass()).getProperties()) {
+            JsonObject operation = diffValue(property.get(oldValue), property.get(newValue), property.getDateFormat(),
+                    visited);
+            if (operation != null) {
+                keys.add(property.getKey());
+                operations.add(operation);
+            }
+        }
+
+        return new JsonStructure(keys, operations);
+    }
+
+    /**
+     * @return операция, переводящая {@code oldValue} в {@code newValue}, либо null, если значения не различаются.
+     */
+    private JsonObject diffValue(Object oldValue, Object newValue, DateFormat dateFormat,
+                                 IdentityHashMap<Object, Object> visited) {
+        if (oldValue == newValue) {
+            return null;
+        }
+
+        if (oldValue != null && newValue != null && oldValue.getClass() == newValue.getClass()
+                && JsonMapper.isReusable(newValue, newValue.getClass())) {
+            if (visited.get(oldValue) == newValue) {
+                return null;
+            }
+
+            JsonStructure patch = diffStructure(oldValue, newValue, visited);
+            return patch.getStructureMap().isEmpty() ? null : getOperation("patch", patch);
+        }
+
+        if (oldValue instanceof List<?> oldList && newValue instanceof List<?> newList) {
+            return diffList(oldList, newList, dateFormat, visited);
+        }
+
+        if (isSame(oldValue, newValue, new IdentityHashMap<>())) {
+            return null;
+        }
+
+        return getOperation("value", mapper.getJson(newValue, dateFormat));
+    }
+
+    /**
+     * Находит общие начало и конец двух версий списка. Оставшиеся между ними элементы сопоставляются по порядку:
+     * для пар элементов патч содержит операции над изменившимися элементами, а лишние элементы удаляются или
+     * вставляются заменой диапазона.
+     *
+     * @return операция над списком либо null, если версии не различаются.
+     */
+    private JsonObject diffList(List<?> oldList, List<?> newList, DateFormat dateFormat,
+                                IdentityHashMap<Object, Object> visited) {
+        int common = Math.min(oldList.size(), newList.size());
+
+        int prefix = 0;
+        while (prefix < common && isSame(oldList.get(prefix), newList.get(prefix), new IdentityHashMap<>())) {
+            prefix++;
+        }
+        if (prefix == oldList.size() && prefix == newList.size()) {
+            return null;
+        }
+
+        int suffix = 0;
+        while (suffix < common - prefix && isSame(oldList.get(oldList.size() - suffix - 1),
+                newList.get(newList.size() - suffix - 1), new IdentityHashMap<>())) {
+            suffix++;
+        }
+
+        int paired = Math.min(oldList.size(), newList.size()) - suffix;
+        List<String> keys = new ArrayList<>();
+        List<JsonObject> arguments = new ArrayList<>();
+
+        List<String> indexes = new ArrayList<>();
+        List<JsonObject> operations = new ArrayList<>();
+        for (int index = prefix; index < paired; index++) {
+            JsonObject operation = diffValue(oldList.get(index), newList.get(index), dateFormat, visited);
+            if (operation != null) {
+                indexes.add(String.valueOf(index));
+                operations.add(operation);
+            }
+        }
+        if (!indexes.isEmpty()) {
+            keys.add("elements");
+            arguments.add(new JsonStructure(indexes, operations));
+        }
+
+        if (oldList.size() != newList.size()) {
+            keys.addAll(List.of("from", "remove", "insert"));
+            arguments.addAll(List.of(
+                    new JsonNumber(paired),
+                    new JsonNumber(oldList.size() - suffix - paired),
+                    mapper.getJson(newList.subList(paired, newList.size() - suffix), dateFormat)
+            ));
+        }
+
+        return new JsonStructure(keys, arguments);
+    }
+
+    private static JsonStructure getOperation(String name, JsonObject value) {
+        return new JsonStructure(List.of(name), Collections.singletonList(value));
+    }
+
+    /**
+     * Сравнивает значения по содержимому: объекты классов, аннотированных @Exported, - по экспортируемым
+     * свойствам, списки - поэлементно, множества - сопоставлением элементов без учёта порядка, остальные
+     * значения - методом equals.
+     *
+     * @param visited пары объектов, сравнение которых уже начато; нужны для обхода циклических графов.
+     * @return true, если значения не различаются.
+     */
+    private static boolean isSame(Object first, Object second, IdentityHashMap<Object, Object> visited) {
+        if (first == second) {
+            return true;
+        }
+        if (first == null || second == null) {
+            return false;
+        }
+
+        if (first instanceof List<?> firstList && second instanceof List<?> secondList) {
+            if (firstList.size() != secondList.size()) {
+                return false;
+            }
+            for (int index = 0; index < firstList.size(); index++) {
+                if (!isSame(firstList.get(index), secondList.get(index), visited)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        if (first instanceof Set<?> firstSet && second instanceof Set<?> secondSet) {
+            if (firstSet.size() != secondSet.size()) {
+                return false;
+            }
+
+            // Каждому элементу сопоставляется свой элемент второго множества; неудачные попытки сравниваются с
+            // копией visited, чтобы не оставлять в ней ложных пар.
+            List<Object> unmatched = new ArrayList<>(secondSet);
+            for (Object element : firstSet) {
+                boolean matched = false;
+                for (Iterator<Object> candidates = unmatched.iterator(); candidates.hasNext() && !matched; ) {
+                    IdentityHashMap<Object, Object> attempt = new IdentityHashMap<>(visited);
+                    if (isSame(element, candidates.next(), attempt)) {
+                        candidates.remove();
+                        visited.putAll(attempt);
+                        matched = true;
+                    }
+                }
+                if (!matched) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        if (first.getClass() != second.getClass()) {
+            return false;
+        }
+
+        if (first.getClass().isAnnotationPresent(Exported.class)) {
+            if (visited.get(first) == second) {
+                return true;
+            }
+            visited.put(first, second);
+
+            for (ExportedProperty property : ExportedClass.of(first.getClass()).getProperties()) {
+                if (!isSame(property.get(first), property.get(second), visited)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        return first.equals(second);
+    }
+
+    /**
+     * Применяет патч к объекту класса, аннотированного @Exported. Свойства, отсутствующие в патче, не изменяются.
+     *
+     * @param instance обновляемый объект.
+     * @param patch    структура с операциями над свойствами объекта.
+     */
+    private void applyStructurePatch(Object instance, JsonStructure patch) {
+        try {
+            for (ExportedProperty property : ExportedClass.of(instance.getClass()).getProperties()) {
+                JsonObject operation = patch.getStructureMap().get(property.getKey());
+                if (operation == null) {
+                    continue;
+                }
+
+                Object current = property.get(instance);
+                Object updated = applyOperation(current, operation, property.getType(), property.getGenericType(),
+                        property.getDateFormat());
+                if (updated != current) {
+                    property.set(instance, updated);
+                }
+            }
+        } catch (JsonParseException exception) {
+            throw new RuntimeException(
+                    String.format("Impossible to fill an instance of %s", instance.getClass().getName()),
+                    exception
+            );
+        }
+    }
+
+    /**
+     * @param current     текущее значение.
+     * @param operation   операция патча.
+     * @param type        объявленный тип значения.
+     * @param genericType тип, которым параметризовано значение.
+     * @param dateFormat  паттерн строкового представления Temporal типов.
+     * @return новое значение; {@code current}, если оно было изменено на месте.
+     * @throws JsonParseException в случае, если не удалось сопоставить JSON-объект со структурой класса.
+     */
+    @SuppressWarnings("unchecked")
+    private Object applyOperation(Object current, JsonObject operation, Class<?> type, Class<?> genericType,
+                                  DateFormat dateFormat) throws JsonParseException {
+        if (!(operation instanceof JsonStructure structure)) {
+            throw new IllegalArgumentException("Each patch operation must be a JSON structure.");
+        }
+
+        Map<String, JsonObject> arguments = structure.getStructureMap();
+        if (arguments.containsKey("value")) {
+            return mapper.restoreObject(type, arguments.get("value"), genericType, dateFormat);
+        }
+
+        if (arguments.get("patch") instanceof JsonStructure patch) {
+            if (!JsonMapper.isReusable(current, type)) {
+                throw new IllegalArgumentException("Only a mutable object marked with the @Exported annotation "
+                        + "can be patched in place.");
+            }
+
+            applyStructurePatch(current, patch);
+            return current;
+        }
+
+        if (!arguments.containsKey("elements") && !arguments.containsKey("from")) {
+            throw new IllegalArgumentException("Unknown patch operation " + structure + ".");
+        }
+        if (!(current instanceof List<?>)) {
+            throw new IllegalArgumentException("Only a list can be patched by elements or ranges.");
+        }
+        List<Object> list = (List<Object>) current;
+
+        if (arguments.get("elements") instanceof JsonStructure elements) {
+            list = patchElements(list, elements, genericType, dateFormat);
+        }
+        if (arguments.containsKey("from")) {
+            list = replaceRange(list, arguments, genericType, dateFormat);
+        }
+
+        return list;
+    }
+
+    /**
+     * Применяет операции к элементам списка по их индексам.
+     *
+     * @return {@code list} либо его изменённая копия, если список не поддерживает изменение.
+     */
+    private List<Object> patchElements(List<Object> list, JsonStructure elements, Class<?> genericType,
+                                       DateFormat dateFormat) throws JsonParseException {
+        // Сначала вычисляются все новые элементы, чтобы при замене списка копией
+        // вложенные патчи не применялись повторно.
+        int[] indexes = new int[elements.getStructureMap().size()];
+        Object[] values = new Object[indexes.length];
+        int count = 0;
+        for (Map.Entry<String, JsonObject> element : elements.getStructureMap().entrySet()) {
+            indexes[count] = Integer.parseInt(element.getKey());
+            values[count] = applyOperation(list.get(indexes[count]), element.getValue(), genericType, null,
+                    dateFormat);
+            count++;
+        }
+
+        try {
+            setElements(list, indexes, values);
+            return list;
+        } catch (UnsupportedOperationException exception) {
+            List<Object> copy = new ArrayList<>(list);
+            setElements(copy, indexes, values);
+            return copy;
+        }
+    }
+
+    /**
+     * Заменяет диапазон элементов списка.
+     *
+     * @return {@code list} либо его изменённая копия, если список не поддерживает изменение.
+     */
+    private List<Object> replaceRange(List<Object> list, Map<String, JsonObject> arguments, Class<?> genericType,
+                                      DateFormat dateFormat) throws JsonParseException {
+        if (!arguments.containsKey("remove") || !arguments.containsKey("insert")) {
+            throw new IllegalArgumentException("A range replacement must contain \"remove\" and \"insert\" keys.");
+        }
+        int from = Integer.parseInt(arguments.get("from").value.toString());
+        int removed = Integer.parseInt(arguments.get("remove").value.toString());
+        List<?> inserted = mapper.restoreObject(ArrayList.class, arguments.get("insert"), genericType, dateFormat);
+
+        try {
+            replaceRange(list, from, removed, inserted);
+            return list;
+        } catch (UnsupportedOperationException exception) {
+            List<Object> copy = new ArrayList<>(list);
+            replaceRange(copy, from, removed, inserted);
+            return copy;
+        }
+    }
+
+    private static void setElements(List<Object> list, int[] indexes, Object[] values) {
+        for (int index = 0; index < indexes.length; index++) {
+            if (list.get(indexes[index]) != values[index]) {
+                list.set(indexes[index], values[index]);
+            }
+        }
+    }
+
+    private static void replaceRange(List<Object> list, int from, int removed, List<?> inserted) {
+        list.subList(from, from + removed).clear();
+        list.addAll(from, inserted);
+    }
+}
@@ -7,11 +7,11 @@ import java.util.Locale;
  */
 public class JsonEnum extends JsonObject {
     public JsonEnum(Enum<?> value) {
-        this.value = value;
+        super(value);
     }
 
     @Override
-    public String toString() {
-        return "\"" + value.toString().replaceAll("_", " ").toLowerCase(Locale.ROOT) + "\"";
+    void appendTo(StringBuilder builder) {
+        builder.append('"').append(value.toString().replace('_', ' ').toLowerCase(Locale.ROOT)).append('"');
     }
 }
@@ -0,0 +1,305 @@
+package ru.whiteroomlz.mapper;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Неблокирующий разборщик, принимающий документ произвольными фрагментами байтов в кодировке UTF-8.
+ * <p>
+ * Если документ начинается с '[', разборщик выдаёт элементы корневой коллекции по мере их завершения.
+ * Иначе документ рассматривается как последовательность корневых объектов (например, в формате NDJSON), и
+ * выдаётся каждый завершённый объект. Между вызовами feed сохраняются только незавершённый элемент и
+ * состояние вложенности скобок, поэтому расход памяти пропорционален незавершённой части документа.
+ * <p>
+ * Пример вызова:
+ *
+ * <pre>
+ * JsonFeedParser&lt;Person&gt; parser = new JsonFeedParser&lt;&gt;(mapper, Person.class);
+ * parser.feed(socketBuffer);
+ * Person person;
+ * while ((person = parser.poll()) != null) {
+ *     System.out.println(person);
+ * }
+ * </pre>
+ *
+ * @param <T> тип восстанавливаемых объектов.
+ */
+public final class JsonFeedParser<T> {
+    /**
+     * Буфер незавершённого элемента большей ёмкости не переиспользуется, чтобы однажды встреченный
+     * большой элемент не удерживал память.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 1 << 16;
+
+    private enum Mode {
+        /**
+         * Первый значимый символ документа ещё не получен.
+         */
+        UNKNOWN,
+        /**
+         * Корнем документа является коллекция, выдаются её элементы.
+         */
+        ARRAY,
+        /**
+         * Документ является последовательностью корневых объектов.
+         */
+        OBJECTS,
+        /**
+         * Корневая коллекция закрыта.
+         */
+        DONE
+    }
+
+    private final JsonMapper mapper;
+    private final Class<T> clazz;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+    private final Queue<T> completed = new ArrayDeque<>();
+
+    /**
+     * Байты, ещё не преобразованные в символы. Между вызовами feed содержит не более одной незавершённой
+     * последовательности UTF-8.
+     */
+    private ByteBuffer pendingBytes = ByteBuffer.allocate(64);
+    private final CharBuffer chars = CharBuffer.allocate(4096);
+
+    private StringBuilder element = new StringBuilder();
+    private final StringBuilder brackets = new StringBuilder();
+    private Mode mode = Mode.UNKNOWN;
+    private int elementsCount;
+    private int offset;
+    private boolean ended;
+
+    /**
+     * @param mapper десериализатор, копия которого используется для восстановления объектов.
+     * @param clazz  класс восстанавливаемых объектов.
+     */
+    public JsonFeedParser(JsonMapper mapper, Class<T> clazz) {
+        this.mapper = mapper.fork();
+        this.clazz = clazz;
+    }
+
+    /**
+     * Передаёт разборщику очередной фрагмент документа. Все байты фрагмента считываются из {@code input}.
+     *
+     * @param input фрагмент документа в кодировке UTF-8.
+     * @throws JsonParseException если фрагмент нарушает структуру документа.
+     */
+    public void feed(ByteBuffer input) throws JsonParseException {
+        if (ended) {
+            throw new IllegalStateException("The end of input has already been reached.");
+        }
+
+        if (pendingBytes.remaining() < input.remaining()) {
+            ByteBuffer expanded = ByteBuffer.allocate(pendingBytes.position() + input.remaining());
+            pendingBytes.flip();
+            expanded.put(pendingBytes);
+            pendingBytes = expanded;
+        }
+        pendingBytes.put(input);
+
+        decode(false);
+
+        if (pendingBytes.capacity() > MAX_RETAINED_CAPACITY && pendingBytes.position() < 64) {
+            ByteBuffer shrunk = ByteBuffer.allocate(64);
+            pendingBytes.flip();
+            shrunk.put(pendingBytes);
+            pendingBytes = shrunk;
+        }
+    }
+
+    /**
+     * Сообщает разборщику о конце документа.
+     *
+     * @throws JsonParseException если документ завершён некорректно.
+     */
+    public void endOfInput() throws JsonParseException {
+        if (ended) {
+            return;
+        }
+
+        decode(true);
+        ended = true;
+
+        if (!brackets.isEmpty()) {
+            String exceptionMessage = String.format(
+                    IncorrectStructureException.NOT_ALL_BRACKETS_CLOSED_EXCEPTION_MESSAGE,
+                    brackets.charAt(brackets.length() - 1)
+            );
+            throw new IncorrectStructureException(exceptionMessage, offset);
+        }
+        if (!element.isEmpty()) {
+            throw new JsonParseException("The document ends with an incomplete element.", offset);
+        }
+    }
+
+    /**
+     * @return очередной восстановленный объект или null, если завершённых объектов пока нет.
+     */
+    public T poll() {
+        return completed.poll();
+    }
+
+    /**
+     * @return количество восстановленных, но ещё не выданных объектов.
+     */
+    public int available() {
+        return completed.size();
+    }
+
+    /**
+     * @return true, если получен конец документа и все восстановленные объекты выданы.
+     */
+    public boolean isFinished() {
+        return (ended || mode == Mode.DONE) && completed.isEmpty();
+    }
+
+    private void decode(boolean endOfInput) throws JsonParseException {
+        pendingBytes.flip();
+        try {
+            while (true) {
+                CoderResult result = decoder.decode(pendingBytes, chars, endOfInput);
+                if (result.isError()) {
+                    throw new JsonParseException("The document contains malformed UTF-8 sequence.", offset);
+                }
+                if (result.isUnderflow() && endOfInput) {
+                    decoder.flush(chars);
+                }
+
+                chars.flip();
+                while (chars.hasRemaining()) {
+                    accept(chars.get());
+                }
+                chars.clear();
+
+                if (result.isUnderflow()) {
+                    break;
+                }
+            }
+        } finally {
+            pendingBytes.compact();
+        }
+    }
+
+    private void accept(char character) throws JsonParseException {
+        offset++;
+
+        // Разделители строк отбрасываются так же, как при чтении документа методами read.
+        if (character == '\n' || character == '\r') {
+            return;
+        }
+
+        switch (mode) {
+            case UNKNOWN -> {
+                if (character == '[') {
+                    mode = Mode.ARRAY;
+                    brackets.append('[');
+                } else if (character == '{') {
+                    mode = Mode.OBJECTS;
+                    acceptObjectCharacter(character);
+                } else if (!Character.isWhitespace(character)) {
+                    throw new IncorrectStructureException("The document must start with '[' or '{'.", offset);
+                }
+            }
+            case ARRAY -> acceptArrayCharacter(character);
+            case OBJECTS -> acceptObjectCharacter(character);
+            case DONE -> {
+                if (!Character.isWhitespace(character)) {
+                    throw new IncorrectStructureException("Unexpected character after the root collection.",
+                            offset);
+                }
+            }
+        }
+    }
+
+    private void acceptArrayCharacter(char character) throws JsonParseException {
+        if (brackets.length() == 1) {
+            switch (character) {
+                case ',' -> {
+                    if (element.isEmpty()) {
+                        throw new IncorrectStructureException("Duplicate separators detected.", offset);
+                    }
+                    completeElement();
+                }
+                case ']' -> {
+                    if (element.isEmpty()) {
+                        if (elementsCount > 0) {
+                            throw new IncorrectStructureException("Duplicate separators detected.", offset);
+                        }
+                    } else {
+                        completeElement();
+                    }
+                    brackets.setLength(0);
+                    mode = Mode.DONE;
+                }
+                default -> {
+                    if (!element.isEmpty() || !Character.isWhitespace(character)) {
+                        trackBracket(character);
+                        element.append(character);
+                    }
+                }
+            }
+        } else {
+            trackBracket(character);
+            element.append(character);
+        }
+    }
+
+    private void acceptObjectCharacter(char character) throws JsonParseException {
+        if (brackets.isEmpty()) {
+            if (character == '{') {
+                brackets.append('{');
+                element.append(character);
+            } else if (!Character.isWhitespace(character)) {
+                throw new IncorrectStructureException("Each root object must start with '{'.", offset);
+            }
+        } else {
+            trackBracket(character);
+            element.append(character);
+            if (brackets.isEmpty()) {
+                completeElement();
+            }
+        }
+    }
+
+    /**
+     * Проверяет корректность скобочной последовательности, поддерживая стек открытых скобок.
+     */
+    private void trackBracket(char character) throws IncorrectStructureException {
+        switch (character) {
+            case '[', '{' -> brackets.append(character);
+            case ']', '}' -> {
+                char expected = character == ']' ? '[' : '{';
+                if (brackets.isEmpty()) {
+                    throw new IncorrectStructureException("Unexpected bracket: " + character, offset);
+                }
+
+                char bracket = brackets.charAt(brackets.length() - 1);
+                if (bracket != expected) {
+                    String exceptionMessage = String.format(
+                            IncorrectStructureException.BRACKETS_CLOSING_ORDER_EXCEPTION_MESSAGE,
+                            bracket
+                    );
+                    throw new IncorrectStructureException(exceptionMessage, offset);
+                }
+                brackets.setLength(brackets.length() - 1);
+            }
+        }
+    }
+
+    private void completeElement() {
+        String jsonDocument = element.toString().strip();
+        completed.add(mapper.readFromString(clazz, jsonDocument));
+        elementsCount++;
+
+        if (element.capacity() > MAX_RETAINED_CAPACITY) {
+            element = new StringBuilder();
+        } else {
+            element.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package ru.whiteroomlz.mapper;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Кодирование строкового представления документа и его запись в поток.
+ */
+@Name("ru.whiteroomlz.mapper.Flush")
+@Label("JSON Flush")
+final class JsonFlushEvent extends JsonMapperEvent {
+}
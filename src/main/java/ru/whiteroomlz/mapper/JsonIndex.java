@@ -0,0 +1,360 @@
+package ru.whiteroomlz.mapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Структурный индекс JSON документа, позволяющий извлекать отдельные значения по путям без восстановления
+ * объектов и без разбора остального документа.
+ * <p>
+ * При первом запросе в документе находятся позиции всех скобок и разделителей (по возможности векторными
+ * инструкциями), и для каждой структуры и коллекции запоминаются позиции открывающей и закрывающей скобок, а также
+ * позиции разделителей её элементов. Запрос переходит по индексу к нужному значению и разбирает только его. Все
+ * последующие запросы используют тот же индекс. Как и при обычном разборе, учитываются только скобки и
+ * разделители, а кавычки не отслеживаются.
+ * <p>
+ * Путь состоит из ключей, разделённых точкой, и индексов элементов коллекций в квадратных скобках. Пустой путь
+ * выбирает весь документ.
+ * <p>
+ * Пример вызова:
+ *
+ * <pre>
+ * JsonIndex index = new JsonIndex(document);
+ * JsonObject age = index.query("children[3].age");
+ * </pre>
+ * <p>
+ * После построения индекса экземпляр можно использовать из нескольких потоков.
+ */
+public final class JsonIndex {
+    private final String document;
+    private volatile Index index;
+
+    /**
+     * @param document JSON документ. Индекс строится при первом запросе.
+     */
+    public JsonIndex(String document) {
+        this.document = Objects.requireNonNull(document);
+    }
+
+    /**
+     * Считывает документ из {@code InputStream}'а. Данный метод закрывает {@code inputStream}.
+     *
+     * @param inputStream поток ввода, содержащий строку в кодировке UTF-8.
+     * @return индекс считанного документа.
+     * @throws IOException в случае ошибки ввода-вывода.
+     */
+    public static JsonIndex read(InputStream inputStream) throws IOException {
+        try (inputStream) {
+            return new JsonIndex(JsonMapper.readDocument(inputStream, JsonBufferPool.current()));
+        }
+    }
+
+    /**
+     * Возвращает JSON-представление значения, расположенного по пути {@code path}. Разбирается только это значение.
+     * Значение null в документе возвращается как JSON-представление, а не как null.
+     *
+     * @param path путь к значению, например {@code "children[3].age"}.
+     * @return JSON-представление значения либо null, если документ не содержит значения по такому пути.
+     * @throws JsonParseException если документ или выбранное значение содержат ошибку.
+     */
+    public JsonObject query(String path) throws JsonParseException {
+        String text = queryText(path);
+        if (text == null) {
+            return null;
+        }
+
+        return JsonMapper.parseDocument(text, JsonBufferPool.current());
+    }
+
+    /**
+     * Возвращает фрагмент документа, содержащий значение по пути {@code path}, не разбирая его.
+     *
+     * @param path путь к значению, например {@code "children[3].age"}.
+     * @return фрагмент документа либо null, если документ не содержит значения по такому пути.
+     * @throws JsonParseException если документ содержит ошибку в скобочной последовательности.
+     */
+    public String queryText(String path) throws JsonParseException {
+        int[] span = locate(path);
+        if (span == null) {
+            return null;
+        }
+
+        return document.substring(span[0], span[1]);
+    }
+
+    /**
+     * Возвращает ленивое JSON-представление значения по пути {@code path}. Значение не разбирается целиком:
+     * структуры и коллекции хранят позиции своих элементов в документе и разбирают элемент только при первом
+     * обращении к нему по ключу или индексу, запоминая результат. Поэтому просмотр дерева большого документа
+     * требует времени, пропорционального просмотренной части.
+     * <p>
+     * Ленивые узлы не предназначены для изменения и не являются потокобезопасными. Ошибка в элементе документа
+     * обнаруживается при обращении к нему и выбрасывается как IllegalArgumentException.
+     *
+     * @param path путь к значению, например {@code "children[3]"}; пустой путь выбирает весь документ.
+     * @return ленивое JSON-представление значения либо null, если документ не содержит значения по такому пути.
+     * @throws JsonParseException если документ содержит ошибку в скобочной последовательности либо в ключах
+     *                            выбранной структуры.
+     */
+    public JsonObject tree(String path) throws JsonParseException {
+        int[] span = locate(path);
+        if (span == null) {
+            return null;
+        }
+
+        return new LazyJsonTree(document, index()).node(span[0], span[1]);
+    }
+
+    /**
+     * @param path путь к значению.
+     * @return начало и конец фрагмента документа, содержащего значение, либо null, если значения нет.
+     */
+    private int[] locate(String path) throws JsonParseException {
+        List<Object> steps = parsePath(path);
+        Index currentIndex = index();
+
+        int from = 0;
+        int to = document.length();
+        for (Object step : steps) {
+            if (from >= to) {
+                return null;
+            }
+
+            char bracket = document.charAt(from);
+            if (step instanceof String key ? bracket != '{' : bracket != '[') {
+                return null;
+            }
+
+            int container = currentIndex.containerAt(from);
+            if (currentIndex.ends[container] != to - 1) {
+                return null;
+            }
+
+            int elements = currentIndex.elementCount(container);
+            int elementStart = -1;
+            int elementEnd = -1;
+            if (step instanceof String key) {
+                for (int element = 0; element < elements && elementStart < 0; element++) {
+                    int start = currentIndex.elementStart(container, element);
+                    int end = currentIndex.elementEnd(container, element);
+                    if (isKey(start, end, key)) {
+                        elementStart = start + key.length() + 3;
+                        elementEnd = end;
+                    }
+                }
+            } else {
+                int element = (Integer) step;
+                if (element < elements) {
+                    elementStart = currentIndex.elementStart(container, element);
+                    elementEnd = currentIndex.elementEnd(container, element);
+                }
+            }
+
+            if (elementStart < 0) {
+                return null;
+            }
+            from = elementStart;
+            to = elementEnd;
+        }
+
+        return new int[]{from, to};
+    }
+
+    private boolean isKey(int start, int end, String key) {
+        return end - start >= key.length() + 3
+                && document.charAt(start) == '"'
+                && document.startsWith(key, start + 1)
+                && document.charAt(start + key.length() + 1) == '"'
+                && document.charAt(start + key.length() + 2) == ':';
+    }
+
+    private Index index() throws JsonParseException {
+        Index currentIndex = index;
+        if (currentIndex == null) {
+            synchronized (this) {
+                currentIndex = index;
+                if (currentIndex == null) {
+                    currentIndex = new Index(document);
+                    index = currentIndex;
+                }
+            }
+        }
+
+        return currentIndex;
+    }
+
+    /**
+     * Разбивает путь на шаги: ключи структур (String) и индексы элементов коллекций (Integer).
+     */
+    private static List<Object> parsePath(String path) {
+        List<Object> steps = new ArrayList<>();
+
+        int position = 0;
+        while (position < path.length()) {
+            char symbol = path.charAt(position);
+            if (symbol == '[') {
+                int closing = path.indexOf(']', position);
+                if (closing < 0) {
+                    throw new IllegalArgumentException(String.format("The path %s contains an unclosed index.", path));
+                }
+                try {
+                    steps.add(Integer.parseUnsignedInt(path, position + 1, closing, 10));
+                } catch (NumberFormatException exception) {
+                    throw new IllegalArgumentException(
+                            String.format("The path %s contains an incorrect index.", path), exception);
+                }
+                position = closing + 1;
+            } else {
+                if (symbol == '.') {
+                    if (steps.isEmpty()) {
+                        throw new IllegalArgumentException(String.format("The path %s starts with a separator.", path));
+                    }
+                    position++;
+                }
+
+                int end = position;
+                while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+                    end++;
+                }
+                if (end == position) {
+                    throw new IllegalArgumentException(String.format("The path %s contains an empty key.", path));
+                }
+                steps.add(path.substring(position, end));
+                position = end;
+            }
+        }
+
+        return steps;
+    }
+
+    /**
+     * Позиции скобок и разделителей документа. Структуры и коллекции нумеруются в порядке открывающих скобок;
+     * разделители каждой из них хранятся подряд в порядке следования в документе.
+     */
+    static final class Index {
+        private final int[] starts;
+        private final int[] ends;
+        private final int[] separatorOffsets;
+        private final int[] separators;
+
+        Index(String document) throws JsonParseException {
+            int[] containerStarts = new int[16];
+            int[] containerEnds = new int[16];
+            int containers = 0;
+
+            int[] stack = new int[16];
+            int depth = 0;
+
+            int[] separatorPositions = new int[16];
+            int[] separatorOwners = new int[16];
+            int separatorCount = 0;
+
+            for (int position : StructuralIndexer.get().index(document)) {
+                char symbol = document.charAt(position);
+                switch (symbol) {
+                    case '{':
+                    case '[':
+                        if (containers == containerStarts.length) {
+                            containerStarts = Arrays.copyOf(containerStarts, containers * 2);
+                            containerEnds = Arrays.copyOf(containerEnds, containers * 2);
+                        }
+                        if (depth == stack.length) {
+                            stack = Arrays.copyOf(stack, depth * 2);
+                        }
+                        containerStarts[containers] = position;
+                        stack[depth++] = containers++;
+                        break;
+                    case '}':
+                    case ']':
+                        if (depth == 0) {
+                            throw new IncorrectStructureException("Unexpected bracket: " + symbol, position);
+                        }
+                        int closed = stack[--depth];
+                        char opening = document.charAt(containerStarts[closed]);
+                        if ((opening == '{') != (symbol == '}')) {
+                            String exceptionMessage = String.format(
+                                    IncorrectStructureException.BRACKETS_CLOSING_ORDER_EXCEPTION_MESSAGE,
+                                    opening
+                            );
+                            throw new IncorrectStructureException(exceptionMessage, position);
+                        }
+                        containerEnds[closed] = position;
+                        break;
+                    case ',':
+                        if (depth == 0) {
+                            throw new IncorrectStructureException("Unexpected separator outside brackets.", position);
+                        }
+                        if (separatorCount == separatorPositions.length) {
+                            separatorPositions = Arrays.copyOf(separatorPositions, separatorCount * 2);
+                            separatorOwners = Arrays.copyOf(separatorOwners, separatorCount * 2);
+                        }
+                        separatorPositions[separatorCount] = position;
+                        separatorOwners[separatorCount++] = stack[depth - 1];
+                        break;
+                }
+            }
+
+            if (depth > 0) {
+                String exceptionMessage = String.format(
+                        IncorrectStructureException.NOT_ALL_BRACKETS_CLOSED_EXCEPTION_MESSAGE,
+                        document.charAt(containerStarts[stack[depth - 1]])
+                );
+                throw new IncorrectStructureException(exceptionMessage);
+            }
+
+            starts = Arrays.copyOf(containerStarts, containers);
+            ends = Arrays.copyOf(containerEnds, containers);
+
+            // Сортировка подсчётом по номеру структуры сохраняет порядок разделителей внутри каждой из них.
+            separatorOffsets = new int[containers + 1];
+            for (int separator = 0; separator < separatorCount; separator++) {
+                separatorOffsets[separatorOwners[separator] + 1]++;
+            }
+            for (int container = 0; container < containers; container++) {
+                separatorOffsets[container + 1] += separatorOffsets[container];
+            }
+            separators = new int[separatorCount];
+            int[] filled = Arrays.copyOf(separatorOffsets, containers);
+            for (int separator = 0; separator < separatorCount; separator++) {
+                separators[filled[separatorOwners[separator]]++] = separatorPositions[separator];
+            }
+        }
+
+        /**
+         * @param position позиция открывающей скобки.
+         * @return номер структуры или коллекции, открывающейся в этой позиции.
+         */
+        int containerAt(int position) {
+            return Arrays.binarySearch(starts, position);
+        }
+
+        /**
+         * @param container номер структуры или коллекции.
+         * @return позиция её закрывающей скобки.
+         */
+        int end(int container) {
+            return ends[container];
+        }
+
+        int elementCount(int container) {
+            if (ends[container] == starts[container] + 1) {
+                return 0;
+            }
+
+            return separatorOffsets[container + 1] - separatorOffsets[container] + 1;
+        }
+
+        int elementStart(int container, int element) {
+            return element == 0 ? starts[container] + 1 : separators[separatorOffsets[container] + element - 1] + 1;
+        }
+
+        int elementEnd(int container, int element) {
+            int separator = separatorOffsets[container] + element;
+            return separator < separatorOffsets[container + 1] ? separators[separator] : ends[container];
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package ru.whiteroomlz.mapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator, последовательно десериализующий записи файла в формате NDJSON (по одному документу на строку).
+ * Обрабатываемый диапазон байтов делится пополам по границам записей, поэтому части файла могут разбираться
+ * независимо в разных потоках ForkJoinPool. Каждая часть использует собственную копию десериализатора.
+ *
+ * @param <T> тип десериализуемых объектов.
+ */
+final class JsonLinesSpliterator<T> implements Spliterator<T> {
+    /**
+     * Размер буфера, которым считываются байты обрабатываемого диапазона.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Диапазоны меньшего размера не делятся, так как накладные расходы на разделение превысят выигрыш.
+     */
+    private static final long MINIMAL_SPLIT_SIZE = 1 << 20;
+
+    private final JsonMapper mapper;
+    private final Class<T> clazz;
+    private final FileChannel channel;
+    private final boolean ordered;
+
+    /**
+     * Позиция в файле, с которой будет выполнено следующее чтение. Всегда совпадает с началом записи до тех пор,
+     * пока не начат обход.
+     */
+    private long position;
+    private final long end;
+
+    private ByteBuffer buffer;
+    private byte[] record = new byte[256];
+    private int recordLength;
+
+    /**
+     * @param mapper   десериализатор, копия которого используется для разбора записей.
+     * @param clazz    класс, экземпляры которого хранятся в файле.
+     * @param channel  канал, из которого выполняется позиционное чтение.
+     * @param position начало обрабатываемого диапазона. Должно совпадать с началом записи.
+     * @param end      конец обрабатываемого диапазона (не включительно). Должен совпадать с концом записи.
+     * @param ordered  необходимо ли сохранять порядок записей в файле.
+     */
+    JsonLinesSpliterator(JsonMapper mapper, Class<T> clazz, FileChannel channel, long position, long end,
+                         boolean ordered) {
+        this.mapper = mapper.fork();
+        this.clazz = clazz;
+        this.channel = channel;
+        this.position = position;
+        this.end = end;
+        this.ordered = ordered;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        String jsonDocument;
+        while ((jsonDocument = nextRecord()) != null) {
+            if (!jsonDocument.isBlank()) {
+                action.accept(mapper.readFromString(clazz, jsonDocument.strip()));
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        // Разделение после начала обхода не поддерживается: часть диапазона уже находится в буфере.
+        if (buffer != null || end - position < MINIMAL_SPLIT_SIZE) {
+            return null;
+        }
+
+        long recordEnd = findRecordEnd(position + (end - position) / 2);
+        if (recordEnd < 0 || recordEnd >= end) {
+            return null;
+        }
+
+        // Отделяется префикс, чтобы сохранить порядок записей для ORDERED обхода.
+        JsonLinesSpliterator<T> prefix = new JsonLinesSpliterator<>(mapper, clazz, channel, position, recordEnd,
+                ordered);
+        position = recordEnd;
+
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - position;
+    }
+
+    @Override
+    public int characteristics() {
+        return ordered ? ORDERED | NONNULL : NONNULL;
+    }
+
+    /**
+     * Ищет конец записи, в которую попадает байт по переданному смещению.
+     *
+     * @param offset смещение в файле, с которого начинается поиск.
+     * @return смещение байта, следующего за разделителем строк, или -1, если разделитель не найден.
+     */
+    private long findRecordEnd(long offset) {
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        try {
+            while (offset < end) {
+                probe.clear();
+                int read = channel.read(probe, offset);
+                if (read <= 0) {
+                    return -1;
+                }
+
+                for (int index = 0; index < read; index++) {
+                    if (probe.get(index) == '\n') {
+                        return offset + index + 1;
+                    }
+                }
+                offset += read;
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+
+        return -1;
+    }
+
+    /**
+     * Считывает очередную запись диапазона.
+     *
+     * @return текст записи без разделителя строк или null, если диапазон исчерпан.
+     */
+    private String nextRecord() {
+        if (buffer == null) {
+            buffer = ByteBuffer.allocate(BUFFER_SIZE).flip();
+        }
+
+        recordLength = 0;
+        boolean separatorFound = false;
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                if (position >= end) {
+                    break;
+                }
+                fillBuffer();
+                continue;
+            }
+
+            byte value = buffer.get();
+            if (value == '\n') {
+                separatorFound = true;
+                break;
+            }
+
+            if (recordLength == record.length) {
+                record = Arrays.copyOf(record, record.length * 2);
+            }
+            record[recordLength++] = value;
+        }
+
+        if (!separatorFound && recordLength == 0) {
+            return null;
+        }
+
+        int length = recordLength;
+        if (length > 0 && record[length - 1] == '\r') {
+            length--;
+        }
+
+        return new String(record, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private void fillBuffer() {
+        buffer.clear();
+        buffer.limit((int) Math.min(buffer.capacity(), end - position));
+
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    break;
+                }
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+
+        // Файл оказался короче ожидаемого: оставшаяся часть диапазона считается пустой.
+        if (buffer.position() == 0) {
+            position = end;
+        }
+
+        position += buffer.position();
+        buffer.flip();
+    }
+}
@@ -4,13 +4,29 @@ import ru.hse.homework4.*;
 
 import java.io.*;
 import java.lang.reflect.*;
-import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.temporal.Temporal;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Класс, объекты которого выполняют функции сериализатора или десериализатора псевдо JSON-файлов.
@@ -34,29 +50,347 @@ public class JsonMapper implements Mapper {
         PRIMITIVES_WRAPPERS.put(short.class, Short.class);
     }
 
+    /**
+     * Количество частей, приходящихся на один поток пула при параллельной обработке коллекции.
+     */
+    private static final int PARALLEL_CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Размер буфера сжатых данных при чтении gzip потока.
+     */
+    private static final int COMPRESSED_BUFFER_SIZE = 64 * 1024;
+
     private final boolean retainIdentity;
     private final IdentityHashMap<Object, JsonStructure> identityHashMap;
 
+    /**
+     * Объекты, восстановленные при чтении с сохранением идентичности, по их JSON-представлениям.
+     */
+    private final Map<JsonStructure, Object> restoredObjects;
+
+    /**
+     * Минимальный размер коллекции, начиная с которого её элементы обрабатываются параллельно.
+     * 0 означает, что параллельная обработка выключена.
+     */
+    private int parallelThreshold;
+    private ForkJoinPool forkJoinPool = ForkJoinPool.commonPool();
+
+    /**
+     * Переиспользуются ли вспомогательные буферы потока между вызовами.
+     */
+    private boolean bufferPooling = true;
+
+    /**
+     * Записываются ли однородные коллекции объектов в позиционном виде.
+     */
+    private boolean positionalCollections;
+
+    /**
+     * Реестр статистики по корневым классам; null, если статистика не собирается.
+     */
+    private JsonMapperStatistics statistics;
+
+    /**
+     * Кэш строковых представлений неизменяемых объектов; null, если представления не кэшируются.
+     */
+    private JsonSerializedCache serializedCache;
+
+    /**
+     * Кэш восстановленных неизменяемых объектов; null, если объекты не кэшируются.
+     */
+    private JsonDecodedCache decodedCache;
+
+    /**
+     * Таблица, из которой берутся ключи и строковые значения читаемых документов; null, если строки не
+     * дедуплицируются.
+     */
+    private JsonStringTable stringTable;
+
+    /**
+     * Количество ячеек таблицы ссылок на повторяющиеся строки в записываемых документах; 0, если строки
+     * записываются полностью.
+     */
+    private int stringReferenceTableSize;
+
     public JsonMapper(boolean retainIdentity) {
         this.retainIdentity = retainIdentity;
 
         if (retainIdentity) {
             identityHashMap = new IdentityHashMap<>();
+            restoredObjects = new HashMap<>();
         } else {
             identityHashMap = null;
+            restoredObjects = null;
+        }
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Включает параллельную сериализацию и десериализацию элементов больших коллекций. Элементы коллекций
+     * меньшего размера обрабатываются последовательно, чтобы небольшие документы не несли накладных расходов на
+     * разделение задач.
+     * <p>
+     * При сохранении идентичности объектов (retainIdentity) коллекции всегда обрабатываются последовательно,
+     * так как таблица идентичности не допускает одновременного доступа.
+     *
+     * @param parallelThreshold минимальный размер коллекции для параллельной обработки; 0 выключает её.
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        if (parallelThreshold < 0) {
+            throw new IllegalArgumentException("The parallel threshold must be non-negative.");
         }
+
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    public boolean isBufferPooling() {
+        return bufferPooling;
+    }
+
+    /**
+     * Включает или выключает переиспользование вспомогательных буферов (буферов символов и байтов, стеков скобок,
+     * форматтеров чисел) между вызовами в пределах одного потока. По умолчанию включено.
+     *
+     * @param bufferPooling true, если буферы следует переиспользовать.
+     */
+    public void setBufferPooling(boolean bufferPooling) {
+        this.bufferPooling = bufferPooling;
+    }
+
+    /**
+     * @return набор вспомогательных буферов текущего потока либо новый набор, если переиспользование выключено.
+     */
+    private JsonBufferPool getBufferPool() {
+        return bufferPooling ? JsonBufferPool.current() : new JsonBufferPool();
+    }
+
+    public boolean isPositionalCollections() {
+        return positionalCollections;
+    }
+
+    /**
+     * Включает позиционную запись коллекций, все элементы которых являются объектами одного класса,
+     * аннотированного @Exported. Такая коллекция записывается как коллекция строк: первая строка содержит ключи
+     * свойств, а каждая следующая - значения свойств одного элемента в том же порядке, например
+     * {@code [["name","age"],["Paul",37],["Joan",15]]}. Значения null записываются явно, независимо от
+     * {@code nullHandling}.
+     * <p>
+     * Чтение позиционных коллекций поддерживается всегда, независимо от этой настройки. При сохранении
+     * идентичности объектов (retainIdentity) коллекции записываются в обычном виде.
+     *
+     * @param positionalCollections true, если однородные коллекции следует записывать в позиционном виде.
+     */
+    public void setPositionalCollections(boolean positionalCollections) {
+        this.positionalCollections = positionalCollections;
+    }
+
+    public JsonMapperStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Подключает реестр, в который записываются количество, длительность и размер сериализаций и десериализаций,
+     * а также количество ошибок по корневому классу документа. По умолчанию статистика не собирается.
+     *
+     * @param statistics реестр статистики либо null, чтобы перестать собирать статистику.
+     */
+    public void setStatistics(JsonMapperStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    public JsonSerializedCache getSerializedCache() {
+        return serializedCache;
+    }
+
+    /**
+     * Подключает кэш, в котором запоминаются строковые представления неизменяемых объектов. Повторная запись
+     * такого объекта дописывает запомненное представление, не обходя его свойства. По умолчанию представления
+     * не кэшируются. При сохранении идентичности объектов (retainIdentity) кэш не используется, так как
+     * представления содержат номера объектов в документе.
+     *
+     * @param serializedCache кэш либо null, чтобы перестать кэшировать представления.
+     * @see JsonSerializedCache
+     */
+    public void setSerializedCache(JsonSerializedCache serializedCache) {
+        this.serializedCache = serializedCache;
+    }
+
+    /**
+     * @return количество ячеек таблицы строк; 0, если дедупликация строк выключена.
+     */
+    public int getStringTableSize() {
+        JsonStringTable table = stringTable;
+        return table == null ? 0 : table.capacity();
+    }
+
+    /**
+     * Включает дедупликацию строк при чтении. Ключи и строковые значения длиной до
+     * {@value JsonStringTable#MAX_LENGTH} символов ищутся в таблице по символам документа, и одинаковые строки
+     * восстановленных объектов становятся одним экземпляром String. Это уменьшает память, удерживаемую
+     * прочитанными объектами с повторяющимися значениями (кодами состояний, именами, значениями перечислений
+     * в свободной форме). Таблица ограничена: строка вытесняет из ячейки прежнюю, поэтому при большом
+     * количестве различных строк часть повторов не дедуплицируется. По умолчанию выключено.
+     *
+     * @param stringTableSize количество ячеек таблицы (округляется вверх до степени двойки); 0 выключает
+     *                        дедупликацию.
+     */
+    public void setStringTableSize(int stringTableSize) {
+        if (stringTableSize < 0) {
+            throw new IllegalArgumentException("The string table size must be non-negative.");
+        }
+
+        stringTable = stringTableSize == 0 ? null : new JsonStringTable(stringTableSize);
+    }
+
+    /**
+     * @return количество ячеек таблицы ссылок на строки; 0, если строки записываются полностью.
+     */
+    public int getStringReferenceTableSize() {
+        return stringReferenceTableSize;
+    }
+
+    /**
+     * Включает запись документов со ссылками на повторяющиеся строки. Первое вхождение строкового значения
+     * длиной от {@value JsonStringReferences#MIN_LENGTH} до {@value JsonStringReferences#MAX_LENGTH} символов
+     * записывается полностью, а повторные - ссылкой вида {@code #номер} на ячейку таблицы, которую читатель
+     * заполняет в том же порядке. Размер таблицы записывается первым ключом документа
+     * {@value JsonStringReferences#SIZE_KEY}, поэтому такие документы читаются любым сериализатором независимо
+     * от его настроек. Режим уменьшает документы с повторяющимися значениями (кодами состояний, именами,
+     * названиями городов), но делает их нестандартными для сторонних читателей; документы с таблицей
+     * разбираются полностью, без проекции. По умолчанию выключено.
+     * <p>
+     * Ссылка зависит от всех строк, записанных до неё, поэтому в этом режиме документ записывается в одном
+     * потоке: коллекции не сериализуются параллельно ({@link #setParallelThreshold(int)} действует только на
+     * чтение), а представления из кэша {@link #setSerializedCache(JsonSerializedCache)} избавляют от обхода
+     * свойств объектов, но не дописываются в документ целиком.
+     *
+     * @param stringReferenceTableSize количество ячеек таблицы (не более {@value JsonStringReferences#MAX_SIZE});
+     *                                 0 выключает ссылки.
+     */
+    public void setStringReferenceTableSize(int stringReferenceTableSize) {
+        if (stringReferenceTableSize < 0 || stringReferenceTableSize > JsonStringReferences.MAX_SIZE) {
+            throw new IllegalArgumentException(String.format(
+                    "The string reference table size must be between 0 and %d.", JsonStringReferences.MAX_SIZE));
+        }
+
+        this.stringReferenceTableSize = stringReferenceTableSize;
+    }
+
+    public JsonDecodedCache getDecodedCache() {
+        return decodedCache;
+    }
+
+    /**
+     * Подключает кэш, в котором запоминаются неизменяемые объекты, восстановленные методами
+     * {@link #readFromString(Class, String)} и {@link #read(Class, InputStream)}. Повторное чтение того же
+     * документа возвращает тот же объект без разбора. Чтение отдельных значений по путям не кэшируется.
+     * По умолчанию объекты не кэшируются.
+     * <p>
+     * Чтение, обслуженное кэшем, учитывается в статистике ({@link #setStatistics(JsonMapperStatistics)}) как
+     * обычная десериализация: увеличиваются количество чтений и объём прочитанных байтов, а временем считается
+     * время обращения к кэшу. События JFR разбора и связывания при этом не создаются, так как документ не
+     * разбирается.
+     *
+     * @param decodedCache кэш либо null, чтобы перестать кэшировать объекты.
+     * @see JsonDecodedCache
+     */
+    public void setDecodedCache(JsonDecodedCache decodedCache) {
+        this.decodedCache = decodedCache;
+    }
+
+    public ForkJoinPool getForkJoinPool() {
+        return forkJoinPool;
+    }
+
+    /**
+     * @param forkJoinPool пул, в котором выполняется параллельная обработка коллекций.
+     */
+    public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+        this.forkJoinPool = Objects.requireNonNull(forkJoinPool);
     }
 
     @Override
     public <T> T readFromString(Class<T> clazz, String input) {
+        JsonDecodedCache cache = decodedCache;
+        if (cache != null && JsonDecodedCache.isCacheable(clazz)) {
+            return cache.get(clazz, input, document -> readFromString(clazz, document, getClassProjection(clazz)),
+                    statistics);
+        }
+
+        return readFromString(clazz, input, getClassProjection(clazz));
+    }
+
+    /**
+     * Читает из строки {@code input} только значения, выбранные путями {@code paths}. Значения остальных ключей
+     * пропускаются без разбора, а соответствующие им поля остаются незаполненными: поля классов сохраняют
+     * значения, присвоенные конструктором, а компоненты record-классов получают значения по умолчанию.
+     * Незаполненные поля не считаются отсутствующими с точки зрения {@link UnknownPropertiesPolicy#FAIL}.
+     * <p>
+     * Путь состоит из ключей, разделённых точкой. Вложенный путь выбирает значения внутри структуры либо внутри
+     * каждой структуры коллекции.
+     * <p>
+     * Пример вызова:
+     *
+     * <pre>
+     * Person person = mapper.readFromString(Person.class, input, Set.of("name", "children.age"));
+     * </pre>
+     *
+     * @param clazz класс, аннотированный @Exported.
+     * @param input строковое представление сохранённого экземпляра класса {@code clazz}.
+     * @param paths пути к читаемым значениям.
+     * @param <T>   тип восстанавливаемого объекта.
+     * @return восстановленный объект.
+     */
+    public <T> T readFromString(Class<T> clazz, String input, Set<String> paths) {
+        return readFromString(clazz, input, JsonProjection.of(paths));
+    }
+
+    private <T> T readFromString(Class<T> clazz, String input, JsonProjection projection) {
+        JsonMapperStatistics currentStatistics = statistics;
+        if (currentStatistics == null) {
+            return parseAndRestore(clazz, input, projection);
+        }
+
+        long start = System.nanoTime();
         try {
-            JsonObject jsonObject = parseDocument(input);
+            T object = parseAndRestore(clazz, input, projection);
+            currentStatistics.recordDeserialization(clazz, System.nanoTime() - start, utf8Length(input));
+
+            return object;
+        } catch (RuntimeException exception) {
+            currentStatistics.recordFailure(clazz, exception);
+            throw exception;
+        }
+    }
+
+    /**
+     * Разбирает документ и восстанавливает из него экземпляр класса {@code clazz}.
+     *
+     * @param clazz      класс восстанавливаемого объекта.
+     * @param input      строковое представление документа.
+     * @param projection проекция документа; null, если документ разбирается полностью.
+     * @return восстановленный объект.
+     */
+    private <T> T parseAndRestore(Class<T> clazz, String input, JsonProjection projection) {
+        try {
+            JsonParseEvent parseEvent = new JsonParseEvent();
+            parseEvent.begin();
+            JsonObject jsonObject = parse(input, projection);
+            parseEvent.complete(clazz, retainIdentity, jsonObject, input);
+
             if (jsonObject instanceof JsonStructure structure) {
+                JsonBindEvent bindEvent = new JsonBindEvent();
+                bindEvent.begin();
                 T object = restoreStructure(clazz, structure);
                 if (retainIdentity) {
                     assert identityHashMap != null;
                     identityHashMap.clear();
+                    restoredObjects.clear();
                 }
+                bindEvent.complete(clazz, retainIdentity, structure, input);
 
                 return object;
             } else {
@@ -69,12 +403,44 @@ public class JsonMapper implements Mapper {
 
     @Override
     public <T> T read(Class<T> clazz, InputStream inputStream) throws IOException {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
-            String jsonDocument = reader.lines().collect(Collectors.joining());
-            T object = readFromString(clazz, jsonDocument);
+        return read(clazz, inputStream, (JsonProjection) null);
+    }
+
+    /**
+     * Читает из {@code InputStream}'а только значения, выбранные путями {@code paths}.
+     * Данный метод закрывает {@code inputStream}.
+     *
+     * @param clazz       класс, аннотированный @Exported.
+     * @param inputStream поток ввода, содержащий строку в кодировке UTF-8.
+     * @param paths       пути к читаемым значениям.
+     * @param <T>         тип восстанавливаемого объекта.
+     * @return восстановленный объект.
+     * @throws IOException в случае ошибки ввода-вывода.
+     * @see #readFromString(Class, String, Set)
+     */
+    public <T> T read(Class<T> clazz, InputStream inputStream, Set<String> paths) throws IOException {
+        return read(clazz, inputStream, JsonProjection.of(paths));
+    }
+
+    /**
+     * @param projection проекция, выбирающая читаемые значения; null, если читается весь объект.
+     */
+    private <T> T read(Class<T> clazz, InputStream inputStream, JsonProjection projection) throws IOException {
+        try (inputStream) {
+            String jsonDocument;
+            try {
+                jsonDocument = readDocument(inputStream, getBufferPool());
+            } catch (IOException exception) {
+                recordFailure(clazz, exception);
+                throw exception;
+            }
+            T object = projection == null
+                    ? readFromString(clazz, jsonDocument)
+                    : readFromString(clazz, jsonDocument, projection);
             if (retainIdentity) {
                 assert identityHashMap != null;
                 identityHashMap.clear();
+                restoredObjects.clear();
             }
 
             return object;
@@ -83,57 +449,722 @@ public class JsonMapper implements Mapper {
 
     @Override
     public <T> T read(Class<T> clazz, File file) throws IOException {
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(
-                        new FileInputStream(file), StandardCharsets.UTF_8))) {
-            String jsonDocument = reader.lines().collect(Collectors.joining());
-            T object = readFromString(clazz, jsonDocument);
+        return read(clazz, new FileInputStream(file));
+    }
+
+    /**
+     * Читает сохранённый экземпляр класса из строки {@code input} в уже существующий объект {@code target}.
+     * Перезаписываются только поля, присутствующие в документе; остальные поля сохраняют свои значения.
+     * Вложенные объекты и коллекции, уже присвоенные полям {@code target}, по возможности переиспользуются:
+     * объекты заполняются на месте, а изменяемые коллекции очищаются и заполняются заново.
+     * <p>
+     * Пример вызова:
+     *
+     * <pre>
+     * Person person = new Person();
+     * mapper.readInto(person, input);
+     * </pre>
+     *
+     * @param target объект класса, аннотированного @Exported, не являющегося record-классом.
+     * @param input  строковое представление сохранённого экземпляра класса {@code target}.
+     * @param <T>    тип заполняемого объекта.
+     * @return {@code target}.
+     */
+    public <T> T readInto(T target, String input) {
+        Class<?> clazz = target.getClass();
+        if (clazz.isRecord() || !clazz.isAnnotationPresent(Exported.class)) {
+            throw new IllegalArgumentException(
+                    "The target must be an instance of a class marked with the @Exported annotation, not a record.");
+        }
+
+        JsonMapperStatistics currentStatistics = statistics;
+        if (currentStatistics == null) {
+            return parseAndRestoreInto(target, clazz, input);
+        }
+
+        long start = System.nanoTime();
+        try {
+            parseAndRestoreInto(target, clazz, input);
+            currentStatistics.recordDeserialization(clazz, System.nanoTime() - start, utf8Length(input));
+
+            return target;
+        } catch (RuntimeException exception) {
+            currentStatistics.recordFailure(clazz, exception);
+            throw exception;
+        }
+    }
+
+    /**
+     * Разбирает документ и заполняет им объект {@code target}.
+     *
+     * @param target заполняемый объект.
+     * @param clazz  класс заполняемого объекта.
+     * @param input  строковое представление документа.
+     * @return {@code target}.
+     */
+    private <T> T parseAndRestoreInto(T target, Class<?> clazz, String input) {
+        try {
+            JsonParseEvent parseEvent = new JsonParseEvent();
+            parseEvent.begin();
+            JsonObject jsonObject = parse(input, getClassProjection(clazz));
+            parseEvent.complete(clazz, retainIdentity, jsonObject, input);
+
+            if (jsonObject instanceof JsonStructure structure) {
+                JsonBindEvent bindEvent = new JsonBindEvent();
+                bindEvent.begin();
+                restoreInto(target, structure);
+                if (retainIdentity) {
+                    assert identityHashMap != null;
+                    identityHashMap.clear();
+                    restoredObjects.clear();
+                }
+                bindEvent.complete(clazz, retainIdentity, structure, input);
+
+                return target;
+            } else {
+                throw new IllegalArgumentException("Class cannot be simple.");
+            }
+        } catch (JsonParseException exception) {
+            throw new IllegalArgumentException("Impossible to parse JSON document", exception);
+        }
+    }
+
+    /**
+     * Читает сохранённый экземпляр класса из {@code InputStream}'а в уже существующий объект {@code target}.
+     * Данный метод закрывает {@code inputStream}.
+     *
+     * @param target      объект класса, аннотированного @Exported, не являющегося record-классом.
+     * @param inputStream поток ввода, содержащий строку в кодировке UTF-8.
+     * @param <T>         тип заполняемого объекта.
+     * @return {@code target}.
+     * @throws IOException в случае ошибки ввода-вывода.
+     * @see #readInto(Object, String)
+     */
+    public <T> T readInto(T target, InputStream inputStream) throws IOException {
+        try (inputStream) {
+            return readInto(target, readDocument(inputStream, getBufferPool()));
+        }
+    }
+
+    /**
+     * Строит патч, переводящий объект {@code oldValue} в состояние {@code newValue}. Графы обеих версий обходятся
+     * одновременно по описаниям классов, и в патч попадают только изменившиеся свойства и диапазоны списков,
+     * поэтому размер патча и время его применения зависят от объёма изменений, а не от размера объекта.
+     * <p>
+     * Патч является JSON-структурой, ключи которой совпадают с ключами изменившихся свойств, а значения описывают
+     * операции над ними:
+     * <ul>
+     *     <li>{@code {"value":...}} - новое значение целиком;</li>
+     *     <li>{@code {"patch":{...}}} - патч вложенного объекта;</li>
+     *     <li>{@code {"elements":{"3":{...}},"from":4,"remove":2,"insert":[...]}} - операции над элементами
+     *     списка по их индексам и замена диапазона элементов, выполняемая после них; каждая из частей может
+     *     отсутствовать.</li>
+     * </ul>
+     * Значения записываются так же, как при сериализации. Объекты record-классов, множества и объекты, сменившие
+     * класс, заменяются целиком. Множества сравниваются поэлементно по содержимому, поэтому неизменившееся
+     * множество не попадает в патч, даже если его элементы не переопределяют equals.
+     * <p>
+     * Пример вызова:
+     *
+     * <pre>
+     * String patch = mapper.diff(previous, person);
+     * mapper.applyPatch(replica, patch);
+     * </pre>
+     *
+     * @param oldValue прежняя версия объекта класса, аннотированного @Exported, не являющегося record-классом.
+     * @param newValue новая версия объекта того же класса.
+     * @return строковое представление патча; пустая структура, если версии не различаются.
+     */
+    public String diff(Object oldValue, Object newValue) {
+        Class<?> clazz = newValue.getClass();
+        if (oldValue.getClass() != clazz || !isReusable(newValue, clazz)) {
+            throw new IllegalArgumentException("Both versions must be instances of the same class marked with "
+                    + "the @Exported annotation, not a record.");
+        }
+
+        try {
+            return new JsonDiff(this).diff(oldValue, newValue).toString();
+        } finally {
             if (retainIdentity) {
                 assert identityHashMap != null;
                 identityHashMap.clear();
+                restoredObjects.clear();
             }
+        }
+    }
 
-            return object;
+    /**
+     * Применяет патч, построенный методом {@link #diff(Object, Object)}, к объекту {@code target} на месте.
+     * Вложенные объекты и изменяемые списки обновляются на месте; неизменяемый список заменяется изменённой
+     * копией.
+     *
+     * @param target объект, находящийся в состоянии прежней версии.
+     * @param patch  строковое представление патча.
+     * @param <T>    тип обновляемого объекта.
+     * @return {@code target}.
+     */
+    public <T> T applyPatch(T target, String patch) {
+        if (!isReusable(target, target.getClass())) {
+            throw new IllegalArgumentException(
+                    "The target must be an instance of a class marked with the @Exported annotation, not a record.");
+        }
+
+        try {
+            if (!(parse(patch, null) instanceof JsonStructure structure)) {
+                throw new IllegalArgumentException("The patch must be a JSON structure.");
+            }
+
+            new JsonDiff(this).applyPatch(target, structure);
+            return target;
+        } catch (JsonParseException exception) {
+            throw new IllegalArgumentException("Impossible to parse JSON document", exception);
+        } finally {
+            if (retainIdentity) {
+                assert identityHashMap != null;
+                identityHashMap.clear();
+                restoredObjects.clear();
+            }
         }
     }
 
     @Override
     public String writeToString(Object object) {
-        JsonStructure jsonStructure = getJsonStructure(object);
-        if (retainIdentity) {
-            assert identityHashMap != null;
-            identityHashMap.clear();
+        JsonBufferPool pool = getBufferPool();
+        StringBuilder builder = pool.acquireStringBuilder();
+        try {
+            serialize(object, builder);
+            return builder.toString();
+        } finally {
+            pool.releaseStringBuilder(builder);
         }
-
-        return jsonStructure.toString();
     }
 
     @Override
     public void write(Object object, OutputStream outputStream) throws IOException {
-        JsonStructure jsonStructure = getJsonStructure(object);
-        if (retainIdentity) {
-            assert identityHashMap != null;
-            identityHashMap.clear();
-        }
-
-        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8))) {
-            writer.write(jsonStructure.toString());
+        try (outputStream) {
+            JsonBufferPool pool = getBufferPool();
+            StringBuilder builder = pool.acquireStringBuilder();
+            try {
+                JsonStructure jsonStructure = serialize(object, builder);
+
+                JsonFlushEvent flushEvent = new JsonFlushEvent();
+                flushEvent.begin();
+                try {
+                    writeDocument(builder, outputStream, pool);
+                    outputStream.flush();
+                } catch (IOException exception) {
+                    recordFailure(object.getClass(), exception);
+                    throw exception;
+                }
+                flushEvent.complete(object.getClass(), retainIdentity, jsonStructure, builder);
+            } finally {
+                pool.releaseStringBuilder(builder);
+            }
         }
     }
 
     @Override
     public void write(Object object, File file) throws IOException {
-        JsonStructure jsonStructure = getJsonStructure(object);
-        if (retainIdentity) {
-            assert identityHashMap != null;
-            identityHashMap.clear();
+        JsonBufferPool pool = getBufferPool();
+        StringBuilder builder = pool.acquireStringBuilder();
+        try {
+            JsonStructure jsonStructure = serialize(object, builder);
+
+            JsonFlushEvent flushEvent = new JsonFlushEvent();
+            flushEvent.begin();
+            try (FileOutputStream outputStream = new FileOutputStream(file)) {
+                writeDocument(builder, outputStream, pool);
+            } catch (IOException exception) {
+                recordFailure(object.getClass(), exception);
+                throw exception;
+            }
+            flushEvent.complete(object.getClass(), retainIdentity, jsonStructure, builder);
+        } finally {
+            pool.releaseStringBuilder(builder);
+        }
+    }
+
+    /**
+     * Сохраняет {@code object} в {@code outputStream} в формате gzip. Блоки документа сжимаются параллельно
+     * в пуле {@link #getForkJoinPool()}, результат - стандартный gzip поток.
+     * <p>
+     * Данный метод закрывает {@code outputStream}.
+     *
+     * @param object       объект для сохранения.
+     * @param outputStream поток, в который записывается сжатый документ.
+     * @throws IOException в случае ошибки ввода-вывода.
+     * @see ParallelGzipOutputStream
+     */
+    public void writeCompressed(Object object, OutputStream outputStream) throws IOException {
+        ParallelGzipOutputStream compressedStream;
+        try {
+            compressedStream = new ParallelGzipOutputStream(outputStream, forkJoinPool);
+        } catch (IOException | RuntimeException exception) {
+            closeSuppressing(outputStream, exception);
+            throw exception;
+        }
+
+        write(object, compressedStream);
+    }
+
+    /**
+     * Сохраняет {@code object} в файл в формате gzip.
+     *
+     * @param object объект для сохранения.
+     * @param file   файл, в который записывается сжатый документ.
+     * @throws IOException в случае ошибки ввода-вывода.
+     * @see #writeCompressed(Object, OutputStream)
+     */
+    public void writeCompressed(Object object, File file) throws IOException {
+        writeCompressed(object, new FileOutputStream(file));
+    }
+
+    /**
+     * Читает сохранённый экземпляр класса {@code clazz} из потока в формате gzip. Данные распаковываются по мере
+     * декодирования, но распакованный документ целиком собирается в строку и разбирается после чтения всего
+     * потока, как в {@link #read(Class, InputStream)}. Документы, корнем которых является коллекция, можно
+     * разбирать одновременно с распаковкой методом {@link #readCompressed(Class, InputStream, Consumer)}.
+     * <p>
+     * Данный метод закрывает {@code inputStream}.
+     *
+     * @param clazz       класс, сохранённый экземпляр которого находится в потоке.
+     * @param inputStream поток, содержащий сжатый документ в кодировке UTF-8.
+     * @param <T>         тип восстанавливаемого объекта.
+     * @return восстановленный экземпляр {@code clazz}.
+     * @throws IOException в случае ошибки ввода-вывода либо если поток не является gzip потоком.
+     */
+    public <T> T readCompressed(Class<T> clazz, InputStream inputStream) throws IOException {
+        return read(clazz, openCompressed(inputStream));
+    }
+
+    /**
+     * Читает элементы корневой коллекции документа в формате gzip и передаёт каждый восстановленный элемент
+     * в {@code action}. Распаковка и разбор выполняются одновременно: очередной распакованный блок сразу
+     * передаётся разборщику {@link JsonFeedParser}, и элементы, завершённые в этом блоке, восстанавливаются до
+     * распаковки следующего. В памяти находятся только текущий блок и незавершённый элемент, поэтому размер
+     * распакованного документа не ограничен.
+     * <p>
+     * Данный метод закрывает {@code inputStream}.
+     * <p>
+     * Пример вызова:
+     *
+     * <pre>
+     * mapper.readCompressed(Point2D.class, new FileInputStream("/tmp/points.json.gz"), points::add);
+     * </pre>
+     *
+     * @param clazz       класс элементов корневой коллекции.
+     * @param inputStream поток, содержащий сжатый документ в кодировке UTF-8.
+     * @param action      действие, выполняемое для каждого элемента в порядке следования в документе.
+     * @param <T>         тип восстанавливаемых элементов.
+     * @throws IOException              в случае ошибки ввода-вывода либо если поток не является gzip потоком.
+     * @throws IllegalArgumentException если не удалось разобрать документ.
+     */
+    public <T> void readCompressed(Class<T> clazz, InputStream inputStream, Consumer<? super T> action)
+            throws IOException {
+        JsonFeedParser<T> parser = new JsonFeedParser<>(this, clazz);
+        try (InputStream compressedStream = openCompressed(inputStream)) {
+            byte[] block = new byte[COMPRESSED_BUFFER_SIZE];
+            int read;
+            while ((read = compressedStream.read(block)) >= 0) {
+                parser.feed(ByteBuffer.wrap(block, 0, read));
+                drain(parser, action);
+            }
+            parser.endOfInput();
+            drain(parser, action);
+        } catch (JsonParseException exception) {
+            throw new IllegalArgumentException("Impossible to parse JSON document", exception);
         }
+    }
 
-        try (PrintWriter printWriter = new PrintWriter(file)) {
-            printWriter.write(jsonStructure.toString());
+    private static <T> void drain(JsonFeedParser<T> parser, Consumer<? super T> action) {
+        T element;
+        while ((element = parser.poll()) != null) {
+            action.accept(element);
         }
     }
 
+    /**
+     * @param inputStream поток в формате gzip.
+     * @return поток распакованных данных; при ошибке чтения заголовка {@code inputStream} закрывается.
+     * @throws IOException в случае ошибки ввода-вывода либо если поток не является gzip потоком.
+     */
+    private static InputStream openCompressed(InputStream inputStream) throws IOException {
+        try {
+            return new GZIPInputStream(inputStream, COMPRESSED_BUFFER_SIZE);
+        } catch (IOException | RuntimeException exception) {
+            closeSuppressing(inputStream, exception);
+            throw exception;
+        }
+    }
+
+    private static void closeSuppressing(Closeable closeable, Throwable cause) {
+        try {
+            closeable.close();
+        } catch (IOException exception) {
+            cause.addSuppressed(exception);
+        }
+    }
+
+    /**
+     * @param clazz класс, сохранённый экземпляр которого находится в файле.
+     * @param file  файл, содержащий сжатый документ в кодировке UTF-8.
+     * @param <T>   тип восстанавливаемого объекта.
+     * @return восстановленный экземпляр {@code clazz}.
+     * @throws IOException в случае ошибки ввода-вывода либо если файл не является gzip файлом.
+     * @see #readCompressed(Class, InputStream)
+     */
+    public <T> T readCompressed(Class<T> clazz, File file) throws IOException {
+        return readCompressed(clazz, new FileInputStream(file));
+    }
+
+    /**
+     * Строит JSON-представление объекта и дописывает его строковое представление в {@code builder}.
+     *
+     * @param object  сериализуемый объект класса, аннотированного @Exported.
+     * @param builder буфер, в который записывается документ.
+     * @return JSON-представление объекта.
+     */
+    private JsonStructure serialize(Object object, StringBuilder builder) {
+        JsonMapperStatistics currentStatistics = statistics;
+        long start = currentStatistics == null ? 0 : System.nanoTime();
+
+        JsonSerializeEvent serializeEvent = new JsonSerializeEvent();
+        serializeEvent.begin();
+
+        JsonStructure jsonStructure;
+        try {
+            jsonStructure = getJsonStructure(object);
+            if (retainIdentity) {
+                assert identityHashMap != null;
+                identityHashMap.clear();
+                restoredObjects.clear();
+            }
+            if (stringReferenceTableSize != 0) {
+                new JsonStringReferences(stringReferenceTableSize).write(jsonStructure, builder);
+            } else {
+                jsonStructure.appendTo(builder);
+            }
+        } catch (RuntimeException exception) {
+            if (object != null) {
+                recordFailure(object.getClass(), exception);
+            }
+            throw exception;
+        }
+
+        serializeEvent.complete(object.getClass(), retainIdentity, jsonStructure, builder);
+        if (currentStatistics != null) {
+            currentStatistics.recordSerialization(object.getClass(), System.nanoTime() - start, utf8Length(builder));
+        }
+
+        return jsonStructure;
+    }
+
+    private void recordFailure(Class<?> clazz, Throwable throwable) {
+        JsonMapperStatistics currentStatistics = statistics;
+        if (currentStatistics != null) {
+            currentStatistics.recordFailure(clazz, throwable);
+        }
+    }
+
+    /**
+     * @param document строковое представление документа.
+     * @return размер документа в кодировке UTF-8.
+     */
+    static long utf8Length(CharSequence document) {
+        long length = 0;
+        for (int index = 0; index < document.length(); index++) {
+            char symbol = document.charAt(index);
+            if (symbol < 0x80) {
+                length++;
+            } else if (symbol < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(symbol)) {
+                length += 4;
+                index++;
+            } else {
+                length += 3;
+            }
+        }
+
+        return length;
+    }
+
+    /**
+     * Считывает документ из потока в кодировке UTF-8. Разделители строк отбрасываются, то есть строки
+     * документа соединяются без разделителя.
+     *
+     * @param inputStream поток, содержащий документ.
+     * @param pool        набор вспомогательных буферов.
+     * @return считанный документ.
+     * @throws IOException в случае ошибки ввода-вывода.
+     */
+    static String readDocument(InputStream inputStream, JsonBufferPool pool) throws IOException {
+        ByteBuffer bytes = pool.byteBuffer();
+        CharBuffer chars = pool.charBuffer();
+        CharsetDecoder decoder = pool.decoder();
+        StringBuilder builder = pool.acquireStringBuilder();
+
+        try {
+            int read;
+            boolean endOfInput = false;
+            while (!endOfInput) {
+                read = inputStream.read(bytes.array(), bytes.position(), bytes.remaining());
+                if (read < 0) {
+                    endOfInput = true;
+                } else {
+                    bytes.position(bytes.position() + read);
+                }
+
+                bytes.flip();
+                decode(bytes, chars, decoder, builder, endOfInput);
+                bytes.compact();
+            }
+
+            return builder.toString();
+        } finally {
+            pool.releaseStringBuilder(builder);
+        }
+    }
+
+    /**
+     * Декодирует очередную порцию байтов документа и дописывает символы в {@code builder}, отбрасывая
+     * разделители строк. Байты незавершённого символа остаются в {@code bytes} до следующей порции.
+     *
+     * @param bytes      байты документа, подготовленные к чтению.
+     * @param chars      промежуточный буфер символов.
+     * @param decoder    декодер UTF-8, которым декодируются все порции документа.
+     * @param builder    буфер, в который записывается документ.
+     * @param endOfInput true, если порция последняя.
+     */
+    static void decode(ByteBuffer bytes, CharBuffer chars, CharsetDecoder decoder, StringBuilder builder,
+                       boolean endOfInput) {
+        CoderResult result;
+        do {
+            result = decoder.decode(bytes, chars, endOfInput);
+            if (endOfInput && result.isUnderflow()) {
+                decoder.flush(chars);
+            }
+            appendWithoutLineSeparators(chars.flip(), builder);
+            chars.clear();
+        } while (result.isOverflow());
+    }
+
+    private static void appendWithoutLineSeparators(CharBuffer chars, StringBuilder builder) {
+        char[] array = chars.array();
+        int start = chars.position();
+        for (int index = start; index < chars.limit(); index++) {
+            if (array[index] == '\n' || array[index] == '\r') {
+                builder.append(array, start, index - start);
+                start = index + 1;
+            }
+        }
+        builder.append(array, start, chars.limit() - start);
+    }
+
+    /**
+     * Записывает документ в поток в кодировке UTF-8.
+     *
+     * @param jsonDocument записываемый документ.
+     * @param outputStream поток, в который записывается документ.
+     * @param pool         набор вспомогательных буферов.
+     * @throws IOException в случае ошибки ввода-вывода.
+     */
+    private static void writeDocument(CharSequence jsonDocument, OutputStream outputStream, JsonBufferPool pool)
+            throws IOException {
+        CharBuffer chars = CharBuffer.wrap(jsonDocument);
+        ByteBuffer bytes = pool.byteBuffer();
+        CharsetEncoder encoder = pool.encoder();
+
+        CoderResult result;
+        do {
+            result = encoder.encode(chars, bytes, true);
+            if (result.isUnderflow()) {
+                result = encoder.flush(bytes);
+            }
+            outputStream.write(bytes.array(), 0, bytes.position());
+            bytes.clear();
+        } while (result.isOverflow());
+    }
+
+    /**
+     * Читает файл в формате NDJSON, каждая непустая строка которого содержит сохранённый экземпляр класса
+     * {@code clazz}, и возвращает параллельный поток восстановленных экземпляров.
+     * <p>
+     * Файл делится на диапазоны байтов по границам строк, и диапазоны разбираются независимо в потоках
+     * ForkJoinPool, в котором вызвана терминальная операция (по умолчанию - общий пул). Чтобы использовать
+     * собственный пул, терминальную операцию следует выполнить внутри {@code pool.submit(...)}.
+     * <p>
+     * Возвращённый поток необходимо закрыть после использования.
+     * <p>
+     * Пример вызова:
+     *
+     * <pre>
+     * try (Stream&lt;Point2D&gt; points = mapper.readLines(Point2D.class, Path.of("/tmp/points.ndjson"), true)) {
+     *     points.forEach(System.out::println);
+     * }
+     * </pre>
+     *
+     * @param clazz         класс, сохранённые экземпляры которого находятся в файле.
+     * @param path          путь к файлу в кодировке UTF-8.
+     * @param preserveOrder необходимо ли сохранять порядок записей в файле.
+     * @param <T>           тип восстанавливаемых объектов.
+     * @return параллельный поток восстановленных экземпляров {@code clazz}.
+     * @throws IOException в случае ошибки открытия файла.
+     */
+    public <T> Stream<T> readLines(Class<T> clazz, Path path, boolean preserveOrder) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+
+        Stream<T> stream;
+        try {
+            JsonLinesSpliterator<T> spliterator = new JsonLinesSpliterator<>(this, clazz, channel, 0,
+                    channel.size(), preserveOrder);
+            stream = StreamSupport.stream(spliterator, true).onClose(() -> {
+                try {
+                    channel.close();
+                } catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            });
+        } catch (IOException exception) {
+            channel.close();
+            throw exception;
+        }
+
+        return preserveOrder ? stream : stream.unordered();
+    }
+
+    /**
+     * Асинхронно читает сохранённый экземпляр класса {@code clazz} из файла. Чтение файла выполняется через
+     * AsynchronousFileChannel и не блокирует вызывающий поток, разбор документа выполняется в пуле
+     * forkJoinPool.
+     *
+     * @param clazz класс, сохранённый экземпляр которого находится в файле.
+     * @param path  путь к файлу в кодировке UTF-8.
+     * @param <T>   тип восстанавливаемого объекта.
+     * @return future, завершающийся восстановленным экземпляром {@code clazz}.
+     */
+    public <T> CompletableFuture<T> readAsync(Class<T> clazz, Path path) {
+        return readAsync(clazz, path, forkJoinPool);
+    }
+
+    /**
+     * Асинхронно читает сохранённый экземпляр класса {@code clazz} из файла. Чтение файла выполняется через
+     * AsynchronousFileChannel и не блокирует вызывающий поток; каждая считанная порция декодируется, пока
+     * читается следующая. Разбор документа начинается после чтения последней порции и выполняется в
+     * {@code executor}.
+     * <p>
+     * Пример вызова:
+     *
+     * <pre>
+     * mapper.readAsync(Person.class, Path.of("/tmp/paul.json"), executor)
+     *         .thenAccept(System.out::println);
+     * </pre>
+     *
+     * @param clazz    класс, сохранённый экземпляр которого находится в файле.
+     * @param path     путь к файлу в кодировке UTF-8.
+     * @param executor исполнитель, в котором выполняются разбор документа и восстановление объекта.
+     * @param <T>      тип восстанавливаемого объекта.
+     * @return future, завершающийся восстановленным экземпляром {@code clazz}.
+     */
+    public <T> CompletableFuture<T> readAsync(Class<T> clazz, Path path, Executor executor) {
+        // Асинхронные операции выполняются одновременно с другими вызовами, поэтому им нужно собственное состояние.
+        JsonMapper mapper = fork();
+
+        return AsyncFileTransfer.read(path).thenApplyAsync(
+                jsonDocument -> mapper.readFromString(clazz, jsonDocument),
+                executor
+        );
+    }
+
+    /**
+     * Асинхронно сохраняет {@code object} в файл. Сериализация выполняется в пуле forkJoinPool, запись файла
+     * выполняется через AsynchronousFileChannel и не блокирует вызывающий поток.
+     *
+     * @param object объект для сохранения.
+     * @param path   путь к файлу.
+     * @return future, завершающийся после записи и закрытия файла.
+     */
+    public CompletableFuture<Void> writeAsync(Object object, Path path) {
+        return writeAsync(object, path, forkJoinPool);
+    }
+
+    /**
+     * Асинхронно сохраняет {@code object} в файл. Сериализация выполняется в {@code executor}, запись файла
+     * выполняется через AsynchronousFileChannel и не блокирует вызывающий поток.
+     * <p>
+     * Пример вызова:
+     *
+     * <pre>
+     * mapper.writeAsync(person, Path.of("/tmp/paul.json"), executor)
+     *         .thenRun(() -&gt; System.out.println("Saved"));
+     * </pre>
+     *
+     * @param object   объект для сохранения.
+     * @param path     путь к файлу.
+     * @param executor исполнитель, в котором выполняется сериализация объекта.
+     * @return future, завершающийся после записи и закрытия файла.
+     */
+    public CompletableFuture<Void> writeAsync(Object object, Path path, Executor executor) {
+        JsonMapper mapper = fork();
+
+        return CompletableFuture.supplyAsync(() -> mapper.writeToString(object), executor)
+                .thenCompose(jsonDocument -> AsyncFileTransfer.write(path, jsonDocument));
+    }
+
+    /**
+     * Создаёт десериализатор с теми же настройками, но с собственным состоянием. Используется там, где
+     * документы обрабатываются одновременно в нескольких потоках.
+     *
+     * @return новый экземпляр JsonMapper.
+     */
+    JsonMapper fork() {
+        JsonMapper mapper = new JsonMapper(retainIdentity);
+        mapper.parallelThreshold = parallelThreshold;
+        mapper.forkJoinPool = forkJoinPool;
+        mapper.bufferPooling = bufferPooling;
+        mapper.statistics = statistics;
+        mapper.positionalCollections = positionalCollections;
+        mapper.serializedCache = serializedCache;
+        mapper.decodedCache = decodedCache;
+        mapper.stringTable = stringTable;
+        mapper.stringReferenceTableSize = stringReferenceTableSize;
+
+        return mapper;
+    }
+
+    /**
+     * Проверяет, следует ли обрабатывать коллекцию переданного размера параллельно.
+     *
+     * @param size размер коллекции.
+     * @return true, если параллельная обработка включена и применима.
+     */
+    private boolean isParallelizable(int size) {
+        return parallelThreshold > 0 && size >= parallelThreshold && !retainIdentity;
+    }
+
+    /**
+     * Выполняет задачу в пуле forkJoinPool либо, если текущий поток уже принадлежит пулу, в текущем потоке.
+     *
+     * @param task выполняемая задача.
+     */
+    private void invokeTask(ForkJoinTask<?> task) {
+        if (ForkJoinTask.inForkJoinPool()) {
+            task.invoke();
+        } else {
+            forkJoinPool.invoke(task);
+        }
+    }
+
+    /**
+     * Вычисляет размер части коллекции, которая обрабатывается в одной задаче без дальнейшего деления.
+     *
+     * @param size размер коллекции.
+     * @return размер неделимой части.
+     */
+    private int getParallelChunkSize(int size) {
+        return Math.max(1, size / (forkJoinPool.getParallelism() * PARALLEL_CHUNKS_PER_THREAD));
+    }
+
     /**
      * Преобразует объект в JsonObject.
      *
@@ -141,7 +1172,7 @@ public class JsonMapper implements Mapper {
      * @param dateFormat паттерн строкового представления Temporal типов. Используется методом getJsonTemporal.
      * @return JSON-представление переданного объекта.
      */
-    private JsonObject getJson(Object object, DateFormat dateFormat) {
+    JsonObject getJson(Object object, DateFormat dateFormat) {
         if (object == null) {
             return null;
         } else if (object instanceof Number || object instanceof Boolean || object instanceof Character) {
@@ -153,6 +1184,17 @@ public class JsonMapper implements Mapper {
         } else if (object instanceof Enum<?> value) {
             return new JsonEnum(value);
         } else if (object instanceof Collection<?> boxedCollection) {
+            if (positionalCollections && !retainIdentity) {
+                ExportedClass elementClass = getPositionalElementClass(boxedCollection);
+                if (elementClass != null) {
+                    return getPositionalCollection(boxedCollection, elementClass);
+                }
+            }
+
+            if (isParallelizable(boxedCollection.size()) && stringReferenceTableSize == 0) {
+                return getJsonCollectionInParallel(boxedCollection, dateFormat);
+            }
+
             return new JsonCollection(boxedCollection.stream()
                     .map(item -> getJson(item, dateFormat))
                     .collect(Collectors.toList()));
@@ -161,6 +1203,153 @@ public class JsonMapper implements Mapper {
         }
     }
 
+    /**
+     * Определяет, может ли коллекция быть записана в позиционном виде.
+     *
+     * @param collection сериализуемая коллекция.
+     * @return описание класса элементов либо null, если коллекция пуста, содержит null или объекты разных классов
+     * либо её элементы не аннотированы @Exported.
+     */
+    private static ExportedClass getPositionalElementClass(Collection<?> collection) {
+        Class<?> elementClass = null;
+        for (Object item : collection) {
+            if (item == null || (elementClass != null && item.getClass() != elementClass)) {
+                return null;
+            }
+            elementClass = item.getClass();
+        }
+
+        if (elementClass == null || !elementClass.isAnnotationPresent(Exported.class)) {
+            return null;
+        }
+
+        return ExportedClass.of(elementClass);
+    }
+
+    /**
+     * Преобразует однородную коллекцию объектов в позиционное JSON-представление: строку ключей свойств и
+     * по строке значений на каждый элемент.
+     *
+     * @param collection   сериализуемая коллекция.
+     * @param elementClass описание класса элементов коллекции.
+     * @return JSON-представление переданной коллекции.
+     */
+    private JsonCollection getPositionalCollection(Collection<?> collection, ExportedClass elementClass) {
+        List<ExportedProperty> properties = elementClass.getProperties();
+        List<JsonObject> rows = new ArrayList<>(collection.size() + 1);
+
+        List<JsonObject> header = new ArrayList<>(properties.size());
+        for (ExportedProperty property : properties) {
+            header.add(new JsonString(property.getKey()));
+        }
+        rows.add(new JsonCollection(header));
+
+        for (Object item : collection) {
+            List<JsonObject> row = new ArrayList<>(properties.size());
+            for (ExportedProperty property : properties) {
+                row.add(getJson(property.get(item), property.getDateFormat()));
+            }
+            rows.add(new JsonCollection(row));
+        }
+
+        return new JsonCollection(rows);
+    }
+
+    /**
+     * Параллельно преобразует элементы коллекции в JsonObject. Коллекция делится на части, элементы каждой из
+     * которых преобразуются и сразу же записываются в отдельную строку; строки частей затем соединяются в
+     * исходном порядке, поэтому результат совпадает с результатом последовательной обработки. Представления
+     * элементов после записи не хранятся, поэтому дерево JSON объектов коллекции не удерживается в памяти
+     * вместе с её строковым представлением.
+     *
+     * @param collection сериализуемая коллекция.
+     * @param dateFormat паттерн строкового представления Temporal типов. Используется методом getJsonTemporal.
+     * @return JSON-представление переданной коллекции.
+     */
+    private JsonCollection getJsonCollectionInParallel(Collection<?> collection, DateFormat dateFormat) {
+        Object[] items = collection.toArray();
+        int chunkSize = getParallelChunkSize(items.length);
+        int chunksCount = (items.length + chunkSize - 1) / chunkSize;
+
+        String[] renderedChunks = new String[chunksCount];
+        long[] chunkElements = JsonMapperEvent.isSerializationRecorded() ? new long[chunksCount] : null;
+        invokeTask(new SerializeElementsTask(items, dateFormat, renderedChunks, chunkElements, 0, chunksCount,
+                chunkSize));
+
+        return new JsonCollection(Arrays.asList(renderedChunks),
+                chunkElements == null ? 0 : Arrays.stream(chunkElements).sum());
+    }
+
+    /**
+     * Задача параллельной сериализации элементов коллекции. Элементы каждой неделимой части коллекции
+     * преобразуются в JsonObject и записываются в строку, соответствующую номеру части.
+     */
+    @SuppressWarnings("serial")
+    private final class SerializeElementsTask extends RecursiveAction {
+        private final Object[] items;
+        private final DateFormat dateFormat;
+        private final String[] renderedChunks;
+
+        /**
+         * Количество JSON значений в частях для JFR событий; null, если события выключены.
+         */
+        private final long[] chunkElements;
+        private final int fromChunk;
+        private final int toChunk;
+        private final int chunkSize;
+
+        SerializeElementsTask(Object[] items, DateFormat dateFormat, String[] renderedChunks, long[] chunkElements,
+                              int fromChunk, int toChunk, int chunkSize) {
+            this.items = items;
+            this.dateFormat = dateFormat;
+            this.renderedChunks = renderedChunks;
+            this.chunkElements = chunkElements;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (toChunk - fromChunk == 1) {
+                int from = fromChunk * chunkSize;
+                int to = Math.min(items.length, from + chunkSize);
+
+                JsonBufferPool pool = getBufferPool();
+                StringBuilder builder = pool.acquireStringBuilder();
+                try {
+                    long elements = 0;
+                    for (int index = from; index < to; index++) {
+                        if (index > from) {
+                            builder.append(',');
+                        }
+
+                        JsonObject jsonObject = getJson(items[index], dateFormat);
+                        JsonCollection.appendElement(jsonObject, builder);
+                        if (chunkElements != null) {
+                            elements += JsonMapperEvent.countElements(jsonObject);
+                        }
+                    }
+
+                    renderedChunks[fromChunk] = builder.toString();
+                    if (chunkElements != null) {
+                        chunkElements[fromChunk] = elements;
+                    }
+                } finally {
+                    pool.releaseStringBuilder(builder);
+                }
+            } else {
+                int middle = (fromChunk + toChunk) >>> 1;
+                invokeAll(
+                        new SerializeElementsTask(items, dateFormat, renderedChunks, chunkElements, fromChunk,
+                                middle, chunkSize),
+                        new SerializeElementsTask(items, dateFormat, renderedChunks, chunkElements, middle,
+                                toChunk, chunkSize)
+                );
+            }
+        }
+    }
+
     /**
      * Преобразует примитивный объект или его обёртку в JsonPrimitive.
      *
@@ -192,12 +1381,35 @@ public class JsonMapper implements Mapper {
     }
 
     /**
-     * Преобразует объект класса, аннотированного @Exported, в JsonStructure.
+     * Преобразует объект класса, аннотированного @Exported, в JsonStructure. Представления неизменяемых объектов
+     * берутся из кэша, если он подключён.
      *
      * @param object сериализуемый объект.
      * @return JSON-представление переданного объекта.
      */
     private JsonStructure getJsonStructure(Object object) {
+        JsonSerializedCache cache = serializedCache;
+        if (cache == null || retainIdentity || !object.getClass().isAnnotationPresent(Exported.class)
+                || !JsonSerializedCache.isCacheable(object.getClass())) {
+            return createJsonStructure(object);
+        }
+
+        JsonStructure jsonStructure = cache.get(object);
+        if (jsonStructure == null) {
+            jsonStructure = createJsonStructure(object);
+            cache.put(object, jsonStructure);
+        }
+
+        return jsonStructure;
+    }
+
+    /**
+     * Строит JsonStructure по экспортируемым свойствам объекта класса, аннотированного @Exported.
+     *
+     * @param object сериализуемый объект.
+     * @return JSON-представление переданного объекта.
+     */
+    private JsonStructure createJsonStructure(Object object) {
         if (retainIdentity) {
             assert identityHashMap != null;
             if (identityHashMap.containsKey(object)) {
@@ -205,68 +1417,80 @@ public class JsonMapper implements Mapper {
             }
         }
 
-        Class<?> clazz = object.getClass();
-
-        if (clazz.isAnnotationPresent(Exported.class)) {
-            Exported exported = clazz.getAnnotation(Exported.class);
-
-            List<? extends AnnotatedElement> exportedComponents = getExportedComponents(clazz);
-
-            List<String> keys = new ArrayList<>();
-            List<JsonObject> values = new ArrayList<>();
-            for (AnnotatedElement annotatedElement : exportedComponents) {
-                String key;
-                Object value;
-                try {
-                    if (clazz.isRecord()) {
-                        RecordComponent component = (RecordComponent) annotatedElement;
-                        key = component.getName();
-                        value = component.getAccessor().invoke(object);
-                    } else {
-                        Field field = (Field) annotatedElement;
-                        key = field.getName();
-                        value = field.get(object);
-                    }
-                } catch (IllegalAccessException | InvocationTargetException exception) {
-                    throw new IllegalArgumentException("Impossible to get value of object element.", exception);
-                }
-
-                if (annotatedElement.isAnnotationPresent(PropertyName.class)) {
-                    key = annotatedElement.getAnnotation(PropertyName.class).value()
-                            .replaceAll("[\"]", "'");
-                }
-
-                if (value == null && exported.nullHandling().equals(NullHandling.EXCLUDE)) {
-                    continue;
-                }
+        ExportedClass exportedClass = ExportedClass.of(object.getClass());
+        boolean excludeNulls = exportedClass.getExported().nullHandling() == NullHandling.EXCLUDE;
 
-                DateFormat dateFormat = null;
-                if (annotatedElement.isAnnotationPresent(DateFormat.class)) {
-                    dateFormat = annotatedElement.getAnnotation(DateFormat.class);
-                }
-
-                keys.add(key);
-                values.add(getJson(value, dateFormat));
+        List<ExportedProperty> properties = exportedClass.getProperties();
+        List<String> keys = new ArrayList<>(properties.size() + 1);
+        List<JsonObject> values = new ArrayList<>(properties.size() + 1);
+        for (ExportedProperty property : properties) {
+            Object value = property.get(object);
+            if (value == null && excludeNulls) {
+                continue;
             }
 
-            if (retainIdentity) {
-                if (keys.contains("Identity id")) {
-                    throw new IllegalArgumentException("PropertyName \"Identity id\" must be unused.");
-                }
-                keys.add("Identity id");
-                values.add(new JsonNumber(identityHashMap.size()));
+            keys.add(property.getKey());
+            values.add(getJson(value, property.getDateFormat()));
+        }
 
-                JsonStructure jsonStructure = new JsonStructure(keys, values);
-                identityHashMap.put(object, jsonStructure);
-                return jsonStructure;
-            } else {
-                return new JsonStructure(keys, values);
+        if (retainIdentity) {
+            if (keys.contains("Identity id")) {
+                throw new IllegalArgumentException("PropertyName \"Identity id\" must be unused.");
             }
+            keys.add("Identity id");
+            values.add(new JsonNumber(identityHashMap.size()));
+
+            JsonStructure jsonStructure = new JsonStructure(keys, values);
+            identityHashMap.put(object, jsonStructure);
+            return jsonStructure;
         } else {
-            throw new IllegalArgumentException("The serializable class must be marked with the @Exported annotation.");
+            return new JsonStructure(keys, values);
         }
     }
 
+    /**
+     * Разбирает документ с таблицей строк этого сериализатора. Документ, записанный со ссылками на строки,
+     * разбирается полностью, так как строки пропущенных значений нужны для разрешения последующих ссылок.
+     *
+     * @param input      строковое представление документа.
+     * @param projection проекция документа; null, если документ разбирается полностью.
+     * @return JSON-представление документа.
+     * @throws JsonParseException если не удалось обработать документ.
+     */
+    private JsonObject parse(String input, JsonProjection projection) throws JsonParseException {
+        JsonBufferPool pool = getBufferPool();
+        JsonStringReferences references = JsonStringReferences.forDocument(input);
+        JsonStringTable previousTable = pool.getStringTable();
+        JsonStringReferences previousReferences = pool.getStringReferences();
+        pool.setStringTable(stringTable);
+        pool.setStringReferences(references);
+        try {
+            return parseDocument(input, pool, references == null ? projection : null);
+        } finally {
+            pool.setStringTable(previousTable);
+            pool.setStringReferences(previousReferences);
+        }
+    }
+
+    /**
+     * Возвращает проекцию, с которой разбираются документы класса {@code clazz} с политикой
+     * {@link UnknownPropertiesPolicy#IGNORE}: ключи, не соответствующие ни одному свойству, не используются при
+     * восстановлении, поэтому их значения пропускаются только по подсчёту скобок, без проверки корректности.
+     * Документы остальных классов разбираются полностью, и некорректные значения любых ключей приводят к
+     * ошибке. При сохранении идентичности объекты сопоставляются по полным JSON-представлениям, поэтому
+     * документ также разбирается полностью.
+     *
+     * @param clazz класс восстанавливаемого объекта.
+     * @return проекция либо null, если документ следует разбирать полностью.
+     */
+    private JsonProjection getClassProjection(Class<?> clazz) {
+        if (retainIdentity || !clazz.isAnnotationPresent(Exported.class) || !JsonProjection.isProjectable(clazz)) {
+            return null;
+        }
+
+        return JsonProjection.of(clazz);
+    }
+
     /**
      * Обрабатывает переданный JSON-документ или его фрагмент.
      *
@@ -275,15 +1499,88 @@ public class JsonMapper implements Mapper {
      * @throws JsonParseException если не удалось обработать переданный фрагмент.
      */
     static JsonObject parseDocument(String jsonDocument) throws JsonParseException {
+        return parseDocument(jsonDocument, new JsonBufferPool());
+    }
+
+    /**
+     * Обрабатывает переданный JSON-документ или его фрагмент.
+     *
+     * @param jsonDocument JSON-документ или его фрагмент.
+     * @param pool         набор вспомогательных буферов, используемых при разборе.
+     * @return реконструированный на основе переданного документа JSON-Object.
+     * @throws JsonParseException если не удалось обработать переданный фрагмент.
+     */
+    static JsonObject parseDocument(String jsonDocument, JsonBufferPool pool) throws JsonParseException {
+        return parseDocument(jsonDocument, pool, null);
+    }
+
+    /**
+     * Обрабатывает переданный JSON-документ или его фрагмент, разбирая в структурах только значения ключей,
+     * входящих в проекцию.
+     *
+     * @param jsonDocument JSON-документ или его фрагмент.
+     * @param pool         набор вспомогательных буферов, используемых при разборе.
+     * @param projection   проекция фрагмента; null, если фрагмент разбирается полностью.
+     * @return реконструированный на основе переданного документа JSON-Object.
+     * @throws JsonParseException если не удалось обработать переданный фрагмент.
+     */
+    static JsonObject parseDocument(String jsonDocument, JsonBufferPool pool, JsonProjection projection)
+            throws JsonParseException {
         if (jsonDocument.startsWith("{") && jsonDocument.endsWith("}")) {
-            return new JsonStructure(jsonDocument);
+            return new JsonStructure(jsonDocument, pool, projection);
         } else if (jsonDocument.startsWith("[") && jsonDocument.endsWith("]")) {
-            return new JsonCollection(jsonDocument);
+            return new JsonCollection(jsonDocument, pool, projection);
         } else if (!jsonDocument.startsWith("\"") && !jsonDocument.endsWith("\"")) {
+            JsonStringReferences references = pool.getStringReferences();
+            if (references != null && JsonStringReferences.isReference(jsonDocument)) {
+                return new JsonObject(references.resolve(jsonDocument));
+            }
+
             return new JsonPrimitive(jsonDocument);
         } else {
-            return new JsonObject(jsonDocument.substring(1, jsonDocument.length() - 1));
+            return parseString(jsonDocument, 1, jsonDocument.length() - 1, pool);
+        }
+    }
+
+    /**
+     * Обрабатывает фрагмент документа, заданный границами. Строковое значение извлекается из документа сразу,
+     * без промежуточной строки с кавычками.
+     *
+     * @param jsonDocument документ, содержащий фрагмент.
+     * @param from         начало фрагмента.
+     * @param to           конец фрагмента.
+     * @param pool         набор вспомогательных буферов, используемых при разборе.
+     * @param projection   проекция фрагмента; null, если фрагмент разбирается полностью.
+     * @return реконструированный на основе фрагмента JSON-Object.
+     * @throws JsonParseException если не удалось обработать фрагмент.
+     */
+    static JsonObject parseValue(String jsonDocument, int from, int to, JsonBufferPool pool,
+                                 JsonProjection projection) throws JsonParseException {
+        if (to - from >= 2 && jsonDocument.charAt(from) == '"' && jsonDocument.charAt(to - 1) == '"') {
+            return parseString(jsonDocument, from + 1, to - 1, pool);
+        }
+
+        return parseDocument(jsonDocument.substring(from, to), pool, projection);
+    }
+
+    /**
+     * Извлекает строковое значение и, если документ записан со ссылками на строки, заносит его в таблицу ссылок.
+     *
+     * @param jsonDocument документ, содержащий значение.
+     * @param from         начало значения без открывающей кавычки.
+     * @param to           конец значения без закрывающей кавычки.
+     * @param pool         набор вспомогательных буферов, используемых при разборе.
+     * @return JSON-представление строкового значения.
+     */
+    private static JsonObject parseString(String jsonDocument, int from, int to, JsonBufferPool pool) {
+        String value = pool.substring(jsonDocument, from, to);
+
+        JsonStringReferences references = pool.getStringReferences();
+        if (references != null) {
+            references.define(value);
         }
+
+        return new JsonObject(value);
     }
 
     /**
@@ -297,7 +1594,7 @@ public class JsonMapper implements Mapper {
      * @return восстановленный объект типа T.
      * @throws JsonParseException в случае, если не удалось сопоставить JSON-объект со структурой класса clazz.
      */
-    private <T> T restoreObject(Class<T> clazz, JsonObject jsonObject, Class<?> genericType, DateFormat dateFormat)
+    <T> T restoreObject(Class<T> clazz, JsonObject jsonObject, Class<?> genericType, DateFormat dateFormat)
             throws JsonParseException {
         if (jsonObject == null) {
             return null;
@@ -344,7 +1641,7 @@ public class JsonMapper implements Mapper {
         }
 
         if (Number.class.isAssignableFrom(wrapperClazz)) {
-            JsonNumber number = new JsonNumber(jsonPrimitive.value.toString());
+            JsonNumber number = new JsonNumber(jsonPrimitive.value.toString(), getBufferPool().numberFormat());
 
             if (number.value instanceof Double value) {
                 if (wrapperClazz == Float.class) {
@@ -405,8 +1702,22 @@ public class JsonMapper implements Mapper {
         try {
             T instance = clazz.cast(defaultConstructor.newInstance());
             if (instance instanceof Collection collection) {
-                for (var item : jsonCollection.collection) {
-                    collection.add(restoreObject(genericType, (JsonObject) item, null, dateFormat));
+                List<? super JsonObject> items = jsonCollection.collection;
+                if (isPositional(items, genericType)) {
+                    restorePositionalElements(collection, items, ExportedClass.of(genericType));
+                } else if (isParallelizable(items.size())) {
+                    if (instance instanceof ArrayList<?> arrayList) {
+                        arrayList.ensureCapacity(items.size());
+                    }
+
+                    Object[] restored = new Object[items.size()];
+                    invokeTask(new RestoreElementsTask(genericType, items, dateFormat, restored, 0, items.size(),
+                            getParallelChunkSize(items.size())));
+                    collection.addAll(Arrays.asList(restored));
+                } else {
+                    for (var item : items) {
+                        collection.add(restoreObject(genericType, (JsonObject) item, null, dateFormat));
+                    }
                 }
                 return clazz.cast(instance);
             } else {
@@ -421,108 +1732,190 @@ public class JsonMapper implements Mapper {
     }
 
     /**
-     * Десериализует объект класса, аннотированного @Exported.
+     * @param items       элементы JSON-представления коллекции.
+     * @param genericType тип, которым параметризована коллекция.
+     * @return true, если коллекция записана в позиционном виде.
+     */
+    private static boolean isPositional(List<?> items, Class<?> genericType) {
+        return genericType != null && genericType.isAnnotationPresent(Exported.class)
+                && !items.isEmpty() && items.get(0) instanceof JsonCollection;
+    }
+
+    /**
+     * Восстанавливает элементы коллекции, записанной в позиционном виде. Позиции значений сопоставляются свойствам
+     * класса по строке ключей один раз для всей коллекции.
      *
-     * @param clazz         представление класса десериализуемого объекта в Java VM.
-     * @param jsonStructure JSON-представление объекта.
-     * @param <T>           тип десериализуемого объекта.
-     * @return восстановленный объект типа T.
+     * @param collection   заполняемая коллекция.
+     * @param items        элементы JSON-представления коллекции; первый элемент содержит ключи свойств.
+     * @param elementClass описание класса элементов коллекции.
+     * @throws JsonParseException в случае, если не удалось сопоставить JSON-объект со структурой класса.
      */
-    private <T> T restoreStructure(Class<T> clazz, JsonStructure jsonStructure) {
-        if (retainIdentity) {
-            assert identityHashMap != null;
-            for (Object key : identityHashMap.keySet()) {
-                if (identityHashMap.get(key).equals(jsonStructure)) {
-                    return clazz.cast(key);
+    private void restorePositionalElements(Collection<Object> collection, List<?> items, ExportedClass elementClass)
+            throws JsonParseException {
+        List<?> header = ((JsonCollection) items.get(0)).collection;
+        Map<String, Integer> columns = new HashMap<>();
+        for (int column = 0; column < header.size(); column++) {
+            columns.put(((JsonObject) header.get(column)).value.toString(), column);
+        }
+
+        List<ExportedProperty> properties = elementClass.getProperties();
+        int[] propertyColumns = new int[properties.size()];
+        for (int index = 0; index < properties.size(); index++) {
+            Integer column = columns.get(properties.get(index).getKey());
+            if (column == null) {
+                if (elementClass.getExported().unknownPropertiesPolicy() == UnknownPropertiesPolicy.FAIL) {
+                    throw new IllegalArgumentException();
                 }
+                propertyColumns[index] = -1;
+            } else {
+                propertyColumns[index] = column;
             }
-
         }
 
-        if (clazz.isAnnotationPresent(Exported.class)) {
-            Exported exported = clazz.getAnnotation(Exported.class);
+        for (int rowIndex = 1; rowIndex < items.size(); rowIndex++) {
+            if (!(items.get(rowIndex) instanceof JsonCollection row) || row.collection.size() != header.size()) {
+                throw new IllegalArgumentException("Each positional row must contain a value for every key.");
+            }
+
+            // Свойства без столбца сохраняют значения по умолчанию, как ключи, пропущенные в документе.
+            Object[] values = elementClass.newArguments();
+            for (int index = 0; index < properties.size(); index++) {
+                if (propertyColumns[index] >= 0) {
+                    ExportedProperty property = properties.get(index);
+                    values[index] = restoreObject(property.getType(),
+                            (JsonObject) row.collection.get(propertyColumns[index]),
+                            property.getGenericType(), property.getDateFormat());
+                }
+            }
 
-            T object;
-            if (clazz.isRecord()) {
-                object = restoreRecordObject(clazz, jsonStructure, exported);
+            if (elementClass.isRecord()) {
+                collection.add(elementClass.newInstance(values));
             } else {
-                object = restoreClassObject(clazz, jsonStructure, exported);
+                Object instance = elementClass.newInstance();
+                for (int index = 0; index < properties.size(); index++) {
+                    if (propertyColumns[index] >= 0) {
+                        properties.get(index).set(instance, values[index]);
+                    }
+                }
+                collection.add(instance);
             }
+        }
+    }
 
-            if (retainIdentity) {
-                identityHashMap.put(object, jsonStructure);
+    /**
+     * Задача параллельной десериализации элементов коллекции. Восстановленные элементы записываются в массив
+     * заранее известного размера на свои позиции, поэтому порядок элементов сохраняется.
+     */
+    @SuppressWarnings("serial")
+    private final class RestoreElementsTask extends RecursiveAction {
+        private final Class<?> genericType;
+        private final List<?> items;
+        private final DateFormat dateFormat;
+        private final Object[] restored;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        RestoreElementsTask(Class<?> genericType, List<?> items, DateFormat dateFormat, Object[] restored,
+                            int from, int to, int chunkSize) {
+            this.genericType = genericType;
+            this.items = items;
+            this.dateFormat = dateFormat;
+            this.restored = restored;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                try {
+                    for (int index = from; index < to; index++) {
+                        restored[index] = restoreObject(genericType, (JsonObject) items.get(index), null, dateFormat);
+                    }
+                } catch (JsonParseException exception) {
+                    throw new IllegalArgumentException("Impossible to restore an element of the collection.",
+                            exception);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(
+                        new RestoreElementsTask(genericType, items, dateFormat, restored, from, middle, chunkSize),
+                        new RestoreElementsTask(genericType, items, dateFormat, restored, middle, to, chunkSize)
+                );
             }
-            return object;
-        } else {
-            throw new IllegalArgumentException("The serializable class must be marked with the @Exported annotation.");
         }
     }
 
     /**
-     * Десериализует объект record-класса.
+     * Десериализует объект класса, аннотированного @Exported.
      *
      * @param clazz         представление класса десериализуемого объекта в Java VM.
      * @param jsonStructure JSON-представление объекта.
-     * @param exported      @Exported аннотация, содержащая метаинформацию о процессе десериализации.
      * @param <T>           тип десериализуемого объекта.
      * @return восстановленный объект типа T.
      */
-    private <T> T restoreRecordObject(Class<T> clazz, JsonStructure jsonStructure, Exported exported) {
-        Constructor<?> constructor = getRecordConstructor(clazz);
-
-        List<? extends AnnotatedElement> exportedComponents = getExportedComponents(clazz);
-        Map<String, Object> recordParameters = new LinkedHashMap<>();
+    private <T> T restoreStructure(Class<T> clazz, JsonStructure jsonStructure) {
+        if (retainIdentity) {
+            assert restoredObjects != null;
+            Object restored = restoredObjects.get(jsonStructure);
+            if (restored != null) {
+                return clazz.cast(restored);
+            }
+        }
 
-        try {
-            for (AnnotatedElement annotatedElement : exportedComponents) {
-                String key;
-                Class<?> genericType = null;
+        ExportedClass exportedClass = ExportedClass.of(clazz);
 
-                RecordComponent component = (RecordComponent) annotatedElement;
-                if (component.getGenericType() instanceof ParameterizedType parameterizedType) {
-                    genericType = (Class<?>) parameterizedType.getActualTypeArguments()[0];
-                }
-                key = component.getName();
+        T object;
+        if (clazz.isRecord()) {
+            object = restoreRecordObject(clazz, jsonStructure, exportedClass);
+        } else {
+            object = restoreClassObject(clazz, jsonStructure, exportedClass);
+        }
 
-                if (annotatedElement.isAnnotationPresent(PropertyName.class)) {
-                    key = annotatedElement.getAnnotation(PropertyName.class).value()
-                            .replaceAll("[\"]", "'");
-                }
+        if (retainIdentity) {
+            restoredObjects.put(jsonStructure, object);
+        }
+        return object;
+    }
 
-                DateFormat dateFormat = null;
-                if (annotatedElement.isAnnotationPresent(DateFormat.class)) {
-                    dateFormat = annotatedElement.getAnnotation(DateFormat.class);
-                }
+    /**
+     * Десериализует объект record-класса. Компоненты, отсутствующие в JSON-представлении, получают значения
+     * по умолчанию, если политика класса это допускает.
+     *
+     * @param clazz         представление класса десериализуемого объекта в Java VM.
+     * @param jsonStructure JSON-представление объекта.
+     * @param exportedClass описание класса.
+     * @param <T>           тип десериализуемого объекта.
+     * @return восстановленный объект типа T.
+     */
+    private <T> T restoreRecordObject(Class<T> clazz, JsonStructure jsonStructure, ExportedClass exportedClass) {
+        List<ExportedProperty> properties = exportedClass.getProperties();
+        Object[] arguments = exportedClass.newArguments();
 
-                if (!jsonStructure.getStructureMap().containsKey(key)) {
-                    if (exported.unknownPropertiesPolicy() == UnknownPropertiesPolicy.FAIL) {
-                        throw new IllegalArgumentException();
-                    } else {
-                        continue;
-                    }
+        try {
+            for (int index = 0; index < properties.size(); index++) {
+                ExportedProperty property = properties.get(index);
+                if (isMissing(jsonStructure, property.getKey(), exportedClass)) {
+                    continue;
                 }
 
-                Object value = restoreObject(
-                        component.getType(),
-                        jsonStructure.getStructureMap().get(key),
-                        genericType,
-                        dateFormat
+                arguments[index] = restoreObject(
+                        property.getType(),
+                        jsonStructure.getStructureMap().get(property.getKey()),
+                        property.getGenericType(),
+                        property.getDateFormat()
                 );
-
-                recordParameters.put(component.getName(), value);
-            }
-
-            if (recordParameters.size() != constructor.getParameterCount()) {
-                throw new IllegalArgumentException();
             }
-
-            return clazz.cast(constructor.newInstance(recordParameters.values().toArray()));
-        } catch (ReflectiveOperationException | JsonParseException exception) {
+        } catch (JsonParseException exception) {
             throw new RuntimeException(
                     String.format("Impossible to create a new instance of %s", clazz.getName()),
                     exception
             );
         }
+
+        return clazz.cast(exportedClass.newInstance(arguments));
     }
 
     /**
@@ -530,64 +1923,156 @@ public class JsonMapper implements Mapper {
      *
      * @param clazz         представление класса десериализуемого объекта в Java VM.
      * @param jsonStructure JSON-представление объекта.
-     * @param exported      @Exported аннотация, содержащая метаинформацию о процессе десериализации.
+     * @param exportedClass описание класса.
      * @param <T>           тип десериализуемого объекта.
      * @return восстановленный объект типа T.
      */
-    private <T> T restoreClassObject(Class<T> clazz, JsonStructure jsonStructure, Exported exported) {
-        Constructor<?> constructor = getClassDefaultConstructor(clazz);
-
-        List<? extends AnnotatedElement> exportedComponents = getExportedComponents(clazz);
+    private <T> T restoreClassObject(Class<T> clazz, JsonStructure jsonStructure, ExportedClass exportedClass) {
+        Object instance = exportedClass.newInstance();
 
         try {
-            Object instance = constructor.newInstance();
+            for (ExportedProperty property : exportedClass.getProperties()) {
+                if (isMissing(jsonStructure, property.getKey(), exportedClass)) {
+                    continue;
+                }
 
-            for (AnnotatedElement annotatedElement : exportedComponents) {
-                String key;
-                Class<?> genericType = null;
+                property.set(instance, restoreObject(
+                        property.getType(),
+                        jsonStructure.getStructureMap().get(property.getKey()),
+                        property.getGenericType(),
+                        property.getDateFormat()
+                ));
+            }
+        } catch (JsonParseException exception) {
+            throw new RuntimeException(
+                    String.format("Impossible to create a new instance of %s", clazz.getName()),
+                    exception
+            );
+        }
 
-                Field field = (Field) annotatedElement;
-                if (field.getGenericType() instanceof ParameterizedType parameterizedType) {
-                    genericType = (Class<?>) parameterizedType.getActualTypeArguments()[0];
-                }
+        return clazz.cast(instance);
+    }
 
-                if (annotatedElement.isAnnotationPresent(PropertyName.class)) {
-                    key = annotatedElement.getAnnotation(PropertyName.class).value().replaceAll("[\"]", "'");
-                } else {
-                    key = field.getName();
-                }
+    /**
+     * Проверяет, отсутствует ли свойство в JSON-представлении объекта.
+     *
+     * @param jsonStructure JSON-представление объекта.
+     * @param key           ключ свойства.
+     * @param exportedClass описание класса объекта.
+     * @return true, если значение свойства отсутствует или было пропущено проекцией.
+     * @throws IllegalArgumentException если значение отсутствует, а политика класса
+     *                                  {@link UnknownPropertiesPolicy#FAIL}.
+     */
+    private static boolean isMissing(JsonStructure jsonStructure, String key, ExportedClass exportedClass) {
+        if (jsonStructure.getStructureMap().containsKey(key)) {
+            return false;
+        }
+        if (exportedClass.getExported().unknownPropertiesPolicy() == UnknownPropertiesPolicy.FAIL
+                && !jsonStructure.isSkipped(key)) {
+            throw new IllegalArgumentException();
+        }
+
+        return true;
+    }
+
+    /**
+     * Заполняет существующий объект класса значениями из его JSON-представления. Перезаписываются только поля,
+     * ключи которых присутствуют в JSON-представлении.
+     *
+     * @param instance      заполняемый объект класса, аннотированного @Exported.
+     * @param jsonStructure JSON-представление объекта.
+     */
+    private void restoreInto(Object instance, JsonStructure jsonStructure) {
+        if (retainIdentity) {
+            assert restoredObjects != null;
+            restoredObjects.put(jsonStructure, instance);
+        }
 
-                DateFormat dateFormat = null;
-                if (annotatedElement.isAnnotationPresent(DateFormat.class)) {
-                    dateFormat = annotatedElement.getAnnotation(DateFormat.class);
+        try {
+            for (ExportedProperty property : ExportedClass.of(instance.getClass()).getProperties()) {
+                JsonObject jsonObject = jsonStructure.getStructureMap().get(property.getKey());
+                if (jsonObject == null && !jsonStructure.getStructureMap().containsKey(property.getKey())) {
+                    continue;
                 }
 
-                if (!jsonStructure.getStructureMap().containsKey(key)) {
-                    if (exported.unknownPropertiesPolicy() == UnknownPropertiesPolicy.FAIL) {
-                        throw new IllegalArgumentException();
-                    } else {
-                        continue;
+                Class<?> type = property.getType();
+                Class<?> genericType = property.getGenericType();
+                DateFormat dateFormat = property.getDateFormat();
+                Object current = property.get(instance);
+
+                if (jsonObject instanceof JsonStructure nestedStructure && isReusable(current, type)) {
+                    restoreInto(current, nestedStructure);
+                } else if (jsonObject instanceof JsonCollection jsonCollection && current instanceof Collection<?>) {
+                    if (!refillCollection(current, jsonCollection, genericType, dateFormat)) {
+                        property.set(instance, restoreObject(type, jsonObject, genericType, dateFormat));
                     }
+                } else {
+                    property.set(instance, restoreObject(type, jsonObject, genericType, dateFormat));
                 }
-
-                Object value = restoreObject(
-                        field.getType(),
-                        jsonStructure.getStructureMap().get(key),
-                        genericType,
-                        dateFormat
-                );
-                field.set(instance, value);
             }
-
-            return clazz.cast(instance);
-        } catch (ReflectiveOperationException | JsonParseException exception) {
+        } catch (JsonParseException exception) {
             throw new RuntimeException(
-                    String.format("Impossible to create a new instance of %s", clazz.getName()),
+                    String.format("Impossible to fill an instance of %s", instance.getClass().getName()),
                     exception
             );
         }
     }
 
+    /**
+     * Проверяет, можно ли заполнить существующий объект на месте вместо создания нового.
+     *
+     * @param current   текущее значение поля.
+     * @param fieldType объявленный тип поля.
+     * @return true, если объект является изменяемым экземпляром класса, аннотированного @Exported.
+     */
+    static boolean isReusable(Object current, Class<?> fieldType) {
+        return current != null && fieldType.isInstance(current) && !current.getClass().isRecord()
+                && current.getClass().isAnnotationPresent(Exported.class);
+    }
+
+    /**
+     * Очищает существующую коллекцию и заполняет её элементами JSON-представления. Элементы списка, которые
+     * можно заполнить на месте, переиспользуются по позиции.
+     *
+     * @param current        текущее значение поля, являющееся коллекцией.
+     * @param jsonCollection JSON-представление коллекции.
+     * @param genericType    тип, которым параметризована коллекция.
+     * @param dateFormat     паттерн строкового представления Temporal типов.
+     * @return false, если коллекция не поддерживает изменение и должна быть заменена новой.
+     * @throws JsonParseException в случае, если не удалось сопоставить JSON-объект со структурой класса.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean refillCollection(Object current, JsonCollection jsonCollection, Class<?> genericType,
+                                     DateFormat dateFormat) throws JsonParseException {
+        Collection<Object> collection = (Collection<Object>) current;
+        Object[] previous = current instanceof List<?> ? collection.toArray() : new Object[0];
+
+        try {
+            collection.clear();
+        } catch (UnsupportedOperationException exception) {
+            return false;
+        }
+
+        if (isPositional(jsonCollection.collection, genericType)) {
+            restorePositionalElements(collection, jsonCollection.collection, ExportedClass.of(genericType));
+            return true;
+        }
+
+        int index = 0;
+        for (var item : jsonCollection.collection) {
+            Object element = index < previous.length ? previous[index] : null;
+            if (item instanceof JsonStructure structure && genericType != null && isReusable(element, genericType)) {
+                restoreInto(element, structure);
+                collection.add(element);
+            } else {
+                collection.add(restoreObject(genericType, (JsonObject) item, null, dateFormat));
+            }
+            index++;
+        }
+
+        return true;
+    }
+
     /**
      * Десериализует enum объект.
      *
@@ -615,7 +2100,7 @@ public class JsonMapper implements Mapper {
     private <T> T restoreTemporal(Class<T> clazz, JsonObject jsonObject, DateFormat dateFormat)
             throws JsonParseException {
         JsonTemporal jsonTemporal;
-        if (dateFormat.value() != null) {
+        if (dateFormat != null) {
             jsonTemporal = new JsonTemporal(jsonObject.value.toString(), dateFormat.value());
         } else {
             jsonTemporal = new JsonTemporal(jsonObject.value.toString());
@@ -656,48 +2141,4 @@ public class JsonMapper implements Mapper {
 
         return defaultConstructor;
     }
-
-    private Constructor<?> getRecordConstructor(Class<?> clazz) {
-        if (clazz.isRecord()) {
-            Constructor<?> constructor = clazz.getDeclaredConstructors()[0];
-
-            if (!constructor.trySetAccessible()) {
-                String exceptionMessage = String.format(
-                        "Deserializable record class %s must have an available constructor.",
-                        clazz.getName()
-                );
-                throw new IllegalArgumentException(exceptionMessage);
-            }
-
-            return constructor;
-        } else {
-            throw new IllegalArgumentException("Class must be a Record.");
-        }
-    }
-
-    /**
-     * Получает список экспортируемых полей класса или компонент record-класса.
-     *
-     * @param clazz представление класса сериализуемого/десериализуемого объекта в Java VM.
-     * @return список экспортируемых элементов, не помеченных аннотацией @Ignored.
-     */
-    private List<? extends AnnotatedElement> getExportedComponents(Class<?> clazz) {
-        List<? extends AnnotatedElement> exportedComponents;
-
-        if (clazz.isRecord()) {
-            exportedComponents = Arrays.stream(clazz.getRecordComponents())
-                    .filter(field -> !field.isAnnotationPresent(Ignored.class))
-                    .toList();
-        } else {
-            List<Field> exportedFields = Arrays.stream(clazz.getDeclaredFields())
-                    .filter(field -> !field.isAnnotationPresent(Ignored.class))
-                    .filter(field -> !Modifier.isStatic(field.getModifiers()))
-                    .filter(field -> !field.isSynthetic()).toList();
-            exportedFields.forEach(AccessibleObject::trySetAccessible);
-
-            exportedComponents = exportedFields;
-        }
-
-        return exportedComponents;
-    }
 }
@@ -0,0 +1,74 @@
+package ru.whiteroomlz.mapper;
+
+import jdk.jfr.*;
+
+/**
+ * Общая часть JFR-событий сериализатора. События выключены по умолчанию и включаются настройками записи JFR,
+ * например {@code -XX:StartFlightRecording:settings=profile,+ru.whiteroomlz.mapper.Parse#enabled=true}.
+ * Пока событие выключено, размер документа и количество элементов не вычисляются.
+ */
+@Category("JsonMapper")
+@Enabled(false)
+@StackTrace(false)
+abstract class JsonMapperEvent extends Event {
+    @Label("Root Class")
+    Class<?> rootClass;
+
+    @Label("Retain Identity")
+    boolean retainIdentity;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Elements")
+    @Description("The number of JSON values in the document, including nested ones.")
+    long elements;
+
+    /**
+     * Завершает событие и записывает его, если оно включено и превысило порог длительности.
+     *
+     * @param rootClass      класс корневого объекта документа.
+     * @param retainIdentity сохраняет ли сериализатор идентичность объектов.
+     * @param root           корневой объект документа.
+     * @param document       строковое представление документа; его размер записывается в кодировке UTF-8.
+     */
+    final void complete(Class<?> rootClass, boolean retainIdentity, JsonObject root, CharSequence document) {
+        end();
+        if (shouldCommit()) {
+            this.rootClass = rootClass;
+            this.retainIdentity = retainIdentity;
+            this.bytes = JsonMapper.utf8Length(document);
+            this.elements = countElements(root);
+            commit();
+        }
+    }
+
+    /**
+     * @return true, если включено хотя бы одно событие сериализатора, записывающее количество элементов.
+     */
+    static boolean isSerializationRecorded() {
+        return EventType.getEventType(JsonSerializeEvent.class).isEnabled()
+                || EventType.getEventType(JsonFlushEvent.class).isEnabled();
+    }
+
+    /**
+     * @param jsonObject JSON объект; может быть null.
+     * @return количество JSON значений в объекте, включая вложенные.
+     */
+    static long countElements(JsonObject jsonObject) {
+        long count = 1;
+        if (jsonObject instanceof JsonStructure structure) {
+            for (JsonObject value : structure.getStructureMap().values()) {
+                count += countElements(value);
+            }
+        } else if (jsonObject instanceof JsonCollection collection) {
+            count += collection.renderedElements;
+            for (Object item : collection.collection) {
+                count += countElements((JsonObject) item);
+            }
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,157 @@
+package ru.whiteroomlz.mapper;
+
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Реестр статистики сериализации и десериализации по корневым классам документов. Реестр подключается к
+ * сериализатору методом {@link JsonMapper#setStatistics(JsonMapperStatistics)} и может разделяться несколькими
+ * сериализаторами и потоками.
+ * <p>
+ * После вызова {@link #registerMBeans(MBeanServer)} статистика каждого класса, в том числе впервые встреченного
+ * позже, публикуется как MXBean с именем
+ * {@code ru.whiteroomlz.mapper:type=ClassStatistics,mapper="<name>",class="<полное имя класса>"}.
+ * Если MXBean с таким именем уже зарегистрирован (например, реестром с тем же именем или одноимённым классом
+ * другого загрузчика), статистика класса продолжает собираться, но не публикуется: ошибка мониторинга не
+ * должна прерывать сериализацию.
+ * <p>
+ * Пример вызова:
+ *
+ * <pre>
+ * JsonMapperStatistics statistics = new JsonMapperStatistics("orders");
+ * statistics.registerMBeans();
+ * mapper.setStatistics(statistics);
+ * </pre>
+ */
+public final class JsonMapperStatistics {
+    private static final String DOMAIN = "ru.whiteroomlz.mapper";
+
+    private final String name;
+    private final ConcurrentHashMap<Class<?>, JsonClassStatistics> statistics = new ConcurrentHashMap<>();
+    private volatile MBeanServer server;
+
+    /**
+     * Статистика классов, MXBean'ы которых зарегистрированы этим реестром. Изменяется под монитором реестра.
+     */
+    private final Set<JsonClassStatistics> published = new HashSet<>();
+
+    /**
+     * @param name имя реестра, различающее MXBean'ы нескольких реестров в одном MBeanServer.
+     */
+    public JsonMapperStatistics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param clazz корневой класс документов.
+     * @return статистика класса или null, если класс ещё не встречался.
+     */
+    public JsonClassStatisticsMXBean get(Class<?> clazz) {
+        return statistics.get(clazz);
+    }
+
+    /**
+     * Публикует статистику в платформенном MBeanServer.
+     *
+     * @see #registerMBeans(MBeanServer)
+     */
+    public void registerMBeans() {
+        registerMBeans(ManagementFactory.getPlatformMBeanServer());
+    }
+
+    /**
+     * Публикует статистику уже встреченных классов и всех классов, которые встретятся позже.
+     *
+     * @param server MBeanServer, в котором регистрируются MXBean'ы.
+     * @throws IllegalStateException если реестр уже опубликован.
+     */
+    public synchronized void registerMBeans(MBeanServer server) {
+        if (this.server != null) {
+            throw new IllegalStateException("The statistics are already registered.");
+        }
+
+        this.server = server;
+        statistics.values().forEach(classStatistics -> register(server, classStatistics));
+    }
+
+    /**
+     * Снимает с публикации все MXBean'ы реестра. Счётчики продолжают обновляться.
+     */
+    public synchronized void unregisterMBeans() {
+        MBeanServer registeredServer = server;
+        if (registeredServer == null) {
+            return;
+        }
+
+        server = null;
+        for (JsonClassStatistics classStatistics : published) {
+            try {
+                registeredServer.unregisterMBean(getObjectName(classStatistics));
+            } catch (InstanceNotFoundException ignored) {
+                // MXBean уже снят с публикации извне.
+            } catch (MBeanRegistrationException exception) {
+                throw new IllegalStateException("Impossible to unregister the statistics MXBean.", exception);
+            }
+        }
+        published.clear();
+    }
+
+    void recordSerialization(Class<?> clazz, long nanos, long bytes) {
+        getOrCreate(clazz).recordSerialization(nanos, bytes);
+    }
+
+    void recordDeserialization(Class<?> clazz, long nanos, long bytes) {
+        getOrCreate(clazz).recordDeserialization(nanos, bytes);
+    }
+
+    void recordFailure(Class<?> clazz, Throwable throwable) {
+        getOrCreate(clazz).recordFailure(throwable);
+    }
+
+    private JsonClassStatistics getOrCreate(Class<?> clazz) {
+        JsonClassStatistics classStatistics = statistics.get(clazz);
+        if (classStatistics != null) {
+            return classStatistics;
+        }
+
+        synchronized (this) {
+            return statistics.computeIfAbsent(clazz, key -> {
+                JsonClassStatistics created = new JsonClassStatistics(key);
+                if (server != null) {
+                    register(server, created);
+                }
+
+                return created;
+            });
+        }
+    }
+
+    /**
+     * Регистрирует MXBean класса. Вызывается под монитором реестра, в том числе из вызовов сериализатора,
+     * поэтому неудачная регистрация не приводит к исключению: MXBean класса просто не публикуется.
+     */
+    private void register(MBeanServer server, JsonClassStatistics classStatistics) {
+        try {
+            server.registerMBean(classStatistics, getObjectName(classStatistics));
+            published.add(classStatistics);
+        } catch (InstanceAlreadyExistsException | MBeanRegistrationException | NotCompliantMBeanException ignored) {
+            // Имя занято другим MXBean'ом либо сервер отклонил регистрацию.
+        }
+    }
+
+    private ObjectName getObjectName(JsonClassStatistics classStatistics) {
+        try {
+            return new ObjectName(String.format("%s:type=ClassStatistics,mapper=%s,class=%s", DOMAIN,
+                    ObjectName.quote(name), ObjectName.quote(classStatistics.getClassName())));
+        } catch (MalformedObjectNameException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
@@ -8,7 +8,7 @@ import java.text.ParseException;
  */
 final class JsonNumber extends JsonPrimitive {
     public JsonNumber(Number value) {
-        this.value = value;
+        super(value);
     }
 
     /**
@@ -23,12 +23,25 @@ final class JsonNumber extends JsonPrimitive {
      * @throws JsonParseException если не удалось обработать переданный фрагмент.
      */
     public JsonNumber(String jsonDocument) throws JsonParseException {
+        this(jsonDocument, NumberFormat.getInstance());
+    }
+
+    /**
+     * @param jsonDocument фрагмент JSON документа, содержащий примитив, представимый в виде JSON-Number.
+     * @param numberFormat форматтер, которым разбираются целые числа.
+     * @throws JsonParseException если не удалось обработать переданный фрагмент.
+     */
+    JsonNumber(String jsonDocument, NumberFormat numberFormat) throws JsonParseException {
+        super(parse(jsonDocument, numberFormat));
+    }
+
+    private static Number parse(String jsonDocument, NumberFormat numberFormat) throws JsonParseException {
         try {
             // Предполагается, что разделителем является точка.
             if (jsonDocument.contains(".")) {
-                value = Double.parseDouble(jsonDocument);
+                return Double.parseDouble(jsonDocument);
             } else {
-                value = NumberFormat.getInstance().parse(jsonDocument);
+                return numberFormat.parse(jsonDocument);
             }
         } catch (ParseException exception) {
             String exceptionMessage = String.format(
@@ -6,18 +6,36 @@ import java.util.Objects;
  * JSON-представление любых объектов, наследующихся от Object.
  */
 public class JsonObject {
-    protected Object value;
+    /**
+     * Значение объекта. Не изменяется после создания, поэтому JSON-представления можно разделять между
+     * потоками и использовать как ключи.
+     */
+    protected final Object value;
 
     JsonObject(Object value) {
         this.value = value;
     }
 
     protected JsonObject() {
+        value = null;
     }
 
     @Override
     public String toString() {
-        return "\"" + value + "\"";
+        StringBuilder builder = new StringBuilder();
+        appendTo(builder);
+
+        return builder.toString();
+    }
+
+    /**
+     * Дописывает строковое представление объекта в переданный буфер. Результат совпадает с результатом toString,
+     * но не требует создания промежуточных строк для вложенных объектов.
+     *
+     * @param builder буфер, в который записывается представление.
+     */
+    void appendTo(StringBuilder builder) {
+        builder.append('"').append(value).append('"');
     }
 
     @Override
@@ -35,6 +53,6 @@ public class JsonObject {
 
     @Override
     public int hashCode() {
-        return Objects.hash(value);
+        return Objects.hashCode(value);
     }
 }
@@ -0,0 +1,12 @@
+package ru.whiteroomlz.mapper;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Разбор строкового представления документа в дерево JSON объектов.
+ */
+@Name("ru.whiteroomlz.mapper.Parse")
+@Label("JSON Parse")
+final class JsonParseEvent extends JsonMapperEvent {
+}
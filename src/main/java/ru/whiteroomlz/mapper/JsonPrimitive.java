@@ -12,8 +12,8 @@ public class JsonPrimitive extends JsonObject {
     }
 
     @Override
-    public String toString() {
-        return value.toString();
+    void appendTo(StringBuilder builder) {
+        builder.append(value);
     }
 
     @Override
@@ -0,0 +1,123 @@
+package ru.whiteroomlz.mapper;
+
+import ru.hse.homework4.Exported;
+import ru.hse.homework4.UnknownPropertiesPolicy;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Набор ключей, значения которых следует разбирать. Значения остальных ключей пропускаются при разборе
+ * структуры только по подсчёту скобок, без создания JSON объектов.
+ * <p>
+ * Проекция применяется к структурам; элементы коллекции структур разбираются с той же проекцией, что и сама
+ * коллекция. Значение null вместо проекции означает, что разбирается всё поддерево.
+ */
+final class JsonProjection {
+    private static final ClassValue<JsonProjection> CLASS_PROJECTIONS = new ClassValue<>() {
+        @Override
+        protected JsonProjection computeValue(Class<?> clazz) {
+            return build(clazz, new HashMap<>());
+        }
+    };
+
+    /**
+     * Проекции вложенных значений по ключам; значение null означает, что поддерево разбирается полностью.
+     */
+    private final Map<String, JsonProjection> children = new HashMap<>();
+
+    private JsonProjection() {
+    }
+
+    /**
+     * Строит проекцию по путям вида {@code "name"} или {@code "children.age"}: путь выбирает значение по ключу,
+     * а вложенный путь - значения внутри структуры или внутри каждой структуры коллекции.
+     *
+     * @param paths пути к выбираемым значениям, ключи разделяются точкой.
+     * @return проекция, содержащая все переданные пути.
+     */
+    static JsonProjection of(Set<String> paths) {
+        JsonProjection root = new JsonProjection();
+
+        for (String path : paths) {
+            JsonProjection node = root;
+            String[] keys = path.split("\\.");
+            for (int index = 0; index < keys.length && node != null; index++) {
+                if (index == keys.length - 1) {
+                    node.children.put(keys[index], null);
+                } else if (node.children.containsKey(keys[index]) && node.children.get(keys[index]) == null) {
+                    // Поддерево уже выбрано полностью более коротким путём.
+                    node = null;
+                } else {
+                    node = node.children.computeIfAbsent(keys[index], key -> new JsonProjection());
+                }
+            }
+        }
+
+        return root;
+    }
+
+    /**
+     * @param clazz класс, аннотированный @Exported.
+     * @return true, если лишние ключи документов класса пропускаются без разбора: класс объявлен с политикой
+     * {@link UnknownPropertiesPolicy#IGNORE}.
+     */
+    static boolean isProjectable(Class<?> clazz) {
+        return ExportedClass.of(clazz).getExported().unknownPropertiesPolicy() == UnknownPropertiesPolicy.IGNORE;
+    }
+
+    /**
+     * Возвращает проекцию, содержащую только ключи свойств класса и вложенных классов с политикой
+     * {@link UnknownPropertiesPolicy#IGNORE}. Ключи документа, не соответствующие ни одному свойству, всё равно
+     * не используются при восстановлении объекта, поэтому их значения можно не разбирать. Значения вложенных
+     * классов с другой политикой разбираются полностью.
+     *
+     * @param clazz класс, аннотированный @Exported, для которого {@link #isProjectable(Class)} вернул true.
+     * @return проекция класса.
+     */
+    static JsonProjection of(Class<?> clazz) {
+        return CLASS_PROJECTIONS.get(clazz);
+    }
+
+    private static JsonProjection build(Class<?> clazz, Map<Class<?>, JsonProjection> built) {
+        JsonProjection existing = built.get(clazz);
+        if (existing != null) {
+            return existing;
+        }
+
+        JsonProjection projection = new JsonProjection();
+        built.put(clazz, projection);
+
+        for (ExportedProperty property : ExportedClass.of(clazz).getProperties()) {
+            Class<?> nestedType = Collection.class.isAssignableFrom(property.getType())
+                    ? property.getGenericType()
+                    : property.getType();
+
+            if (nestedType != null && nestedType.isAnnotationPresent(Exported.class) && isProjectable(nestedType)) {
+                projection.children.put(property.getKey(), build(nestedType, built));
+            } else {
+                projection.children.put(property.getKey(), null);
+            }
+        }
+
+        return projection;
+    }
+
+    /**
+     * @param key ключ структуры.
+     * @return true, если значение по ключу следует разбирать.
+     */
+    boolean includes(String key) {
+        return children.containsKey(key);
+    }
+
+    /**
+     * @param key ключ структуры, для которого {@link #includes(String)} вернул true.
+     * @return проекция значения по ключу либо null, если значение разбирается полностью.
+     */
+    JsonProjection child(String key) {
+        return children.get(key);
+    }
+}
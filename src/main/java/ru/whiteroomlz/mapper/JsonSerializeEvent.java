@@ -0,0 +1,12 @@
+package ru.whiteroomlz.mapper;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Построение дерева JSON объектов и его строкового представления, включая форматирование Temporal значений.
+ */
+@Name("ru.whiteroomlz.mapper.Serialize")
+@Label("JSON Serialize")
+final class JsonSerializeEvent extends JsonMapperEvent {
+}
@@ -0,0 +1,179 @@
+package ru.whiteroomlz.mapper;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Кэш строковых представлений неизменяемых объектов. Кэш подключается к сериализатору методом
+ * {@link JsonMapper#setSerializedCache(JsonSerializedCache)}; при повторной записи объекта, уже встречавшегося
+ * сериализатору, его представление дописывается в документ целиком, без обхода свойств.
+ * <p>
+ * Кэшируются только объекты классов, экземпляры которых не изменяются после создания: record-классов, все
+ * экспортируемые свойства которых имеют неизменяемые типы (примитивы, их обёртки, строки, перечисления,
+ * Temporal типы и такие же record-классы), и классов, аннотированных @Immutable. Объекты record-классов
+ * сопоставляются по равенству, остальные объекты - по идентичности через слабые ссылки, поэтому кэш не
+ * удерживает их от сборки мусора.
+ * <p>
+ * Количество записей ограничено; при переполнении вытесняется запись, к которой дольше всего не обращались.
+ * Кэш потокобезопасен и может разделяться сериализаторами с одинаковыми настройками.
+ * <p>
+ * Пример вызова:
+ *
+ * <pre>
+ * JsonSerializedCache cache = new JsonSerializedCache(10_000);
+ * mapper.setSerializedCache(cache);
+ * </pre>
+ */
+public final class JsonSerializedCache {
+    private final int maximumSize;
+    private final Map<Object, JsonStructure> entries;
+    private final ReferenceQueue<Object> collectedKeys = new ReferenceQueue<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maximumSize наибольшее количество запоминаемых представлений.
+     */
+    public JsonSerializedCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size must be positive.");
+        }
+
+        this.maximumSize = maximumSize;
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, JsonStructure> eldest) {
+                if (size() > JsonSerializedCache.this.maximumSize) {
+                    evictions.increment();
+                    return true;
+                }
+
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @param clazz класс сериализуемого объекта.
+     * @return true, если представления объектов класса могут кэшироваться.
+     */
+    static boolean isCacheable(Class<?> clazz) {
+        return ExportedClass.of(clazz).isImmutable();
+    }
+
+    /**
+     * @param object объект класса, для которого {@link #isCacheable(Class)} вернул true.
+     * @return запомненное представление объекта либо null.
+     */
+    JsonStructure get(Object object) {
+        Object key = object.getClass().isRecord() ? object : new IdentityKey(object, null);
+
+        JsonStructure jsonStructure;
+        synchronized (entries) {
+            expungeCollectedKeys();
+            jsonStructure = entries.get(key);
+        }
+
+        (jsonStructure == null ? misses : hits).increment();
+        return jsonStructure;
+    }
+
+    /**
+     * Запоминает представление объекта вместе с его строковым представлением.
+     *
+     * @param object        объект класса, для которого {@link #isCacheable(Class)} вернул true.
+     * @param jsonStructure представление объекта.
+     */
+    void put(Object object, JsonStructure jsonStructure) {
+        jsonStructure.memoizeRendering();
+
+        Object key = object.getClass().isRecord() ? object : new IdentityKey(object, collectedKeys);
+        synchronized (entries) {
+            expungeCollectedKeys();
+            entries.put(key, jsonStructure);
+        }
+    }
+
+    private void expungeCollectedKeys() {
+        Reference<?> collected;
+        while ((collected = collectedKeys.poll()) != null) {
+            entries.remove(collected);
+        }
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * @return текущее количество записей, включая записи объектов, уже собранных сборщиком мусора.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return количество записей объектов, представления которых были найдены в кэше.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return количество записей объектов, представления которых пришлось построить.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return количество записей, вытесненных при переполнении.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Удаляет все записи. Счётчики не сбрасываются.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Ключ, сравнивающий объекты по идентичности и не удерживающий их от сборки мусора.
+     */
+    private static final class IdentityKey extends WeakReference<Object> {
+        private final int hash;
+
+        IdentityKey(Object referent, ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            hash = System.identityHashCode(referent);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            Object referent = get();
+            return referent != null && obj instanceof IdentityKey that && referent == that.get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -5,6 +5,6 @@ package ru.whiteroomlz.mapper;
  */
 public final class JsonString extends JsonObject {
     public JsonString(String value) {
-        this.value = value;
+        super(value);
     }
 }
@@ -0,0 +1,216 @@
+package ru.whiteroomlz.mapper;
+
+import java.util.*;
+
+/**
+ * Таблица строковых значений документа, записанного со ссылками на повторяющиеся строки. Первое вхождение
+ * строки записывается как обычно и занимает ячейку таблицы, а последующие вхождения записываются ссылкой
+ * {@code #номер} на эту ячейку. Когда таблица заполнена, новая строка занимает ячейку строки, к которой дольше
+ * всего не обращались.
+ * <p>
+ * Ячейки не записываются в документ: сериализатор и читатель выполняют одинаковые операции над таблицей в
+ * порядке следования значений в документе и поэтому назначают строкам одинаковые ячейки. Размер таблицы
+ * записывается первым ключом корневой структуры {@value #SIZE_KEY}. В таблицу попадают только строки длиной
+ * от {@value #MIN_LENGTH} до {@value #MAX_LENGTH} символов: более короткие строки не длиннее ссылки, а более
+ * длинные редко повторяются.
+ * <p>
+ * Экземпляр используется для одного документа и не является потокобезопасным.
+ */
+final class JsonStringReferences {
+    static final String SIZE_KEY = "String table";
+    static final int MIN_LENGTH = 4;
+    static final int MAX_LENGTH = 256;
+    static final int MAX_SIZE = 1 << 16;
+
+    private static final String DOCUMENT_PREFIX = "{\"" + SIZE_KEY + "\":";
+
+    private final String[] strings;
+
+    /**
+     * Номера ячеек строк таблицы в порядке обращения к ним, начиная с самого давнего.
+     */
+    private final LinkedHashMap<String, Integer> slots = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * @param size количество ячеек таблицы.
+     */
+    JsonStringReferences(int size) {
+        if (size <= 0 || size > MAX_SIZE) {
+            throw new IllegalArgumentException(
+                    String.format("The string reference table size must be between 1 and %d.", MAX_SIZE));
+        }
+
+        strings = new String[size];
+    }
+
+    /**
+     * Определяет, записан ли документ со ссылками на строки, и создаёт таблицу для его чтения.
+     *
+     * @param document JSON документ.
+     * @return пустая таблица размера, указанного в документе, либо null, если документ записан без ссылок.
+     * @throws JsonParseException если размер таблицы указан некорректно.
+     */
+    static JsonStringReferences forDocument(String document) throws JsonParseException {
+        if (!document.startsWith(DOCUMENT_PREFIX)) {
+            return null;
+        }
+
+        int end = DOCUMENT_PREFIX.length();
+        while (end < document.length() && Character.isDigit(document.charAt(end))) {
+            end++;
+        }
+
+        try {
+            return new JsonStringReferences(Integer.parseInt(document, DOCUMENT_PREFIX.length(), end, 10));
+        } catch (IllegalArgumentException exception) {
+            throw new JsonParseException("Incorrect size of the string reference table.", DOCUMENT_PREFIX.length());
+        }
+    }
+
+    /**
+     * @param value фрагмент документа, не заключённый в кавычки.
+     * @return true, если фрагмент является ссылкой на ячейку таблицы.
+     */
+    static boolean isReference(String value) {
+        if (value.length() < 2 || value.charAt(0) != '#') {
+            return false;
+        }
+        for (int index = 1; index < value.length(); index++) {
+            if (!Character.isDigit(value.charAt(index))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isTabled(String value) {
+        return value.length() >= MIN_LENGTH && value.length() <= MAX_LENGTH;
+    }
+
+    /**
+     * Записывает документ, заменяя повторные вхождения строковых значений ссылками, и добавляет размер таблицы
+     * первым ключом. Представление обходится при записи, новые JSON объекты не создаются.
+     * <p>
+     * Ячейки таблицы зависят от всех строк, записанных раньше, поэтому документ записывается последовательно:
+     * запомненные представления структур ({@link JsonSerializedCache}) не дописываются целиком, а обходятся,
+     * а коллекции не должны содержать частей, записанных параллельно.
+     *
+     * @param root    JSON-представление корневого объекта.
+     * @param builder буфер, в который записывается документ.
+     */
+    void write(JsonStructure root, StringBuilder builder) {
+        if (root.getStructureMap().containsKey(SIZE_KEY)) {
+            throw new IllegalArgumentException(String.format("PropertyName \"%s\" must be unused.", SIZE_KEY));
+        }
+
+        builder.append(DOCUMENT_PREFIX).append(strings.length);
+        for (Map.Entry<String, JsonObject> entry : root.getStructureMap().entrySet()) {
+            builder.append(",\"").append(entry.getKey()).append("\":");
+            write(entry.getValue(), builder);
+        }
+        builder.append('}');
+    }
+
+    private void write(JsonObject jsonObject, StringBuilder builder) {
+        if (jsonObject == null) {
+            builder.append("null");
+        } else if (jsonObject instanceof JsonStructure structure) {
+            builder.append('{');
+
+            boolean first = true;
+            for (Map.Entry<String, JsonObject> entry : structure.getStructureMap().entrySet()) {
+                if (!first) {
+                    builder.append(',');
+                }
+                first = false;
+
+                builder.append('"').append(entry.getKey()).append("\":");
+                write(entry.getValue(), builder);
+            }
+
+            builder.append('}');
+        } else if (jsonObject instanceof JsonCollection collection) {
+            if (collection.isRendered()) {
+                throw new IllegalStateException("A collection rendered in parallel cannot be written with references.");
+            }
+
+            builder.append('[');
+            for (int index = 0; index < collection.collection.size(); index++) {
+                if (index > 0) {
+                    builder.append(',');
+                }
+                write((JsonObject) collection.collection.get(index), builder);
+            }
+            builder.append(']');
+        } else {
+            writeValue(jsonObject, builder);
+        }
+    }
+
+    private void writeValue(JsonObject jsonObject, StringBuilder builder) {
+        int start = builder.length();
+        jsonObject.appendTo(builder);
+
+        // Строковыми считаются значения, заключённые в кавычки, так же, как при разборе.
+        int length = builder.length() - start - 2;
+        if (length < MIN_LENGTH || length > MAX_LENGTH || builder.charAt(start) != '"'
+                || builder.charAt(builder.length() - 1) != '"') {
+            return;
+        }
+
+        String value = builder.substring(start + 1, builder.length() - 1);
+        Integer slot = slots.get(value);
+        if (slot != null) {
+            builder.setLength(start);
+            builder.append('#').append(slot.intValue());
+        } else {
+            add(value);
+        }
+    }
+
+    /**
+     * Добавляет в таблицу строковое значение, прочитанное из документа.
+     *
+     * @param value значение без кавычек.
+     */
+    void define(String value) {
+        if (isTabled(value) && slots.get(value) == null) {
+            add(value);
+        }
+    }
+
+    /**
+     * @param reference ссылка вида {@code #номер}.
+     * @return строка, занимающая ячейку.
+     * @throws JsonParseException если ячейка не занята.
+     */
+    String resolve(String reference) throws JsonParseException {
+        int slot;
+        try {
+            slot = Integer.parseInt(reference, 1, reference.length(), 10);
+        } catch (NumberFormatException exception) {
+            slot = -1;
+        }
+        if (slot < 0 || slot >= strings.length || strings[slot] == null) {
+            throw new JsonParseException(String.format("The string reference %s is undefined.", reference));
+        }
+
+        slots.get(strings[slot]);
+        return strings[slot];
+    }
+
+    private void add(String value) {
+        int slot;
+        if (slots.size() < strings.length) {
+            slot = slots.size();
+        } else {
+            Iterator<Map.Entry<String, Integer>> eldest = slots.entrySet().iterator();
+            slot = eldest.next().getValue();
+            eldest.remove();
+        }
+
+        slots.put(value, slot);
+        strings[slot] = value;
+    }
+}
@@ -0,0 +1,72 @@
+package ru.whiteroomlz.mapper;
+
+/**
+ * Таблица строк ограниченного размера, возвращающая один экземпляр для одинаковых коротких строк документа.
+ * Строка ищется по символам документа до выделения памяти, поэтому повторяющиеся ключи и значения не создают
+ * новых объектов String.
+ * <p>
+ * Таблица устроена как массив с прямой адресацией: строка занимает ячейку, номер которой определяется её
+ * хеш-кодом, и вытесняет прежнюю строку этой ячейки. Обращения к массиву не синхронизируются: String
+ * неизменяема и безопасно публикуется через final поля, поэтому при гонке поток в худшем случае создаёт
+ * новую строку вместо найденной. Таблицу можно разделять между потоками.
+ */
+final class JsonStringTable {
+    /**
+     * Наибольшая длина строки, помещаемой в таблицу. Длинные строки редко повторяются, а их сравнение
+     * обходится дороже создания.
+     */
+    static final int MAX_LENGTH = 64;
+
+    /**
+     * Наибольшее количество ячеек таблицы.
+     */
+    static final int MAX_CAPACITY = 1 << 20;
+
+    private final String[] strings;
+    private final int mask;
+
+    /**
+     * @param capacity количество ячеек; округляется вверх до степени двойки.
+     */
+    JsonStringTable(int capacity) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException(
+                    String.format("The string table capacity must be between 1 and %d.", MAX_CAPACITY));
+        }
+
+        strings = new String[1 << (32 - Integer.numberOfLeadingZeros(capacity - 1))];
+        mask = strings.length - 1;
+    }
+
+    int capacity() {
+        return strings.length;
+    }
+
+    /**
+     * @param document документ.
+     * @param from     начало строки в документе.
+     * @param to       конец строки в документе.
+     * @return строка, равная {@code document.substring(from, to)}; для коротких строк - экземпляр из таблицы.
+     */
+    String get(String document, int from, int to) {
+        int length = to - from;
+        if (length > MAX_LENGTH) {
+            return document.substring(from, to);
+        }
+
+        int hash = 0;
+        for (int index = from; index < to; index++) {
+            hash = 31 * hash + document.charAt(index);
+        }
+        int slot = (hash ^ (hash >>> 16)) & mask;
+
+        String candidate = strings[slot];
+        if (candidate != null && candidate.length() == length && document.regionMatches(from, candidate, 0, length)) {
+            return candidate;
+        }
+
+        String string = document.substring(from, to);
+        strings[slot] = string;
+        return string;
+    }
+}
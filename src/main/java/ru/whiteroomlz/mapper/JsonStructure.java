@@ -1,17 +1,38 @@
 package ru.whiteroomlz.mapper;
 
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Класс, предназначенный для хранения классов, аннотированных @Exported.
+ * <p>
+ * Структура неизменяема после создания, поэтому хеш-код вычисляется один раз при первом обращении и запоминается.
  */
 public final class JsonStructure extends JsonObject {
     private final Map<String, JsonObject> structureMap;
+    private final Map<String, JsonObject> unmodifiableStructureMap;
 
+    /**
+     * Запомненный хеш-код и признак того, что он равен нулю. Поля записываются независимо друг от друга, поэтому
+     * структуру можно разделять между потоками без синхронизации, как и String.
+     */
+    private int hash;
+    private boolean hashIsZero;
+
+    /**
+     * Проекция, с которой разбиралась структура; null, если разбирались все значения.
+     */
+    private final JsonProjection projection;
+
+    /**
+     * Запомненное строковое представление структуры; null, если представление не запоминалось.
+     */
+    private String rendered;
+
+    /**
+     * @return неизменяемое представление элементов структуры.
+     */
     public Map<String, JsonObject> getStructureMap() {
-        return structureMap;
+        return unmodifiableStructureMap;
     }
 
     public JsonStructure(List<String> keys, List<? extends JsonObject> values) {
@@ -21,11 +42,22 @@ public final class JsonStructure extends JsonObject {
         }
 
         structureMap = new LinkedHashMap<>();
+        unmodifiableStructureMap = Collections.unmodifiableMap(structureMap);
+        projection = null;
         for (int item_index = 0; item_index < pairs_count; item_index++) {
             structureMap.put(keys.get(item_index), values.get(item_index));
         }
     }
 
+    /**
+     * @param structureMap ленивые элементы структуры, разбираемые при первом обращении.
+     */
+    JsonStructure(LazyJsonTree.StructureMap structureMap) {
+        this.structureMap = structureMap;
+        unmodifiableStructureMap = Collections.unmodifiableMap(structureMap);
+        projection = null;
+    }
+
     /**
      * <p>
      * Пример вызова:
@@ -39,6 +71,30 @@ public final class JsonStructure extends JsonObject {
      * @throws JsonParseException если не удалось обработать переданный фрагмент.
      */
     JsonStructure(String jsonDocument) throws JsonParseException {
+        this(jsonDocument, new JsonBufferPool());
+    }
+
+    /**
+     * @param jsonDocument фрагмент JSON документа, содержащий строковый объект, представимый в виде JSON-Structure.
+     *                     Должен быть обрамлён фигурными скобками '{', '}'.
+     * @param pool         набор вспомогательных буферов, используемых при разборе.
+     * @throws JsonParseException если не удалось обработать переданный фрагмент.
+     */
+    JsonStructure(String jsonDocument, JsonBufferPool pool) throws JsonParseException {
+        this(jsonDocument, pool, null);
+    }
+
+    /**
+     * @param jsonDocument фрагмент JSON документа, содержащий строковый объект, представимый в виде JSON-Structure.
+     *                     Должен быть обрамлён фигурными скобками '{', '}'.
+     * @param pool         набор вспомогательных буферов, используемых при разборе.
+     * @param projection   ключи, значения которых следует разбирать; null, если следует разбирать все значения.
+     *                     Значения остальных ключей пропускаются без создания JSON объектов.
+     * @throws JsonParseException если не удалось обработать переданный фрагмент.
+     */
+    JsonStructure(String jsonDocument, JsonBufferPool pool, JsonProjection projection) throws JsonParseException {
+        this.projection = projection;
+
         // Проверка на принадлежность к типу JsonStructure.
         if (jsonDocument.startsWith("{") && jsonDocument.endsWith("}")) {
             jsonDocument = jsonDocument.substring(1, jsonDocument.length() - 1);
@@ -47,29 +103,30 @@ public final class JsonStructure extends JsonObject {
         }
 
         structureMap = new LinkedHashMap<>();
+        unmodifiableStructureMap = Collections.unmodifiableMap(structureMap);
 
         if (jsonDocument.length() == 0) {
             return;
         }
 
         // С помощью стека проверяется корректность скобочной последовательности.
-        Stack<Character> stack = new Stack<>();
+        StringBuilder stack = pool.brackets();
 
         char bracket;
         int sequenceStart = 0, sequenceEnd;
         for (int char_index = 0; char_index < jsonDocument.length(); char_index++) {
             switch (jsonDocument.charAt(char_index)) {
                 case '{':
-                    stack.push('{');
+                    stack.append('{');
                     break;
                 case '[':
-                    stack.push('[');
+                    stack.append('[');
                     break;
                 case ']':
-                    if (stack.empty()) {
+                    if (stack.isEmpty()) {
                         throw new IncorrectStructureException("Unexpected bracket: ]", char_index);
                     }
-                    if ((bracket = stack.pop()) != '[') {
+                    if ((bracket = JsonBufferPool.popBracket(stack)) != '[') {
                         String exceptionMessage = String.format(
                                 IncorrectStructureException.BRACKETS_CLOSING_ORDER_EXCEPTION_MESSAGE,
                                 bracket
@@ -78,10 +135,10 @@ public final class JsonStructure extends JsonObject {
                     }
                     break;
                 case '}':
-                    if (stack.empty()) {
+                    if (stack.isEmpty()) {
                         throw new IncorrectStructureException("Unexpected bracket: }", char_index);
                     }
-                    if ((bracket = stack.pop()) != '{') {
+                    if ((bracket = JsonBufferPool.popBracket(stack)) != '{') {
                         String exceptionMessage = String.format(
                                 IncorrectStructureException.BRACKETS_CLOSING_ORDER_EXCEPTION_MESSAGE,
                                 bracket
@@ -92,62 +149,116 @@ public final class JsonStructure extends JsonObject {
                 // Разделитель элементов в последовательном представлении коллекции.
                 // Происходит обработка выделенного фрагмента.
                 case ',':
-                    if (stack.empty()) {
+                    if (stack.isEmpty()) {
                         sequenceEnd = char_index;
-                        addKeyValuePair(jsonDocument.substring(sequenceStart, sequenceEnd));
+                        addKeyValuePair(jsonDocument, sequenceStart, sequenceEnd, pool);
                         sequenceStart = char_index + 1;
                     }
                     break;
             }
         }
 
-        if (stack.empty()) {
-            addKeyValuePair(jsonDocument.substring(sequenceStart));
+        if (stack.isEmpty()) {
+            addKeyValuePair(jsonDocument, sequenceStart, jsonDocument.length(), pool);
         } else {
             String exceptionMessage = String.format(
                     IncorrectStructureException.NOT_ALL_BRACKETS_CLOSED_EXCEPTION_MESSAGE,
-                    stack.peek()
+                    stack.charAt(stack.length() - 1)
             );
             throw new IncorrectStructureException(exceptionMessage);
         }
     }
 
     /**
-     * Из выделенного фрагмента извлекается пара ключ-значение и включается в поле collection.
+     * Из выделенного фрагмента извлекается пара ключ-значение вида "ключ":значение и включается в поле collection.
+     * Значения ключей, не входящих в проекцию, не разбираются.
      *
-     * @param substring выделенный фрагмент.
+     * @param jsonDocument содержимое структуры.
+     * @param start        индекс начала фрагмента.
+     * @param end          индекс, следующий за концом фрагмента.
+     * @param pool         набор вспомогательных буферов, используемых при разборе.
      * @throws JsonParseException если не удалось обработать переданный фрагмент.
      */
-    private void addKeyValuePair(String substring) throws JsonParseException {
-        // Все пары ключ-значение хранятся в виде паттерна: "ключ":значение.
-        Pattern keyPattern = Pattern.compile("\"([^\"]+)\":(.*)");
+    private void addKeyValuePair(String jsonDocument, int start, int end, JsonBufferPool pool)
+            throws JsonParseException {
+        int keyEnd = findKeyEnd(jsonDocument, start, end);
+
+        String key = pool.substring(jsonDocument, start + 1, keyEnd);
+        if (projection != null && !projection.includes(key)) {
+            return;
+        }
 
-        String key;
-        JsonObject value;
+        structureMap.put(key, JsonMapper.parseValue(jsonDocument, keyEnd + 2, end, pool,
+                projection == null ? null : projection.child(key)));
+    }
 
-        Matcher matcher = keyPattern.matcher(substring);
-        if (!matcher.matches()) {
+    /**
+     * Проверяет, что фрагмент документа начинается с пары вида "ключ":значение. Используется всеми
+     * разборщиками структур.
+     *
+     * @param document документ или содержимое структуры.
+     * @param start    индекс начала фрагмента.
+     * @param end      индекс, следующий за концом фрагмента.
+     * @return индекс закрывающей кавычки ключа; значение начинается через два символа после неё.
+     * @throws JsonParseException если фрагмент не начинается с ключа, за которым следует двоеточие.
+     */
+    static int findKeyEnd(String document, int start, int end) throws JsonParseException {
+        int keyEnd = start < end ? document.indexOf('"', start + 1) : -1;
+        if (keyEnd < 0 || document.charAt(start) != '"' || keyEnd == start + 1 || keyEnd + 1 >= end
+                || document.charAt(keyEnd + 1) != ':') {
             String exceptionMessage = String.format(
                     "The substring %s should starts with the template pair \"key\":value, but the key was not found.",
-                    substring
+                    document.substring(start, Math.max(start, end))
             );
-            throw new JsonParseException(exceptionMessage);
-        } else {
-            key = matcher.group(1);
-            substring = matcher.group(2);
+            throw new JsonParseException(exceptionMessage, start);
         }
-        value = JsonMapper.parseDocument(substring);
 
-        structureMap.put(key, value);
+        return keyEnd;
+    }
+
+    /**
+     * @param key ключ структуры.
+     * @return true, если значение по ключу было пропущено проекцией при разборе.
+     */
+    boolean isSkipped(String key) {
+        return projection != null && !projection.includes(key);
+    }
+
+    /**
+     * Запоминает строковое представление структуры, после чего appendTo дописывает его целиком, не обходя
+     * элементы. Структура, разделяемая между потоками, должна публиковаться после вызова этого метода.
+     */
+    void memoizeRendering() {
+        if (rendered == null) {
+            rendered = toString();
+        }
     }
 
     @Override
-    public String toString() {
-        StringJoiner stringJoiner = new StringJoiner(",", "{", "}");
-        structureMap.forEach((key, value) -> stringJoiner.add("\"" + key + "\"" + ":" +
-                (value == null ? null : value.toString())));
+    void appendTo(StringBuilder builder) {
+        if (rendered != null) {
+            builder.append(rendered);
+            return;
+        }
+
+        builder.append('{');
+
+        boolean first = true;
+        for (Map.Entry<String, JsonObject> entry : structureMap.entrySet()) {
+            if (!first) {
+                builder.append(',');
+            }
+            first = false;
+
+            builder.append('"').append(entry.getKey()).append("\":");
+            if (entry.getValue() == null) {
+                builder.append("null");
+            } else {
+                entry.getValue().appendTo(builder);
+            }
+        }
 
-        return stringJoiner.toString();
+        builder.append('}');
     }
 
     @Override
@@ -156,15 +267,25 @@ public final class JsonStructure extends JsonObject {
             return true;
         }
 
-        if (!(obj instanceof JsonStructure that)) {
+        if (!(obj instanceof JsonStructure that) || hashCode() != that.hashCode()) {
             return false;
         }
 
-        return Objects.equals(structureMap, that.structureMap);
+        return structureMap.equals(that.structureMap);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(structureMap);
+        int h = hash;
+        if (h == 0 && !hashIsZero) {
+            h = structureMap.hashCode();
+            if (h == 0) {
+                hashIsZero = true;
+            } else {
+                hash = h;
+            }
+        }
+
+        return h;
     }
 }
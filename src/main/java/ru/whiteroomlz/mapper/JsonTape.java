@@ -0,0 +1,443 @@
+package ru.whiteroomlz.mapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Компактное дерево JSON документа, хранящееся в плоских массивах примитивов ("ленте") вместо отдельных объектов
+ * JsonStructure, JsonCollection и JsonPrimitive для каждого узла.
+ * <p>
+ * Каждое значение документа занимает одну запись ленты (21 байт); записи следуют в порядке значений в документе,
+ * то есть элементы структуры или коллекции записаны сразу после неё. Запись содержит тип значения, позиции
+ * значения и ключа в документе и 64-битное поле: для целых чисел - значение, для дробных - биты значения, для
+ * структур и коллекций - количество элементов и номер записи, следующей за последним элементом. Строки и ключи
+ * не копируются, а читаются из документа.
+ * <p>
+ * Узел дерева задаётся номером записи, поэтому обход не создаёт объектов. Метод {@link #toJsonObject(int)}
+ * строит из узла обычное JSON-представление, совпадающее с результатом обычного разбора.
+ * <p>
+ * Пример вызова:
+ *
+ * <pre>
+ * JsonTape tape = new JsonTape(document);
+ * int child = tape.get(tape.get(tape.root(), "children"), 3);
+ * long age = tape.getLong(tape.get(child, "age"));
+ * </pre>
+ * <p>
+ * Как и при обычном разборе, учитываются только скобки и разделители, а кавычки не отслеживаются.
+ * Экземпляр неизменяем и может использоваться из нескольких потоков.
+ */
+public final class JsonTape {
+    /**
+     * Тип значения, хранящегося в записи ленты.
+     */
+    public enum Type {
+        STRUCTURE,
+        COLLECTION,
+        /**
+         * Значение, заключённое в кавычки: строки, перечисления, даты.
+         */
+        STRING,
+        INTEGER,
+        DECIMAL,
+        BOOLEAN,
+        NULL,
+        /**
+         * Прочие значения без кавычек, например символы.
+         */
+        RAW
+    }
+
+    private static final Type[] TYPES = Type.values();
+
+    private final String document;
+
+    private byte[] types;
+    private int[] starts;
+    private int[] ends;
+    private int[] keyStarts;
+    private long[] payloads;
+    private int size;
+
+    /**
+     * Позиции структурных символов, используемые при построении ленты.
+     */
+    private int[] structural;
+    private int structuralIndex;
+
+    /**
+     * @param document JSON документ.
+     * @throws JsonParseException если не удалось обработать документ.
+     */
+    public JsonTape(String document) throws JsonParseException {
+        this.document = Objects.requireNonNull(document);
+
+        structural = StructuralIndexer.get().index(document);
+        int capacity = Math.max(16, structural.length + 1);
+        types = new byte[capacity];
+        starts = new int[capacity];
+        ends = new int[capacity];
+        keyStarts = new int[capacity];
+        payloads = new long[capacity];
+
+        int end = parseValue(0, -1);
+        if (end != document.length() || structuralIndex != structural.length) {
+            throw new IncorrectStructureException("Unexpected symbols after the end of the document.", end);
+        }
+        structural = null;
+
+        types = Arrays.copyOf(types, size);
+        starts = Arrays.copyOf(starts, size);
+        ends = Arrays.copyOf(ends, size);
+        keyStarts = Arrays.copyOf(keyStarts, size);
+        payloads = Arrays.copyOf(payloads, size);
+    }
+
+    /**
+     * @return узел всего документа.
+     */
+    public int root() {
+        return 0;
+    }
+
+    /**
+     * @param node узел.
+     * @return тип значения узла.
+     */
+    public Type getType(int node) {
+        return TYPES[types[node]];
+    }
+
+    /**
+     * @param node узел структуры или коллекции.
+     * @return количество её элементов.
+     */
+    public int size(int node) {
+        checkContainer(node);
+        return (int) (payloads[node] >>> 32);
+    }
+
+    /**
+     * @param node  узел структуры или коллекции.
+     * @param index индекс элемента.
+     * @return узел элемента либо -1, если элемента с таким индексом нет.
+     */
+    public int get(int node, int index) {
+        if (index < 0 || index >= size(node)) {
+            return -1;
+        }
+
+        int child = node + 1;
+        for (int skipped = 0; skipped < index; skipped++) {
+            child = next(child);
+        }
+
+        return child;
+    }
+
+    /**
+     * @param node узел структуры.
+     * @param key  ключ.
+     * @return узел значения по ключу либо -1, если ключа нет.
+     */
+    public int get(int node, String key) {
+        if (types[node] != Type.STRUCTURE.ordinal()) {
+            throw new IllegalArgumentException("The node is not a structure.");
+        }
+
+        int child = node + 1;
+        for (int index = 0; index < size(node); index++) {
+            int keyLength = starts[child] - keyStarts[child] - 3;
+            if (keyLength == key.length() && document.startsWith(key, keyStarts[child] + 1)) {
+                return child;
+            }
+            child = next(child);
+        }
+
+        return -1;
+    }
+
+    /**
+     * @param node элемент структуры.
+     * @return ключ, по которому элемент расположен в структуре, либо null, если узел не является элементом
+     * структуры.
+     */
+    public String getKey(int node) {
+        if (keyStarts[node] < 0) {
+            return null;
+        }
+
+        return document.substring(keyStarts[node] + 1, starts[node] - 2);
+    }
+
+    /**
+     * @param node узел целого числа.
+     * @return значение числа.
+     */
+    public long getLong(int node) {
+        checkType(node, Type.INTEGER);
+        return payloads[node];
+    }
+
+    /**
+     * @param node узел целого или дробного числа.
+     * @return значение числа.
+     */
+    public double getDouble(int node) {
+        if (types[node] == Type.INTEGER.ordinal()) {
+            return payloads[node];
+        }
+
+        checkType(node, Type.DECIMAL);
+        return Double.longBitsToDouble(payloads[node]);
+    }
+
+    /**
+     * @param node узел логического значения.
+     * @return значение.
+     */
+    public boolean getBoolean(int node) {
+        checkType(node, Type.BOOLEAN);
+        return payloads[node] != 0;
+    }
+
+    /**
+     * @param node узел.
+     * @return строка без кавычек для строковых значений, иначе текст значения в документе.
+     */
+    public String getString(int node) {
+        if (types[node] == Type.STRING.ordinal()) {
+            return document.substring(starts[node] + 1, ends[node] - 1);
+        }
+
+        return document.substring(starts[node], ends[node]);
+    }
+
+    /**
+     * Строит обычное JSON-представление узла вместе со всеми его элементами.
+     *
+     * @param node узел.
+     * @return JSON-представление, равное результату разбора соответствующего фрагмента документа.
+     */
+    public JsonObject toJsonObject(int node) {
+        Type type = getType(node);
+        switch (type) {
+            case STRUCTURE: {
+                List<String> keys = new ArrayList<>(size(node));
+                List<JsonObject> values = new ArrayList<>(size(node));
+                for (int index = 0, child = node + 1; index < size(node); index++, child = next(child)) {
+                    keys.add(getKey(child));
+                    values.add(toJsonObject(child));
+                }
+                return new JsonStructure(keys, values);
+            }
+            case COLLECTION: {
+                List<JsonObject> elements = new ArrayList<>(size(node));
+                for (int index = 0, child = node + 1; index < size(node); index++, child = next(child)) {
+                    elements.add(toJsonObject(child));
+                }
+                return new JsonCollection(elements);
+            }
+            case STRING:
+                return new JsonObject(getString(node));
+            default:
+                return new JsonPrimitive(getString(node));
+        }
+    }
+
+    /**
+     * @return количество записей ленты.
+     */
+    int length() {
+        return size;
+    }
+
+    /**
+     * @return номер записи, следующей за узлом и всеми его элементами.
+     */
+    private int next(int node) {
+        byte type = types[node];
+        if (type == Type.STRUCTURE.ordinal() || type == Type.COLLECTION.ordinal()) {
+            return (int) payloads[node];
+        }
+
+        return node + 1;
+    }
+
+    private void checkContainer(int node) {
+        if (types[node] != Type.STRUCTURE.ordinal() && types[node] != Type.COLLECTION.ordinal()) {
+            throw new IllegalArgumentException("The node is neither a structure nor a collection.");
+        }
+    }
+
+    private void checkType(int node, Type type) {
+        if (types[node] != type.ordinal()) {
+            throw new IllegalArgumentException(String.format("The node is not of type %s.", type));
+        }
+    }
+
+    /**
+     * Добавляет на ленту значение, начинающееся в позиции {@code from}, вместе со всеми его элементами.
+     *
+     * @param from     позиция начала значения.
+     * @param keyStart позиция открывающей кавычки ключа либо -1.
+     * @return позиция, следующая за концом значения.
+     * @throws JsonParseException если не удалось обработать значение.
+     */
+    private int parseValue(int from, int keyStart) throws JsonParseException {
+        int node = add(keyStart);
+
+        char bracket = from < document.length() ? document.charAt(from) : 0;
+        if (bracket == '{' || bracket == '[') {
+            // Открывающая скобка - очередной структурный символ.
+            structuralIndex++;
+            char closing = bracket == '{' ? '}' : ']';
+
+            int count = 0;
+            int position = from + 1;
+            if (structuralIndex < structural.length && structural[structuralIndex] == position
+                    && document.charAt(position) == closing) {
+                structuralIndex++;
+                position++;
+            } else {
+                while (true) {
+                    int valueStart = position;
+                    int elementKeyStart = -1;
+                    if (bracket == '{') {
+                        elementKeyStart = position;
+                        valueStart = parseKey(position);
+                    }
+
+                    int valueEnd = parseValue(valueStart, elementKeyStart);
+                    count++;
+
+                    if (structuralIndex == structural.length) {
+                        String exceptionMessage = String.format(
+                                IncorrectStructureException.NOT_ALL_BRACKETS_CLOSED_EXCEPTION_MESSAGE,
+                                bracket
+                        );
+                        throw new IncorrectStructureException(exceptionMessage);
+                    }
+
+                    if (structural[structuralIndex] != valueEnd) {
+                        throw new IncorrectStructureException("Unexpected symbols after the value.", valueEnd);
+                    }
+
+                    char symbol = document.charAt(valueEnd);
+                    structuralIndex++;
+                    position = valueEnd + 1;
+                    if (symbol == closing) {
+                        break;
+                    } else if (symbol != ',') {
+                        String exceptionMessage = String.format(
+                                IncorrectStructureException.BRACKETS_CLOSING_ORDER_EXCEPTION_MESSAGE,
+                                bracket
+                        );
+                        throw new IncorrectStructureException(exceptionMessage, valueEnd);
+                    }
+                }
+            }
+
+            types[node] = (byte) (bracket == '{' ? Type.STRUCTURE : Type.COLLECTION).ordinal();
+            starts[node] = from;
+            ends[node] = position;
+            payloads[node] = (long) count << 32 | size;
+
+            return position;
+        }
+
+        int to = structuralIndex < structural.length ? structural[structuralIndex] : document.length();
+        if (to == from) {
+            throw new IncorrectStructureException("Duplicate separators detected.", from);
+        }
+        addPrimitive(node, from, to);
+
+        return to;
+    }
+
+    /**
+     * @param keyStart позиция, в которой должна начинаться пара "ключ":значение.
+     * @return позиция начала значения.
+     * @throws JsonParseException если пара не начинается с ключа.
+     */
+    private int parseKey(int keyStart) throws JsonParseException {
+        int limit = structuralIndex < structural.length ? structural[structuralIndex] : document.length();
+        return JsonStructure.findKeyEnd(document, keyStart, limit) + 2;
+    }
+
+    private void addPrimitive(int node, int from, int to) {
+        char first = document.charAt(from);
+        if (to - from >= 2 && (first == '"' || document.charAt(to - 1) == '"')) {
+            set(node, Type.STRING, from, to, 0);
+        } else if (document.startsWith("null", from) && to - from == 4) {
+            set(node, Type.NULL, from, to, 0);
+        } else if (to - from == 4 && document.regionMatches(true, from, "true", 0, 4)) {
+            set(node, Type.BOOLEAN, from, to, 1);
+        } else if (to - from == 5 && document.regionMatches(true, from, "false", 0, 5)) {
+            set(node, Type.BOOLEAN, from, to, 0);
+        } else if (first == '-' || first >= '0' && first <= '9') {
+            addNumber(node, from, to);
+        } else {
+            set(node, Type.RAW, from, to, 0);
+        }
+    }
+
+    private void addNumber(int node, int from, int to) {
+        boolean negative = document.charAt(from) == '-';
+        int position = negative ? from + 1 : from;
+        if (position == to) {
+            set(node, Type.RAW, from, to, 0);
+            return;
+        }
+
+        long value = 0;
+        for (; position < to; position++) {
+            char digit = document.charAt(position);
+            if (digit < '0' || digit > '9') {
+                break;
+            }
+
+            // Значение накапливается с отрицательным знаком, чтобы поместилось Long.MIN_VALUE.
+            if (value < (Long.MIN_VALUE + (digit - '0')) / 10) {
+                break;
+            }
+            value = value * 10 - (digit - '0');
+        }
+
+        // Числа, не помещающиеся в long, сохраняются как дробные.
+        if (position == to && (negative || value != Long.MIN_VALUE)) {
+            set(node, Type.INTEGER, from, to, negative ? value : -value);
+            return;
+        }
+
+        try {
+            double decimal = Double.parseDouble(document.substring(from, to));
+            set(node, Type.DECIMAL, from, to, Double.doubleToRawLongBits(decimal));
+        } catch (NumberFormatException exception) {
+            set(node, Type.RAW, from, to, 0);
+        }
+    }
+
+    private int add(int keyStart) {
+        if (size == types.length) {
+            int capacity = size * 2;
+            types = Arrays.copyOf(types, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            keyStarts = Arrays.copyOf(keyStarts, capacity);
+            payloads = Arrays.copyOf(payloads, capacity);
+        }
+        keyStarts[size] = keyStart;
+
+        return size++;
+    }
+
+    private void set(int node, Type type, int start, int end, long payload) {
+        types[node] = (byte) type.ordinal();
+        starts[node] = start;
+        ends[node] = end;
+        payloads[node] = payload;
+    }
+}
@@ -23,12 +23,12 @@ public final class JsonTemporal extends JsonObject {
     private static final Pattern defaultTimePattern = Pattern.compile("\\d{2}:\\d{2}:\\d{2}(.\\d)*");
 
     public JsonTemporal(Temporal temporal) {
-        this.value = temporal;
+        super(temporal);
         pattern = null;
     }
 
     public JsonTemporal(Temporal temporal, String pattern) {
-        this.value = temporal;
+        super(temporal);
         this.pattern = pattern;
     }
 
@@ -45,11 +45,14 @@ public final class JsonTemporal extends JsonObject {
      * @throws JsonParseException если не удалось обработать переданный фрагмент.
      */
     public JsonTemporal(String jsonDocument, String pattern) throws JsonParseException {
+        super(parse(jsonDocument, pattern));
         this.pattern = pattern;
+    }
 
+    private static Temporal parse(String jsonDocument, String pattern) throws JsonParseException {
         try {
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern, Locale.ENGLISH);
-            value = formatter.parseBest(jsonDocument, LocalDateTime::from, LocalDate::from, LocalTime::from);
+            return (Temporal) formatter.parseBest(jsonDocument, LocalDateTime::from, LocalDate::from, LocalTime::from);
         } catch (IllegalArgumentException | DateTimeParseException exception) {
             String exceptionMessage = String.format(
                     "Impossible to convert the part of specified JSON document:\"%s\" to the JSON temporal value.",
@@ -75,19 +78,22 @@ public final class JsonTemporal extends JsonObject {
      * @throws JsonParseException если не удалось обработать переданный фрагмент.
      */
     public JsonTemporal(String jsonDocument) throws JsonParseException {
+        super(parse(jsonDocument));
         pattern = null;
+    }
 
+    private static Temporal parse(String jsonDocument) throws JsonParseException {
         Matcher dateMatcher = JsonTemporal.defaultDatePattern.matcher(jsonDocument);
         Matcher timeMatcher = defaultTimePattern.matcher(jsonDocument);
 
         if (dateMatcher.find() && timeMatcher.find()) {
             LocalDate date = LocalDate.parse(dateMatcher.group(0));
             LocalTime time = LocalTime.parse(timeMatcher.group(0));
-            value = LocalDateTime.of(date, time);
+            return LocalDateTime.of(date, time);
         } else if (dateMatcher.matches()) {
-            value = LocalDate.parse(dateMatcher.group(0));
+            return LocalDate.parse(dateMatcher.group(0));
         } else if (timeMatcher.matches()) {
-            value = LocalTime.parse(timeMatcher.group(0));
+            return LocalTime.parse(timeMatcher.group(0));
         } else {
             String exceptionMessage = String.format(
                     "Impossible to convert the part of specified JSON document:\"%s\" to the JSON temporal value.",
@@ -98,18 +104,14 @@ public final class JsonTemporal extends JsonObject {
     }
 
     @Override
-    public String toString() {
+    void appendTo(StringBuilder builder) {
         if (pattern != null) {
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern, Locale.ENGLISH);
-            if (value instanceof LocalDate date) {
-                return "\"" + date.format(formatter) + "\"";
-            } else if (value instanceof LocalTime time) {
-                return "\"" + time.format(formatter) + "\"";
-            } else {
-                return "\"" + ((LocalDateTime) value).format(formatter) + "\"";
-            }
+            builder.append('"');
+            formatter.formatTo((Temporal) value, builder);
+            builder.append('"');
         } else {
-            return super.toString();
+            super.appendTo(builder);
         }
     }
 }
@@ -0,0 +1,173 @@
+package ru.whiteroomlz.mapper;
+
+import java.util.*;
+
+/**
+ * Ленивое дерево JSON-представлений, построенное поверх структурного индекса документа. Структуры и коллекции
+ * дерева хранят только позиции своих элементов в документе; элемент разбирается при первом обращении к нему,
+ * после чего результат запоминается.
+ *
+ * @see JsonIndex#tree(String)
+ */
+final class LazyJsonTree {
+    private final String document;
+    private final JsonIndex.Index index;
+
+    LazyJsonTree(String document, JsonIndex.Index index) {
+        this.document = document;
+        this.index = index;
+    }
+
+    /**
+     * @param from начало фрагмента документа.
+     * @param to   конец фрагмента документа.
+     * @return ленивая структура или коллекция, если фрагмент является таковой, иначе разобранный фрагмент.
+     * @throws JsonParseException если не удалось обработать фрагмент.
+     */
+    JsonObject node(int from, int to) throws JsonParseException {
+        if (from < to) {
+            char bracket = document.charAt(from);
+            if (bracket == '{' || bracket == '[') {
+                int container = index.containerAt(from);
+                if (container >= 0 && index.end(container) == to - 1) {
+                    return bracket == '{'
+                            ? new JsonStructure(new StructureMap(container))
+                            : new JsonCollection(new ElementList(container));
+                }
+            }
+        }
+
+        return JsonMapper.parseDocument(document.substring(from, to), JsonBufferPool.current());
+    }
+
+    private JsonObject materialize(int from, int to) {
+        try {
+            return node(from, to);
+        } catch (JsonParseException exception) {
+            throw new IllegalArgumentException("Impossible to parse JSON document", exception);
+        }
+    }
+
+    /**
+     * Элементы ленивой структуры. Ключи извлекаются при создании, значения - при первом обращении.
+     */
+    final class StructureMap extends AbstractMap<String, JsonObject> {
+        private final String[] keys;
+        private final int[] valueStarts;
+        private final int[] valueEnds;
+        private final JsonObject[] values;
+        private final Map<String, Integer> positions;
+
+        private StructureMap(int container) throws JsonParseException {
+            int size = index.elementCount(container);
+            keys = new String[size];
+            valueStarts = new int[size];
+            valueEnds = new int[size];
+            values = new JsonObject[size];
+            positions = new HashMap<>(size * 4 / 3 + 1);
+
+            for (int element = 0; element < size; element++) {
+                int start = index.elementStart(container, element);
+                int end = index.elementEnd(container, element);
+
+                int keyEnd = JsonStructure.findKeyEnd(document, start, end);
+                keys[element] = document.substring(start + 1, keyEnd);
+                valueStarts[element] = keyEnd + 2;
+                valueEnds[element] = end;
+                positions.put(keys[element], element);
+            }
+        }
+
+        private JsonObject value(int element) {
+            if (values[element] == null) {
+                values[element] = materialize(valueStarts[element], valueEnds[element]);
+            }
+
+            return values[element];
+        }
+
+        @Override
+        public JsonObject get(Object key) {
+            Integer element = positions.get(key);
+            return element == null ? null : value(element);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return positions.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return keys.length;
+        }
+
+        @Override
+        public Set<Entry<String, JsonObject>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, JsonObject>> iterator() {
+                    return new Iterator<>() {
+                        private int element;
+
+                        @Override
+                        public boolean hasNext() {
+                            return element < keys.length;
+                        }
+
+                        @Override
+                        public Entry<String, JsonObject> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+
+                            String key = keys[element];
+                            return new SimpleImmutableEntry<>(key, value(element++));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return keys.length;
+                }
+            };
+        }
+    }
+
+    /**
+     * Элементы ленивой коллекции, разбираемые при первом обращении по индексу.
+     */
+    final class ElementList extends AbstractList<JsonObject> implements RandomAccess {
+        private final int container;
+        private final JsonObject[] elements;
+
+        private ElementList(int container) throws JsonParseException {
+            this.container = container;
+            elements = new JsonObject[index.elementCount(container)];
+
+            for (int element = 0; element < elements.length; element++) {
+                int start = index.elementStart(container, element);
+                if (start == index.elementEnd(container, element)) {
+                    throw new IncorrectStructureException("Duplicate separators detected.", start);
+                }
+            }
+        }
+
+        @Override
+        public JsonObject get(int element) {
+            Objects.checkIndex(element, elements.length);
+            if (elements[element] == null) {
+                elements[element] = materialize(index.elementStart(container, element),
+                        index.elementEnd(container, element));
+            }
+
+            return elements[element];
+        }
+
+        @Override
+        public int size() {
+            return elements.length;
+        }
+    }
+}
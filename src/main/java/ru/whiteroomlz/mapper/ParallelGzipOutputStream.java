@@ -0,0 +1,237 @@
+package ru.whiteroomlz.mapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Поток, сжимающий записываемые данные в формат gzip на нескольких потоках. Данные делятся на блоки, каждый блок
+ * сжимается отдельным Deflater'ом в исполнителе, а сжатые блоки записываются в исходном порядке. Результат - один
+ * стандартный gzip поток, читаемый, например, {@link java.util.zip.GZIPInputStream}.
+ * <p>
+ * Каждый блок, кроме последнего, завершается SYNC_FLUSH, поэтому заканчивается на границе байта и не является
+ * завершающим. В качестве словаря блока используются последние 32 КБ предыдущего блока, поэтому степень сжатия
+ * близка к последовательной. Количество одновременно сжимаемых блоков ограничено, чтобы медленный приёмник не
+ * приводил к неограниченному росту памяти.
+ * <p>
+ * Пример вызова:
+ *
+ * <pre>
+ * try (OutputStream outputStream = new ParallelGzipOutputStream(new FileOutputStream("/tmp/export.json.gz"),
+ *         ForkJoinPool.commonPool())) {
+ *     outputStream.write(bytes);
+ * }
+ * </pre>
+ */
+public final class ParallelGzipOutputStream extends OutputStream {
+    /**
+     * Размер несжатого блока по умолчанию.
+     */
+    static final int DEFAULT_BLOCK_SIZE = 128 * 1024;
+
+    /**
+     * Размер окна deflate, то есть наибольшее расстояние обратной ссылки.
+     */
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+
+    private static final byte[] HEADER = {
+            0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+    };
+
+    private final OutputStream outputStream;
+    private final Executor executor;
+    private final int blockSize;
+    private final int level;
+    private final int maxPendingBlocks;
+
+    private final ArrayDeque<CompletableFuture<byte[]>> pendingBlocks = new ArrayDeque<>();
+    private final CRC32 crc = new CRC32();
+    private long totalLength;
+
+    private byte[] block;
+    private int blockLength;
+    private byte[] dictionary;
+    private boolean closed;
+
+    /**
+     * @param outputStream поток, в который записываются сжатые данные. Закрывается при закрытии этого потока.
+     * @param pool         пул, в котором сжимаются блоки. Одновременно сжимается не более двух блоков на поток пула.
+     * @throws IOException в случае ошибки записи заголовка.
+     */
+    public ParallelGzipOutputStream(OutputStream outputStream, ForkJoinPool pool) throws IOException {
+        this(outputStream, pool, 2 * pool.getParallelism(), DEFAULT_BLOCK_SIZE, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param outputStream     поток, в который записываются сжатые данные. Закрывается при закрытии этого потока.
+     * @param executor         исполнитель, в котором сжимаются блоки.
+     * @param maxPendingBlocks наибольшее количество блоков, сжимаемых одновременно.
+     * @param blockSize        размер несжатого блока.
+     * @param level            уровень сжатия Deflater.
+     * @throws IOException в случае ошибки записи заголовка.
+     */
+    public ParallelGzipOutputStream(OutputStream outputStream, Executor executor, int maxPendingBlocks, int blockSize,
+                                    int level) throws IOException {
+        if (maxPendingBlocks <= 0 || blockSize <= 0) {
+            throw new IllegalArgumentException("The number of pending blocks and the block size must be positive.");
+        }
+
+        this.outputStream = Objects.requireNonNull(outputStream);
+        this.executor = Objects.requireNonNull(executor);
+        this.maxPendingBlocks = maxPendingBlocks;
+        this.blockSize = blockSize;
+        this.level = level;
+        this.block = new byte[blockSize];
+
+        outputStream.write(HEADER);
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+        ensureOpen();
+        block[blockLength++] = (byte) value;
+        if (blockLength == blockSize) {
+            submitBlock(false);
+        }
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        ensureOpen();
+
+        while (length > 0) {
+            int copied = Math.min(length, blockSize - blockLength);
+            System.arraycopy(bytes, offset, block, blockLength, copied);
+            blockLength += copied;
+            offset += copied;
+            length -= copied;
+
+            if (blockLength == blockSize) {
+                submitBlock(false);
+            }
+        }
+    }
+
+    /**
+     * Завершает текущий блок, дожидается сжатия всех блоков и сбрасывает исходный поток.
+     *
+     * @throws IOException в случае ошибки сжатия или записи.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        if (blockLength > 0) {
+            submitBlock(false);
+        }
+        drain(0);
+        outputStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        try (outputStream) {
+            submitBlock(true);
+            drain(0);
+
+            writeIntLittleEndian((int) crc.getValue());
+            writeIntLittleEndian((int) totalLength);
+        } finally {
+            closed = true;
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("The stream is closed.");
+        }
+    }
+
+    private void submitBlock(boolean last) throws IOException {
+        byte[] data = block;
+        int length = blockLength;
+        byte[] blockDictionary = dictionary;
+
+        crc.update(data, 0, length);
+        totalLength += length;
+
+        if (length >= DICTIONARY_SIZE) {
+            dictionary = Arrays.copyOfRange(data, length - DICTIONARY_SIZE, length);
+        } else if (length > 0) {
+            byte[] previous = dictionary == null ? new byte[0] : dictionary;
+            int kept = Math.min(previous.length, DICTIONARY_SIZE - length);
+            dictionary = Arrays.copyOfRange(previous, previous.length - kept, previous.length + length);
+            System.arraycopy(data, 0, dictionary, kept, length);
+        }
+
+        block = new byte[blockSize];
+        blockLength = 0;
+
+        pendingBlocks.add(CompletableFuture.supplyAsync(() -> deflate(data, length, blockDictionary, last), executor));
+        drain(maxPendingBlocks - 1);
+    }
+
+    /**
+     * Записывает сжатые блоки в исходном порядке, пока количество ожидающих блоков больше {@code remaining}.
+     */
+    private void drain(int remaining) throws IOException {
+        while (pendingBlocks.size() > remaining) {
+            try {
+                outputStream.write(pendingBlocks.poll().join());
+            } catch (CompletionException exception) {
+                pendingBlocks.forEach(pending -> pending.cancel(false));
+                pendingBlocks.clear();
+                throw new IOException("Impossible to compress the block.", exception.getCause());
+            }
+        }
+    }
+
+    private byte[] deflate(byte[] data, int length, byte[] blockDictionary, boolean last) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            if (blockDictionary != null) {
+                deflater.setDictionary(blockDictionary);
+            }
+            deflater.setInput(data, 0, length);
+
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 2 + 64);
+            byte[] buffer = new byte[8192];
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    compressed.write(buffer, 0, deflater.deflate(buffer));
+                }
+            } else {
+                int produced;
+                do {
+                    produced = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    compressed.write(buffer, 0, produced);
+                } while (produced == buffer.length);
+            }
+
+            return compressed.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void writeIntLittleEndian(int value) throws IOException {
+        outputStream.write(value & 0xff);
+        outputStream.write((value >>> 8) & 0xff);
+        outputStream.write((value >>> 16) & 0xff);
+        outputStream.write((value >>> 24) & 0xff);
+    }
+}
@@ -0,0 +1,135 @@
+package ru.whiteroomlz.mapper;
+
+import java.util.Arrays;
+
+/**
+ * Первый этап разбора: поиск позиций структурных символов '{', '}', '[', ']' и ',' в документе. Найденные позиции
+ * используются вторым этапом, который проверяет скобочную последовательность и строит структурный индекс, не
+ * просматривая остальные символы.
+ * <p>
+ * Документ обрабатывается блоками, копируемыми в буфер символов. Этот класс проверяет символы по одному; подкласс
+ * VectorStructuralIndexer классифицирует сразу целый вектор символов через модуль jdk.incubator.vector.
+ * <p>
+ * Реализация выбирается один раз: векторная, если сериализатор собран с профилем vector и модуль
+ * jdk.incubator.vector подключён ({@code --add-modules jdk.incubator.vector}), иначе посимвольная. Системное
+ * свойство {@value #IMPLEMENTATION_PROPERTY} со значением {@code vector} или {@code scalar} задаёт реализацию
+ * явно, например для сравнения в бенчмарках.
+ */
+class StructuralIndexer {
+    static final String IMPLEMENTATION_PROPERTY = "ru.whiteroomlz.mapper.indexer";
+
+    /**
+     * Размер блока в символах; кратен длине вектора любой поддерживаемой архитектуры.
+     */
+    static final int BLOCK_SIZE = 8192;
+
+    private static final StructuralIndexer INSTANCE = create(System.getProperty(IMPLEMENTATION_PROPERTY, ""));
+
+    /**
+     * @return реализация, выбранная для текущей JVM.
+     */
+    static StructuralIndexer get() {
+        return INSTANCE;
+    }
+
+    static StructuralIndexer create(String implementation) {
+        switch (implementation) {
+            case "scalar":
+                return new StructuralIndexer();
+            case "vector":
+            case "":
+                if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+                    try {
+                        // Класс загружается по имени, чтобы без модуля не возникала ошибка связывания.
+                        return (StructuralIndexer) Class.forName(StructuralIndexer.class.getPackageName()
+                                + ".VectorStructuralIndexer").getDeclaredConstructor().newInstance();
+                    } catch (ReflectiveOperationException | LinkageError ignored) {
+                        // Сериализатор собран без профиля vector.
+                    }
+                }
+                return new StructuralIndexer();
+            default:
+                throw new IllegalArgumentException(
+                        String.format("Unknown structural indexer %s.", implementation));
+        }
+    }
+
+    /**
+     * @param document JSON документ.
+     * @return возрастающие позиции всех символов '{', '}', '[', ']' и ',' документа.
+     */
+    final int[] index(String document) {
+        Positions positions = new Positions(Math.max(16, document.length() >>> 6));
+        char[] block = new char[BLOCK_SIZE];
+
+        for (int base = 0; base < document.length(); base += BLOCK_SIZE) {
+            int length = Math.min(BLOCK_SIZE, document.length() - base);
+            document.getChars(base, base + length, block, 0);
+            indexBlock(block, length, base, positions);
+        }
+
+        return positions.toArray();
+    }
+
+    /**
+     * Добавляет позиции структурных символов блока.
+     *
+     * @param block     символы блока.
+     * @param length    количество символов блока.
+     * @param base      позиция первого символа блока в документе.
+     * @param positions найденные позиции.
+     */
+    void indexBlock(char[] block, int length, int base, Positions positions) {
+        indexScalar(block, 0, length, base, positions);
+    }
+
+    static void indexScalar(char[] block, int from, int to, int base, Positions positions) {
+        for (int index = from; index < to; index++) {
+            if (isStructural(block[index])) {
+                positions.add(base + index);
+            }
+        }
+    }
+
+    static boolean isStructural(char symbol) {
+        return symbol == ',' || (symbol | 0x20) == '{' || (symbol | 0x20) == '}';
+    }
+
+    /**
+     * Расширяемый массив позиций.
+     */
+    static final class Positions {
+        private int[] positions;
+        private int size;
+
+        Positions(int capacity) {
+            positions = new int[capacity];
+        }
+
+        void add(int position) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+
+        /**
+         * Добавляет позиции, соответствующие установленным битам маски.
+         *
+         * @param mask  маска, в которой биты с номерами от {@code i << shift} до {@code ((i + 1) << shift) - 1}
+         *              соответствуют позиции {@code base + i}.
+         * @param base  позиция, соответствующая младшему биту.
+         * @param shift двоичный логарифм количества бит на позицию.
+         */
+        void addMask(long mask, int base, int shift) {
+            while (mask != 0) {
+                add(base + (Long.numberOfTrailingZeros(mask) >>> shift));
+                mask &= mask - 1;
+            }
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(positions, size);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package ru.whiteroomlz.mapper;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import testingclasses.Person;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+public class AsyncFileTransferTests {
+    @TempDir
+    Path directory;
+
+    @Test
+    void writeAndRead_ShouldPreserveMultiByteContentAcrossBuffers() throws Exception {
+        Path path = directory.resolve("content.txt");
+        String content = "Хорошая работа, ".repeat(20_000);
+
+        AsyncFileTransfer.write(path, content).get();
+        Assertions.assertEquals(content, Files.readString(path, StandardCharsets.UTF_8));
+
+        Assertions.assertEquals(content, AsyncFileTransfer.read(path).get());
+    }
+
+    @Test
+    void read_ShouldDropLineSeparatorsAndKeepCharactersSplitBetweenBuffers() throws Exception {
+        Path path = directory.resolve("lines.txt");
+        // Двухбайтовый символ пересекает первую границу буферов (65536), трёхбайтовый - вторую.
+        String first = "x".repeat(65_535) + "Ё";
+        String second = "y".repeat(65_532) + "€";
+        Files.writeString(path, first + "\r\n" + second + "\nend", StandardCharsets.UTF_8);
+
+        Assertions.assertEquals(first + second + "end", AsyncFileTransfer.read(path).get());
+    }
+
+    @Test
+    void readFailure_ShouldCompleteExceptionallyAndKeepBuffersUsable() throws Exception {
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class,
+                () -> AsyncFileTransfer.read(directory).get());
+        Assertions.assertInstanceOf(IOException.class, exception.getCause());
+
+        Path path = directory.resolve("after-failure.txt");
+        String content = "Хорошая работа, ".repeat(10_000);
+        AsyncFileTransfer.write(path, content).get();
+        Assertions.assertEquals(content, AsyncFileTransfer.read(path).get());
+    }
+
+    @Test
+    void writeAsyncAndReadAsync_ShouldReturnEqualObjectUsingCustomExecutor() throws Exception {
+        List<Person> children = IntStream.range(0, 1000)
+                .mapToObj(index -> new Person("Child " + index, "Smith", index % 90, Person.Sex.FEMALE,
+                        null, false, List.of(), 'c'))
+                .toList();
+        Person person = new Person("Paul", "Smith", 37, Person.Sex.MALE,
+                LocalDateTime.parse("2022-02-26T02:32:52.0"), true, children, 'C');
+
+        JsonMapper mapper = new JsonMapper(false);
+        Path path = directory.resolve("paul.json");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            mapper.writeAsync(person, path, executor).get();
+            Person restored = mapper.readAsync(Person.class, path, executor).get();
+
+            Assertions.assertEquals(mapper.writeToString(person), mapper.writeToString(restored));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package ru.whiteroomlz.mapper;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import testingclasses.Meeting;
+import testingclasses.Person;
+import testingclasses.Point2D;
+import testingclasses.Point3D;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class BinaryMapperTests {
+    private final Person person;
+
+    BinaryMapperTests() {
+        Person son = new Person("John", "Smith", 18, Person.Sex.MALE,
+                null, false, List.of(), '-');
+        Person daughter = new Person("Joan", "Smith", 15, Person.Sex.FEMALE,
+                LocalDateTime.parse("2020-02-05T00:00:00.0"), false, null, '\n');
+        person = new Person("Paul", "Smith", 37, Person.Sex.MALE,
+                LocalDateTime.parse("2022-02-26T02:32:52.0"), true, List.of(son, daughter), 'C');
+    }
+
+    @Test
+    void classRoundTrip_ShouldWriteSameJsonDocument() throws IOException {
+        BinaryMapper mapper = new BinaryMapper(false);
+        JsonMapper jsonMapper = new JsonMapper(false);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        mapper.write(person, outputStream);
+        Person restored = mapper.read(Person.class, new ByteArrayInputStream(outputStream.toByteArray()));
+
+        Assertions.assertEquals(jsonMapper.writeToString(person), jsonMapper.writeToString(restored));
+    }
+
+    @Test
+    void recordRoundTrip_ShouldReturnEqualRecords() {
+        BinaryMapper mapper = new BinaryMapper(false);
+        Point3D point = new Point3D(1.0, -0.0, Double.NaN);
+        Meeting meeting = new Meeting(LocalDateTime.parse("1812-09-07T05:30:00.123456789"), null);
+
+        Assertions.assertEquals(point, mapper.readFromString(Point3D.class, mapper.writeToString(point)));
+        Assertions.assertEquals(meeting, mapper.readFromBytes(Meeting.class, mapper.writeToBytes(meeting)));
+    }
+
+    @Test
+    void binaryDocument_ShouldBeSmallerThanJson() {
+        Point2D point = new Point2D(1.5, -2.25);
+        Assertions.assertEquals(1 + 2 * (1 + Double.BYTES), new BinaryMapper(false).writeToBytes(point).length);
+        Assertions.assertTrue(new BinaryMapper(false).writeToBytes(person).length
+                < new JsonMapper(false).writeToString(person).getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    void retainIdentityTrue_ShouldReturnSameObjectsIfTheyWereSame() {
+        BinaryMapper mapper = new BinaryMapper(true);
+        Person child = new Person("John", "Smith", 18, Person.Sex.MALE, null, false, List.of(), '-');
+        List<Person> children = new ArrayList<>(Arrays.asList(child, child));
+        Person parent = new Person("Paul", "Smith", 37, Person.Sex.MALE, null, true, children, 'C');
+        children.add(parent);
+
+        Person restored = mapper.readFromBytes(Person.class, mapper.writeToBytes(parent));
+
+        Assertions.assertSame(restored.children.get(0), restored.children.get(1));
+        Assertions.assertSame(restored, restored.children.get(2));
+    }
+
+    @Test
+    void truncatedDocument_ShouldThrowIllegalArgumentException() {
+        BinaryMapper mapper = new BinaryMapper(false);
+        byte[] document = mapper.writeToBytes(person);
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> mapper.readFromBytes(Person.class, Arrays.copyOf(document, document.length - 1)));
+    }
+
+    @Test
+    void converter_ShouldRestoreSameJsonDocument() {
+        JsonMapper jsonMapper = new JsonMapper(false);
+        BinaryJsonConverter converter = new BinaryJsonConverter(jsonMapper, new BinaryMapper(false));
+        String jsonDocument = jsonMapper.writeToString(person);
+
+        Assertions.assertEquals(jsonDocument, converter.toJson(Person.class, converter.toBinary(Person.class,
+                jsonDocument)));
+    }
+}
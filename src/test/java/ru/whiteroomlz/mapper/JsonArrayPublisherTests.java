@@ -0,0 +1,134 @@
+package ru.whiteroomlz.mapper;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import testingclasses.Point2D;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class JsonArrayPublisherTests {
+    private final JsonMapper mapper = new JsonMapper(false);
+
+    private final List<Point2D> points = IntStream.range(0, 5000)
+            .mapToObj(index -> new Point2D(index + 0.5, index - 0.5))
+            .toList();
+
+    private final String document = points.stream()
+            .map(mapper::writeToString)
+            .collect(Collectors.joining(",", "[", "]"));
+
+    @Test
+    void request_ShouldDeliverNoMoreElementsThanRequested() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            JsonArrayPublisher<Point2D> publisher = new JsonArrayPublisher<>(mapper, Point2D.class,
+                    new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)), executor);
+
+            BlockingQueue<Point2D> received = new LinkedBlockingQueue<>();
+            CompletableFuture<Flow.Subscription> subscription = new CompletableFuture<>();
+            publisher.subscribe(new Flow.Subscriber<>() {
+                @Override
+                public void onSubscribe(Flow.Subscription value) {
+                    subscription.complete(value);
+                }
+
+                @Override
+                public void onNext(Point2D item) {
+                    received.add(item);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                }
+
+                @Override
+                public void onComplete() {
+                }
+            });
+
+            subscription.join().request(3);
+            for (int index = 0; index < 3; index++) {
+                Assertions.assertEquals(points.get(index), received.poll(5, TimeUnit.SECONDS));
+            }
+            Assertions.assertNull(received.poll(200, TimeUnit.MILLISECONDS));
+
+            subscription.join().cancel();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void subscribeArraySubscriber_ShouldWriteSameDocument() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            JsonArrayPublisher<Point2D> publisher = new JsonArrayPublisher<>(mapper, Point2D.class,
+                    new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)), executor);
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            JsonArraySubscriber<Point2D> subscriber = new JsonArraySubscriber<>(mapper, outputStream);
+
+            publisher.subscribe(subscriber);
+            subscriber.getCompletion().get(30, TimeUnit.SECONDS);
+
+            Assertions.assertEquals(document, outputStream.toString(StandardCharsets.UTF_8));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void secondSubscriber_ShouldReceiveError() {
+        JsonArrayPublisher<Point2D> publisher = new JsonArrayPublisher<>(mapper, Point2D.class,
+                new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)), Runnable::run);
+        publisher.subscribe(new JsonArraySubscriber<>(mapper, new ByteArrayOutputStream()));
+
+        JsonArraySubscriber<Point2D> second = new JsonArraySubscriber<>(mapper, new ByteArrayOutputStream());
+        publisher.subscribe(second);
+
+        Assertions.assertTrue(second.getCompletion().isCompletedExceptionally());
+    }
+
+    @Test
+    void throwingSubscriber_ShouldBeCancelledWithoutOnError() {
+        JsonArrayPublisher<Point2D> publisher = new JsonArrayPublisher<>(mapper, Point2D.class,
+                new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)), Runnable::run);
+
+        AtomicInteger delivered = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        CompletableFuture<Flow.Subscription> subscription = new CompletableFuture<>();
+        publisher.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription value) {
+                subscription.complete(value);
+            }
+
+            @Override
+            public void onNext(Point2D item) {
+                delivered.incrementAndGet();
+                throw new IllegalStateException("Subscriber failure");
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                errors.incrementAndGet();
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+
+        IllegalStateException exception = Assertions.assertThrows(IllegalStateException.class,
+                () -> subscription.join().request(10));
+        Assertions.assertEquals("Subscriber failure", exception.getMessage());
+        Assertions.assertEquals(1, delivered.get());
+        Assertions.assertEquals(0, errors.get());
+    }
+}
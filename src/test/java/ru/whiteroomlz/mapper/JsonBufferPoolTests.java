@@ -0,0 +1,45 @@
+package ru.whiteroomlz.mapper;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class JsonBufferPoolTests {
+    @Test
+    void acquireStringBuilder_ShouldReuseReleasedBuilder() {
+        JsonBufferPool pool = new JsonBufferPool();
+
+        StringBuilder builder = pool.acquireStringBuilder();
+        builder.append("lorem ipsum");
+        pool.releaseStringBuilder(builder);
+
+        StringBuilder reused = pool.acquireStringBuilder();
+        Assertions.assertSame(builder, reused);
+        Assertions.assertEquals(0, reused.length());
+    }
+
+    @Test
+    void acquireStringBuilder_ShouldReturnNewBuilderIfAlreadyAcquired() {
+        JsonBufferPool pool = new JsonBufferPool();
+
+        StringBuilder builder = pool.acquireStringBuilder();
+        StringBuilder nested = pool.acquireStringBuilder();
+
+        Assertions.assertNotSame(builder, nested);
+    }
+
+    @Test
+    void releaseStringBuilder_ShouldDropOversizedBuilder() {
+        JsonBufferPool pool = new JsonBufferPool();
+
+        StringBuilder builder = pool.acquireStringBuilder();
+        builder.append("x".repeat(JsonBufferPool.MAX_RETAINED_CAPACITY + 1));
+        pool.releaseStringBuilder(builder);
+
+        Assertions.assertNotSame(builder, pool.acquireStringBuilder());
+    }
+
+    @Test
+    void current_ShouldReturnSamePoolWithinThread() {
+        Assertions.assertSame(JsonBufferPool.current(), JsonBufferPool.current());
+    }
+}
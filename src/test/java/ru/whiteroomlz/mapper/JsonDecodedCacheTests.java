@@ -0,0 +1,92 @@
+package ru.whiteroomlz.mapper;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import testingclasses.Person;
+import testingclasses.Point2D;
+import testingclasses.Point3D;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+public class JsonDecodedCacheTests {
+    @Test
+    void repeatedReadOfSameDocument_ShouldReturnSameObject() throws IOException {
+        JsonMapper mapper = new JsonMapper(false);
+        JsonDecodedCache cache = new JsonDecodedCache(16);
+        mapper.setDecodedCache(cache);
+
+        String document = mapper.writeToString(new Point2D(1.0, 2.4));
+        Point2D point = mapper.readFromString(Point2D.class, document);
+
+        Assertions.assertEquals(new Point2D(1.0, 2.4), point);
+        Assertions.assertSame(point, mapper.readFromString(Point2D.class, new String(document)));
+        Assertions.assertSame(point, mapper.read(Point2D.class,
+                new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8))));
+        Assertions.assertEquals(2, cache.getHits());
+        Assertions.assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void sameDocumentForAnotherClass_ShouldBeReadSeparately() {
+        JsonMapper mapper = new JsonMapper(false);
+        JsonDecodedCache cache = new JsonDecodedCache(16);
+        mapper.setDecodedCache(cache);
+
+        String document = "{\"x\":1.0,\"y\":2.0,\"z\":3.0}";
+        Assertions.assertEquals(new Point3D(1.0, 2.0, 3.0), mapper.readFromString(Point3D.class, document));
+        Assertions.assertEquals(new Point2D(1.0, 2.0), mapper.readFromString(Point2D.class, document));
+
+        Assertions.assertEquals(0, cache.getHits());
+        Assertions.assertEquals(2, cache.size());
+    }
+
+    @Test
+    void mutableClassAndPartialRead_ShouldNotBeCached() {
+        JsonMapper mapper = new JsonMapper(false);
+        JsonDecodedCache cache = new JsonDecodedCache(16);
+        mapper.setDecodedCache(cache);
+
+        String person = "{\"name\":\"Paul\",\"age\":37,\"sex\":\"male\",\"date of registration\":null,"
+                + "\"is married\":true,\"children\":[],\"group\":C}";
+        Assertions.assertNotSame(mapper.readFromString(Person.class, person),
+                mapper.readFromString(Person.class, person));
+        mapper.readFromString(Point2D.class, "{\"x\":1.0,\"y\":2.0}", Set.of("x"));
+
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertEquals(0, cache.getMisses());
+    }
+
+    @Test
+    void overflow_ShouldEvictLeastRecentlyUsedEntry() {
+        JsonMapper mapper = new JsonMapper(false);
+        JsonDecodedCache cache = new JsonDecodedCache(1);
+        mapper.setDecodedCache(cache);
+
+        mapper.readFromString(Point2D.class, "{\"x\":1.0,\"y\":1.0}");
+        mapper.readFromString(Point2D.class, "{\"x\":2.0,\"y\":2.0}");
+        mapper.readFromString(Point2D.class, "{\"x\":1.0,\"y\":1.0}");
+
+        Assertions.assertEquals(1, cache.size());
+        Assertions.assertEquals(2, cache.getEvictions());
+        Assertions.assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    void cacheHit_ShouldBeCountedInStatistics() {
+        JsonMapper mapper = new JsonMapper(false);
+        JsonMapperStatistics statistics = new JsonMapperStatistics("decoded-cache");
+        mapper.setStatistics(statistics);
+        mapper.setDecodedCache(new JsonDecodedCache(16));
+
+        String document = "{\"x\":1.0,\"y\":2.0}";
+        mapper.readFromString(Point2D.class, document);
+        mapper.readFromString(Point2D.class, document);
+
+        JsonClassStatisticsMXBean classStatistics = statistics.get(Point2D.class);
+        Assertions.assertEquals(2, classStatistics.getDeserializeCount());
+        Assertions.assertEquals(2L * document.length(), classStatistics.getBytesConsumed());
+    }
+}
@@ -0,0 +1,82 @@
+package ru.whiteroomlz.mapper;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import testingclasses.Person;
+import testingclasses.Point2D;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class JsonFeedParserTests {
+    private static <T> List<T> drain(JsonFeedParser<T> parser) {
+        List<T> restored = new ArrayList<>();
+        T object;
+        while ((object = parser.poll()) != null) {
+            restored.add(object);
+        }
+
+        return restored;
+    }
+
+    @Test
+    void feedByteByByte_ShouldReturnArrayElementsAsSoonAsTheyAreCompleted() throws JsonParseException {
+        JsonFeedParser<Point2D> parser = new JsonFeedParser<>(new JsonMapper(false), Point2D.class);
+        byte[] document = "[{\"x\":1.0,\"y\":2.4}, {\"x\":3.5,\"y\":-1.0}]".getBytes(StandardCharsets.UTF_8);
+        int firstElementEnd = "[{\"x\":1.0,\"y\":2.4}".length();
+
+        List<Point2D> restored = new ArrayList<>();
+        for (int index = 0; index < document.length; index++) {
+            parser.feed(ByteBuffer.wrap(document, index, 1));
+            if (index == firstElementEnd) {
+                Assertions.assertEquals(1, parser.available());
+            }
+            restored.addAll(drain(parser));
+        }
+        parser.endOfInput();
+
+        Assertions.assertEquals(List.of(new Point2D(1.0, 2.4), new Point2D(3.5, -1.0)), restored);
+        Assertions.assertTrue(parser.isFinished());
+    }
+
+    @Test
+    void feedSplitMultiByteCharacters_ShouldRestoreRootObjects() throws JsonParseException {
+        JsonMapper mapper = new JsonMapper(false);
+        Person person = new Person("Пётр", "Смирнов", 37, Person.Sex.MALE,
+                LocalDateTime.parse("2022-02-26T02:32:52.0"), true, List.of(), 'Ж');
+        String serialized = mapper.writeToString(person);
+        byte[] document = (serialized + "\n" + serialized).getBytes(StandardCharsets.UTF_8);
+
+        JsonFeedParser<Person> parser = new JsonFeedParser<>(mapper, Person.class);
+        for (int index = 0; index < document.length; index += 3) {
+            parser.feed(ByteBuffer.wrap(document, index, Math.min(3, document.length - index)));
+        }
+        parser.endOfInput();
+
+        List<Person> restored = drain(parser);
+        Assertions.assertEquals(2, restored.size());
+        Assertions.assertEquals(serialized, mapper.writeToString(restored.get(1)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "[{\"x\":1.0,\"y\":2.4},,{\"x\":1.0,\"y\":2.4}]",
+            "[{\"x\":1.0,\"y\":2.4}]]",
+            "[{\"x\":1.0,\"y\":2.4]}",
+            "[{\"x\":1.0,\"y\":2.4}",
+            "{\"x\":1.0,\"y\":2.4}}",
+    })
+    void incorrectDocument_ShouldThrowJsonParseException(String jsonDocument) {
+        JsonFeedParser<Point2D> parser = new JsonFeedParser<>(new JsonMapper(false), Point2D.class);
+
+        Assertions.assertThrows(JsonParseException.class, () -> {
+            parser.feed(ByteBuffer.wrap(jsonDocument.getBytes(StandardCharsets.UTF_8)));
+            parser.endOfInput();
+        });
+    }
+}
@@ -0,0 +1,81 @@
+package ru.whiteroomlz.mapper;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class JsonIndexTests {
+    private final JsonIndex index;
+
+    JsonIndexTests() throws IOException {
+        index = JsonIndex.read(Files.newInputStream(Path.of("src", "test", "resources", "paul.json")));
+    }
+
+    @Test
+    void query_ShouldReturnValueByPath() throws JsonParseException {
+        Assertions.assertEquals("15", index.queryText("children[1].age"));
+        Assertions.assertEquals("\"John\"", index.queryText("children[0].name"));
+        Assertions.assertEquals("[]", index.queryText("children[0].children"));
+        Assertions.assertEquals("\"2022-February-26 02:32:52\"", index.queryText("date of registration"));
+
+        Assertions.assertInstanceOf(JsonCollection.class, index.query("children"));
+        Assertions.assertInstanceOf(JsonStructure.class, index.query("children[1]"));
+        Assertions.assertEquals(new JsonPrimitive("null"), index.query("children[1].children"));
+    }
+
+    @Test
+    void queryWithEmptyPath_ShouldReturnWholeDocument() throws JsonParseException {
+        Assertions.assertEquals(index.queryText(""), index.query("").toString());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"surname", "children[2]", "children[0].children[0]", "name.first", "age[0]", "children.age"})
+    void queryMissingValue_ShouldReturnNull(String path) throws JsonParseException {
+        Assertions.assertNull(index.queryText(path));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {".name", "children[", "children[-1]", "children[0]..age"})
+    void queryIncorrectPath_ShouldThrowIllegalArgumentException(String path) {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> index.queryText(path));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"{\"a\":[1,2}", "{\"a\":1}}", "{\"a\":[1", "1,2"})
+    void queryIncorrectDocument_ShouldThrowJsonParseException(String document) {
+        Assertions.assertThrows(JsonParseException.class, () -> new JsonIndex(document).query("a"));
+    }
+
+    @Test
+    void tree_ShouldEqualEagerlyParsedDocument() throws JsonParseException {
+        JsonStructure tree = (JsonStructure) index.tree("");
+
+        Assertions.assertEquals(index.query(""), tree);
+        Assertions.assertEquals(index.queryText(""), tree.toString());
+        Assertions.assertEquals(index.query("children[1]"), index.tree("children[1]"));
+    }
+
+    @Test
+    void tree_ShouldParseChildOnceOnFirstAccess() throws JsonParseException {
+        JsonStructure tree = (JsonStructure) index.tree("");
+        JsonObject children = tree.getStructureMap().get("children");
+
+        Assertions.assertSame(children, tree.getStructureMap().get("children"));
+        Assertions.assertEquals(new JsonPrimitive("15"),
+                ((JsonStructure) ((JsonCollection) children).collection.get(1)).getStructureMap().get("age"));
+    }
+
+    @Test
+    void tree_ShouldNotParseUntouchedValues() throws JsonParseException {
+        JsonStructure tree = (JsonStructure) new JsonIndex("{\"a\":1,\"b\":{\"c\" 2}}").tree("");
+
+        Assertions.assertEquals(new JsonPrimitive("1"), tree.getStructureMap().get("a"));
+        Assertions.assertTrue(tree.getStructureMap().containsKey("b"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> tree.getStructureMap().get("b"));
+    }
+}
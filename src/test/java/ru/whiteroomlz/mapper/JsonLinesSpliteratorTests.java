@@ -0,0 +1,77 @@
+package ru.whiteroomlz.mapper;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import testingclasses.Point2D;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public class JsonLinesSpliteratorTests {
+    private static final int POINTS_COUNT = 60_000;
+
+    @TempDir
+    Path directory;
+
+    private final List<Point2D> points = IntStream.range(0, POINTS_COUNT)
+            .mapToObj(index -> new Point2D(index + 0.5, -index - 0.25))
+            .toList();
+
+    private Path writePoints(String separator) throws IOException {
+        JsonMapper mapper = new JsonMapper(false);
+        Path path = directory.resolve("points.ndjson");
+        String document = points.stream().map(mapper::writeToString).collect(Collectors.joining(separator));
+        Files.writeString(path, document + separator, StandardCharsets.UTF_8);
+
+        return path;
+    }
+
+    @Test
+    void readLinesPreservingOrder_ShouldReturnRecordsInFileOrder() throws IOException {
+        JsonMapper mapper = new JsonMapper(false);
+        Path path = writePoints("\n");
+
+        try (Stream<Point2D> stream = mapper.readLines(Point2D.class, path, true)) {
+            Assertions.assertEquals(points, stream.toList());
+        }
+    }
+
+    @Test
+    void readLinesWithoutOrder_ShouldReturnAllRecords() throws IOException {
+        JsonMapper mapper = new JsonMapper(true);
+        Path path = writePoints("\r\n");
+
+        try (Stream<Point2D> stream = mapper.readLines(Point2D.class, path, false)) {
+            List<Point2D> restored = stream.sorted(Comparator.comparing(Point2D::x)).toList();
+            Assertions.assertEquals(points, restored);
+        }
+    }
+
+    @Test
+    void trySplit_ShouldSplitOnRecordBoundaries() throws IOException {
+        JsonMapper mapper = new JsonMapper(false);
+        Path path = writePoints("\n");
+
+        try (FileChannel channel = FileChannel.open(path)) {
+            JsonLinesSpliterator<Point2D> suffix = new JsonLinesSpliterator<>(mapper, Point2D.class, channel, 0,
+                    channel.size(), true);
+            Spliterator<Point2D> prefix = suffix.trySplit();
+            Assertions.assertNotNull(prefix);
+
+            long[] count = new long[1];
+            prefix.forEachRemaining(point -> count[0]++);
+            suffix.forEachRemaining(point -> count[0]++);
+            Assertions.assertEquals(POINTS_COUNT, count[0]);
+        }
+    }
+}
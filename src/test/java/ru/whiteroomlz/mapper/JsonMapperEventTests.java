@@ -0,0 +1,113 @@
+package ru.whiteroomlz.mapper;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import testingclasses.Person;
+import testingclasses.Point2D;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+public class JsonMapperEventTests {
+    private static final List<String> EVENT_NAMES = List.of(
+            "ru.whiteroomlz.mapper.Parse",
+            "ru.whiteroomlz.mapper.Bind",
+            "ru.whiteroomlz.mapper.Serialize",
+            "ru.whiteroomlz.mapper.Flush"
+    );
+
+    private static List<RecordedEvent> record(Recording recording, JsonMapper mapper) throws IOException {
+        Point2D point = new Point2D(1.0, -2.5);
+
+        recording.start();
+        mapper.readFromString(Point2D.class, mapper.writeToString(point));
+        mapper.write(point, new ByteArrayOutputStream());
+        recording.stop();
+
+        Path file = Files.createTempFile("mapper-events", ".jfr");
+        try {
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> EVENT_NAMES.contains(event.getEventType().getName()))
+                    .toList();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void enabledEvents_ShouldCarryRootClassSizeAndElements() throws IOException {
+        JsonMapper mapper = new JsonMapper(false);
+        String document = mapper.writeToString(new Point2D(1.0, -2.5));
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            EVENT_NAMES.forEach(name -> recording.enable(name).withoutThreshold());
+            events = record(recording, mapper);
+        }
+
+        for (String name : EVENT_NAMES) {
+            RecordedEvent event = events.stream()
+                    .filter(recorded -> recorded.getEventType().getName().equals(name))
+                    .findFirst()
+                    .orElseThrow();
+
+            Assertions.assertEquals(Point2D.class.getName(), event.getClass("rootClass").getName());
+            Assertions.assertFalse(event.getBoolean("retainIdentity"));
+            Assertions.assertEquals(document.getBytes(StandardCharsets.UTF_8).length, event.getLong("bytes"));
+            Assertions.assertEquals(3, event.getLong("elements"));
+        }
+    }
+
+    @Test
+    void events_ShouldBeDisabledByDefault() throws IOException {
+        try (Recording recording = new Recording()) {
+            Assertions.assertTrue(record(recording, new JsonMapper(false)).isEmpty());
+        }
+    }
+
+    @Test
+    void parallelSerialization_ShouldCountElementsOfRenderedChunks() throws IOException {
+        List<Person> children = IntStream.range(0, 500)
+                .mapToObj(index -> new Person("Child " + index, "Smith", index % 90, Person.Sex.MALE,
+                        LocalDateTime.parse("2020-02-05T00:00:00.0"), false, null, 'c'))
+                .toList();
+        Person parent = new Person("Paul", "Smith", 37, Person.Sex.MALE,
+                LocalDateTime.parse("2022-02-26T02:32:52.0"), true, children, 'C');
+
+        JsonMapper parallelMapper = new JsonMapper(false);
+        parallelMapper.setParallelThreshold(100);
+
+        List<Long> elements;
+        try (Recording recording = new Recording()) {
+            recording.enable("ru.whiteroomlz.mapper.Serialize").withoutThreshold();
+            recording.start();
+            new JsonMapper(false).writeToString(parent);
+            parallelMapper.writeToString(parent);
+            recording.stop();
+
+            Path file = Files.createTempFile("mapper-events", ".jfr");
+            try {
+                recording.dump(file);
+                elements = RecordingFile.readAllEvents(file).stream()
+                        .filter(event -> event.getEventType().getName().equals("ru.whiteroomlz.mapper.Serialize"))
+                        .map(event -> event.getLong("elements"))
+                        .toList();
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        Assertions.assertEquals(2, elements.size());
+        Assertions.assertEquals(elements.get(0), elements.get(1));
+    }
+}
@@ -0,0 +1,103 @@
+package ru.whiteroomlz.mapper;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import testingclasses.Point2D;
+import testingclasses.Point3D;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+public class JsonMapperStatisticsTests {
+    private final Point2D point = new Point2D(1.0, -2.5);
+
+    @Test
+    void readAndWrite_ShouldUpdateCountersOfRootClass() {
+        JsonMapper mapper = new JsonMapper(false);
+        JsonMapperStatistics statistics = new JsonMapperStatistics("test");
+        mapper.setStatistics(statistics);
+
+        String document = mapper.writeToString(point);
+        mapper.readFromString(Point2D.class, document);
+        mapper.readFromString(Point2D.class, document);
+
+        JsonClassStatisticsMXBean pointStatistics = statistics.get(Point2D.class);
+        long size = document.getBytes(StandardCharsets.UTF_8).length;
+        Assertions.assertEquals(1, pointStatistics.getSerializeCount());
+        Assertions.assertEquals(size, pointStatistics.getBytesProduced());
+        Assertions.assertEquals(2, pointStatistics.getDeserializeCount());
+        Assertions.assertEquals(2 * size, pointStatistics.getBytesConsumed());
+        Assertions.assertTrue(pointStatistics.getDeserializeMaxNanos() > 0);
+        Assertions.assertTrue(pointStatistics.getDeserializeTotalNanos() >= pointStatistics.getDeserializeMaxNanos());
+        Assertions.assertNull(statistics.get(Point3D.class));
+    }
+
+    @Test
+    void failedRead_ShouldBeCountedByExceptionType() {
+        JsonMapper mapper = new JsonMapper(false);
+        JsonMapperStatistics statistics = new JsonMapperStatistics("test");
+        mapper.setStatistics(statistics);
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> mapper.readFromString(Point3D.class, mapper.writeToString(point)));
+
+        Assertions.assertEquals(Map.of(IllegalArgumentException.class.getName(), 1L),
+                statistics.get(Point3D.class).getFailures());
+        Assertions.assertEquals(0, statistics.get(Point3D.class).getDeserializeCount());
+    }
+
+    @Test
+    void registerMBeans_ShouldPublishClassesSeenBeforeAndAfterRegistration() throws JMException {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        JsonMapper mapper = new JsonMapper(false);
+        JsonMapperStatistics statistics = new JsonMapperStatistics("test");
+        mapper.setStatistics(statistics);
+
+        mapper.writeToString(point);
+        statistics.registerMBeans(server);
+        mapper.writeToString(new Point3D(1.0, 2.0, 3.0));
+
+        ObjectName pointName = new ObjectName(
+                "ru.whiteroomlz.mapper:type=ClassStatistics,mapper=\"test\",class=\"testingclasses.Point2D\"");
+        ObjectName point3DName = new ObjectName(
+                "ru.whiteroomlz.mapper:type=ClassStatistics,mapper=\"test\",class=\"testingclasses.Point3D\"");
+        Assertions.assertEquals(1L, server.getAttribute(pointName, "SerializeCount"));
+        Assertions.assertEquals(1L, server.getAttribute(point3DName, "SerializeCount"));
+
+        statistics.unregisterMBeans();
+        Assertions.assertFalse(server.isRegistered(pointName));
+    }
+
+    @Test
+    void duplicateMBeanName_ShouldNotBreakSerialization() throws JMException {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        JsonMapperStatistics first = new JsonMapperStatistics("test");
+        JsonMapperStatistics second = new JsonMapperStatistics("test");
+        first.registerMBeans(server);
+        second.registerMBeans(server);
+
+        JsonMapper firstMapper = new JsonMapper(false);
+        firstMapper.setStatistics(first);
+        JsonMapper secondMapper = new JsonMapper(false);
+        secondMapper.setStatistics(second);
+
+        firstMapper.writeToString(point);
+        String document = secondMapper.writeToString(point);
+        Assertions.assertEquals(point, secondMapper.readFromString(Point2D.class, document));
+        Assertions.assertEquals(1, second.get(Point2D.class).getSerializeCount());
+        Assertions.assertEquals(1, second.get(Point2D.class).getDeserializeCount());
+
+        ObjectName pointName = new ObjectName(
+                "ru.whiteroomlz.mapper:type=ClassStatistics,mapper=\"test\",class=\"testingclasses.Point2D\"");
+        second.unregisterMBeans();
+        Assertions.assertTrue(server.isRegistered(pointName));
+        Assertions.assertEquals(1L, server.getAttribute(pointName, "SerializeCount"));
+
+        first.unregisterMBeans();
+        Assertions.assertFalse(server.isRegistered(pointName));
+    }
+}
@@ -1,16 +1,24 @@
 package ru.whiteroomlz.mapper;
 
 import org.junit.jupiter.api.*;
+import ru.hse.homework4.Exported;
+import ru.hse.homework4.UnknownPropertiesPolicy;
+import testingclasses.Meeting;
 import testingclasses.Person;
 import testingclasses.Point2D;
 import testingclasses.Point3D;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 public class JsonMapperTests {
@@ -20,6 +28,32 @@ public class JsonMapperTests {
     private final Person person;
     private final Point2D point2D;
 
+    @Exported(unknownPropertiesPolicy = UnknownPropertiesPolicy.IGNORE)
+    record Sample(String label, int count) {
+    }
+
+    @Exported
+    record Samples(List<Sample> samples) {
+    }
+
+    @Exported
+    static class Tag {
+        String name;
+
+        Tag() {
+        }
+
+        Tag(String name) {
+            this.name = name;
+        }
+    }
+
+    @Exported
+    static class Article {
+        String title;
+        Set<Tag> tags;
+    }
+
     JsonMapperTests() {
         Person son = new Person("John", "Smith", 18, Person.Sex.MALE,
                 null, false, List.of(), '-');
@@ -206,4 +240,237 @@ public class JsonMapperTests {
                 () -> mapper.read(Point3D.class, new File(documentPath.toString()))
         );
     }
+
+    @Test
+    @Order(READ_TEST_ORDER)
+    void parallelRead_ShouldRestoreElementsInOriginalOrder() {
+        List<Person> children = IntStream.range(0, 2000)
+                .mapToObj(index -> new Person("Child " + index, "Smith", index % 90, Person.Sex.FEMALE,
+                        null, false, List.of(), 'c'))
+                .toList();
+        Person parent = new Person("Paul", "Smith", 37, Person.Sex.MALE,
+                LocalDateTime.parse("2022-02-26T02:32:52.0"), true, children, 'C');
+
+        JsonMapper sequentialMapper = new JsonMapper(false);
+        String serialized = sequentialMapper.writeToString(parent);
+
+        JsonMapper parallelMapper = new JsonMapper(false);
+        parallelMapper.setParallelThreshold(100);
+        Person restored = parallelMapper.readFromString(Person.class, serialized);
+
+        Assertions.assertEquals(children.size(), restored.children.size());
+        Assertions.assertEquals(serialized, sequentialMapper.writeToString(restored));
+    }
+
+    @Test
+    @Order(WRITE_TEST_ORDER)
+    void parallelWriteToString_ReturnStringEqualsSequential() {
+        List<Person> children = IntStream.range(0, 2000)
+                .mapToObj(index -> index % 7 == 0 ? null : new Person("Child " + index, "Smith", index % 90,
+                        Person.Sex.MALE, LocalDateTime.parse("2020-02-05T00:00:00.0"), false, null, 'c'))
+                .collect(Collectors.toList());
+        Person parent = new Person("Paul", "Smith", 37, Person.Sex.MALE,
+                LocalDateTime.parse("2022-02-26T02:32:52.0"), true, children, 'C');
+
+        JsonMapper sequentialMapper = new JsonMapper(false);
+        JsonMapper parallelMapper = new JsonMapper(false);
+        parallelMapper.setParallelThreshold(100);
+
+        Assertions.assertEquals(sequentialMapper.writeToString(parent), parallelMapper.writeToString(parent));
+    }
+
+    @Test
+    @Order(READ_TEST_ORDER)
+    void bufferPoolingDisabled_ShouldReadAndWriteSameDocument() throws IOException {
+        JsonMapper mapper = new JsonMapper(false);
+        mapper.setBufferPooling(false);
+        Path documentPath = Path.of("src", "test", "resources", "paul.json");
+
+        Person person = mapper.read(Person.class, new File(documentPath.toString()));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        mapper.write(person, outputStream);
+
+        Assertions.assertEquals(Files.readString(documentPath).strip(), outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @Order(READ_TEST_ORDER)
+    void readInto_ShouldReuseNestedObjectsAndCollections() {
+        JsonMapper mapper = new JsonMapper(false);
+
+        Person child = new Person("John", "Smith", 18, Person.Sex.MALE, null, false, new ArrayList<>(), '-');
+        List<Person> children = new ArrayList<>(List.of(child));
+        Person target = new Person("Paul", "Smith", 37, Person.Sex.MALE,
+                LocalDateTime.parse("2022-02-26T02:32:52.0"), true, children, 'C');
+
+        Person updatedChild = new Person("John", "Smith", 19, Person.Sex.MALE, null, true, List.of(), '-');
+        Person updated = new Person("Paul", "Smith", 38, Person.Sex.MALE,
+                LocalDateTime.parse("2022-02-26T02:32:52.0"), true, List.of(updatedChild), 'C');
+        String serialized = mapper.writeToString(updated);
+
+        Person restored = mapper.readInto(target, serialized);
+
+        Assertions.assertSame(target, restored);
+        Assertions.assertSame(children, restored.children);
+        Assertions.assertSame(child, restored.children.get(0));
+        Assertions.assertEquals(serialized, mapper.writeToString(restored));
+    }
+
+    @Test
+    @Order(READ_TEST_ORDER)
+    void diff_ShouldContainOnlyChangedProperties() {
+        JsonMapper mapper = new JsonMapper(false);
+
+        Person son = new Person("John", "Smith", 19, Person.Sex.MALE, null, false, List.of(), '-');
+        Person updated = new Person("Paul", "Smith", 37, Person.Sex.MALE,
+                LocalDateTime.parse("2022-02-26T02:32:52.0"), true, List.of(son, person.children.get(1)), 'C');
+
+        Assertions.assertEquals("{\"children\":{\"elements\":{\"0\":{\"patch\":{\"age\":{\"value\":19}}}}}}",
+                mapper.diff(person, updated));
+        Assertions.assertEquals("{}", mapper.diff(person, mapper.readFromString(Person.class,
+                mapper.writeToString(person))));
+    }
+
+    @Test
+    @Order(READ_TEST_ORDER)
+    void diffOfSetsWithoutEquals_ShouldCompareElementsByContent() {
+        JsonMapper mapper = new JsonMapper(false);
+        Article article = new Article();
+        article.title = "Draft";
+        article.tags = new HashSet<>(List.of(new Tag("java"), new Tag("json"), new Tag("gzip")));
+
+        Article updated = mapper.readFromString(Article.class, mapper.writeToString(article));
+        Assertions.assertEquals("{}", mapper.diff(article, updated));
+
+        updated.title = "Final";
+        Assertions.assertEquals("{\"title\":{\"value\":\"Final\"}}", mapper.diff(article, updated));
+
+        updated.tags.iterator().next().name = "xml";
+        Assertions.assertTrue(mapper.diff(article, updated).contains("\"tags\":{\"value\":["));
+    }
+
+    @Test
+    @Order(READ_TEST_ORDER)
+    void applyPatch_ShouldTransformOldVersionIntoNewInPlace() {
+        JsonMapper mapper = new JsonMapper(false);
+        Person replica = mapper.readFromString(Person.class, mapper.writeToString(person));
+        List<Person> children = replica.children;
+        Person son = children.get(0);
+
+        Person grandson = new Person("Jim", "Smith", 1, Person.Sex.MALE, null, false, List.of(), 'A');
+        Person updatedSon = new Person("John", "Smith", 18, Person.Sex.MALE, null, true, List.of(grandson), '-');
+        Person granddaughter = new Person("Jane", "Smith", 0, Person.Sex.FEMALE, null, false, null, 'B');
+        Person updated = new Person("Paul", "Smith", 38, Person.Sex.MALE, null, true,
+                List.of(updatedSon, person.children.get(1), granddaughter), 'C');
+
+        Assertions.assertSame(replica, mapper.applyPatch(replica, mapper.diff(person, updated)));
+        Assertions.assertEquals(mapper.writeToString(updated), mapper.writeToString(replica));
+        Assertions.assertSame(children, replica.children);
+        Assertions.assertSame(son, replica.children.get(0));
+    }
+
+    @Test
+    @Order(READ_TEST_ORDER)
+    void applyPatchToUnmodifiableList_ShouldReplaceListWithCopy() {
+        JsonMapper mapper = new JsonMapper(false);
+        Person target = new Person("Paul", "Smith", 37, Person.Sex.MALE, null, true, List.of(), 'C');
+        Person updated = new Person("Paul", "Smith", 37, Person.Sex.MALE, null, true, List.of(person), 'C');
+
+        mapper.applyPatch(target, mapper.diff(target, updated));
+
+        Assertions.assertEquals(mapper.writeToString(updated), mapper.writeToString(target));
+    }
+
+    @Test
+    @Order(READ_TEST_ORDER)
+    void readIntoRecord_ShouldThrowIllegalArgumentException() {
+        JsonMapper mapper = new JsonMapper(false);
+
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> mapper.readInto(point2D, mapper.writeToString(point2D))
+        );
+    }
+
+    @Test
+    @Order(READ_TEST_ORDER)
+    void temporalWithoutDateFormat_ShouldBeRestoredByDefaultPatterns() {
+        JsonMapper mapper = new JsonMapper(false);
+        LocalDateTime start = LocalDateTime.parse("2022-02-26T02:32:52");
+        Meeting meeting = new Meeting(start, start.toLocalDate());
+
+        Assertions.assertEquals(meeting, mapper.readFromString(Meeting.class, mapper.writeToString(meeting)));
+    }
+
+    @Test
+    @Order(READ_TEST_ORDER)
+    void positionalCollections_ShouldWriteKeysOnceAndRestoreSameObjects() {
+        JsonMapper positionalMapper = new JsonMapper(false);
+        positionalMapper.setPositionalCollections(true);
+        JsonMapper mapper = new JsonMapper(false);
+
+        String positional = positionalMapper.writeToString(person);
+        Assertions.assertTrue(positional.contains(
+                "\"children\":[[\"name\",\"age\",\"sex\",\"date of registration\",\"is married\",\"children\",\"group\"],"
+                        + "[\"John\",18,\"male\",null,false,[],-],"));
+        Assertions.assertTrue(positional.length() < mapper.writeToString(person).length());
+
+        Person restored = mapper.readFromString(Person.class, positional);
+        Assertions.assertEquals(mapper.writeToString(person), mapper.writeToString(restored));
+    }
+
+    @Test
+    @Order(READ_TEST_ORDER)
+    void positionalCollectionWithoutPrimitiveColumn_ShouldRestoreDefaultValue() {
+        JsonMapper mapper = new JsonMapper(false);
+        String document = "{\"samples\":[[\"label\"],[\"first\"],[\"second\"]]}";
+
+        Assertions.assertEquals(new Samples(List.of(new Sample("first", 0), new Sample("second", 0))),
+                mapper.readFromString(Samples.class, document));
+    }
+
+    @Test
+    @Order(READ_TEST_ORDER)
+    void recordWithoutPrimitiveProperty_ShouldRestoreDefaultValue() {
+        JsonMapper mapper = new JsonMapper(false);
+
+        Assertions.assertEquals(new Sample("first", 0), mapper.readFromString(Sample.class, "{\"label\":\"first\"}"));
+    }
+
+    @Test
+    @Order(READ_TEST_ORDER)
+    void readWithPaths_ShouldRestoreOnlySelectedValues() {
+        JsonMapper mapper = new JsonMapper(false);
+        Person son = new Person(null, null, 18, null, null, false, null, '\0');
+        Person daughter = new Person(null, null, 15, null, null, false, null, '\0');
+        Person expected = new Person("Paul", null, 0, null, null, false, List.of(son, daughter), '\0');
+
+        Person restored = mapper.readFromString(Person.class, mapper.writeToString(person),
+                Set.of("name", "children.age"));
+        Assertions.assertEquals(mapper.writeToString(expected), mapper.writeToString(restored));
+
+        Point2D point = mapper.readFromString(Point2D.class, mapper.writeToString(point2D), Set.of("y"));
+        Assertions.assertEquals(new Point2D(null, 2.4), point);
+    }
+
+    @Test
+    @Order(READ_TEST_ORDER)
+    void unknownKeysOfIgnoringClass_ShouldBeSkipped() {
+        JsonMapper mapper = new JsonMapper(false);
+
+        String document = "{\"label\":\"first\",\"extra\":{\"a\":[1,{\"b\":2}]},\"count\":3}";
+
+        Assertions.assertEquals(new Sample("first", 3), mapper.readFromString(Sample.class, document));
+    }
+
+    @Test
+    @Order(READ_TEST_ORDER)
+    void malformedUnknownValue_ShouldThrowIllegalArgumentException() {
+        JsonMapper mapper = new JsonMapper(false);
+
+        String document = "{\"x\":1.0,\"extra\":{\"a\" 1},\"y\":2.4}";
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> mapper.readFromString(Point2D.class, document));
+    }
 }
@@ -0,0 +1,75 @@
+package ru.whiteroomlz.mapper;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import testingclasses.Country;
+import testingclasses.Person;
+import testingclasses.Point2D;
+
+import java.util.List;
+
+public class JsonSerializedCacheTests {
+    @Test
+    void repeatedWriteOfRecord_ShouldReuseRepresentation() {
+        JsonMapper mapper = new JsonMapper(false);
+        JsonSerializedCache cache = new JsonSerializedCache(16);
+        mapper.setSerializedCache(cache);
+
+        String expected = new JsonMapper(false).writeToString(new Point2D(1.0, 2.4));
+
+        Assertions.assertEquals(expected, mapper.writeToString(new Point2D(1.0, 2.4)));
+        Assertions.assertEquals(expected, mapper.writeToString(new Point2D(1.0, 2.4)));
+        Assertions.assertEquals(1, cache.getMisses());
+        Assertions.assertEquals(1, cache.getHits());
+        Assertions.assertEquals(1, cache.size());
+    }
+
+    @Test
+    void immutableClass_ShouldBeCachedByIdentity() {
+        JsonMapper mapper = new JsonMapper(false);
+        JsonSerializedCache cache = new JsonSerializedCache(16);
+        mapper.setSerializedCache(cache);
+
+        Country country = new Country("Russia", "RU");
+        String document = mapper.writeToString(country);
+
+        Assertions.assertEquals(document, mapper.writeToString(country));
+        Assertions.assertEquals(document, mapper.writeToString(new Country("Russia", "RU")));
+        Assertions.assertEquals(1, cache.getHits());
+        Assertions.assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void mutableClass_ShouldNotBeCached() {
+        JsonMapper mapper = new JsonMapper(false);
+        JsonSerializedCache cache = new JsonSerializedCache(16);
+        mapper.setSerializedCache(cache);
+
+        mapper.writeToString(new Person("Paul", "Smith", 37, Person.Sex.MALE, null, true, List.of(), 'C'));
+
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertEquals(0, cache.getMisses());
+    }
+
+    @Test
+    void overflow_ShouldEvictLeastRecentlyUsedEntry() {
+        JsonMapper mapper = new JsonMapper(false);
+        JsonSerializedCache cache = new JsonSerializedCache(2);
+        mapper.setSerializedCache(cache);
+
+        mapper.writeToString(new Point2D(1.0, 1.0));
+        mapper.writeToString(new Point2D(2.0, 2.0));
+        mapper.writeToString(new Point2D(1.0, 1.0));
+        mapper.writeToString(new Point2D(3.0, 3.0));
+        mapper.writeToString(new Point2D(1.0, 1.0));
+
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertEquals(1, cache.getEvictions());
+        Assertions.assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    void incorrectMaximumSize_ShouldThrowIllegalArgumentException() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new JsonSerializedCache(0));
+    }
+}
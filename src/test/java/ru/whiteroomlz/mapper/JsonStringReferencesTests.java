@@ -0,0 +1,92 @@
+package ru.whiteroomlz.mapper;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.hse.homework4.Exported;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+public class JsonStringReferencesTests {
+    @Exported
+    record Route(String origin, List<String> stops, char marker) {
+    }
+
+    private static final Route ROUTE = new Route("Moscow",
+            List.of("Tver", "Moscow", "Kazan", "Tver", "Moscow", "Kazan", "Omsk", "Kazan"), '#');
+
+    @Test
+    void serializeWithReferences_ShouldReplaceRepeatedStrings() {
+        JsonMapper mapper = new JsonMapper(false);
+        String plain = mapper.writeToString(ROUTE);
+
+        mapper.setStringReferenceTableSize(16);
+        Assertions.assertEquals(16, mapper.getStringReferenceTableSize());
+        String document = mapper.writeToString(ROUTE);
+
+        Assertions.assertTrue(document.startsWith("{\"String table\":16,"));
+        Assertions.assertTrue(document.contains("\"stops\":[\"Tver\",#0,\"Kazan\",#1,#0,#2,\"Omsk\",#2]"));
+        Assertions.assertTrue(document.length() < plain.length());
+    }
+
+    @Test
+    void readWithReferences_ShouldRestoreObject() {
+        JsonMapper mapper = new JsonMapper(false);
+        mapper.setStringReferenceTableSize(16);
+        String document = mapper.writeToString(ROUTE);
+
+        Assertions.assertEquals(ROUTE, mapper.readFromString(Route.class, document));
+        Assertions.assertEquals(ROUTE, new JsonMapper(false).readFromString(Route.class, document));
+    }
+
+    @Test
+    void smallTable_ShouldReuseLeastRecentlyUsedSlots() {
+        JsonMapper mapper = new JsonMapper(false);
+        mapper.setStringReferenceTableSize(2);
+        String document = mapper.writeToString(ROUTE);
+
+        Assertions.assertTrue(document.contains("[\"Tver\",#0,"));
+        Assertions.assertEquals(ROUTE, mapper.readFromString(Route.class, document));
+    }
+
+    @Test
+    void undefinedReference_ShouldThrowIllegalArgumentException() {
+        JsonMapper mapper = new JsonMapper(false);
+        String document = "{\"String table\":4,\"origin\":\"Moscow\",\"stops\":[#1],\"marker\":#}";
+
+        IllegalArgumentException exception = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> mapper.readFromString(Route.class, document));
+        Assertions.assertInstanceOf(JsonParseException.class, exception.getCause());
+    }
+
+    @Test
+    void incorrectTableSize_ShouldThrowIllegalArgumentException() {
+        JsonMapper mapper = new JsonMapper(false);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> mapper.setStringReferenceTableSize(-1));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> mapper.setStringReferenceTableSize(JsonStringReferences.MAX_SIZE + 1));
+    }
+
+    @Test
+    void referencesWithParallelThresholdAndSerializedCache_ShouldMatchSequentialDocument() {
+        @Exported
+        record Timetable(List<Route> routes) {
+        }
+
+        Timetable timetable = new Timetable(IntStream.range(0, 300).mapToObj(index -> ROUTE).toList());
+
+        JsonMapper sequentialMapper = new JsonMapper(false);
+        sequentialMapper.setStringReferenceTableSize(16);
+        String expected = sequentialMapper.writeToString(timetable);
+
+        JsonMapper mapper = new JsonMapper(false);
+        mapper.setStringReferenceTableSize(16);
+        mapper.setParallelThreshold(100);
+        mapper.setSerializedCache(new JsonSerializedCache(16));
+
+        Assertions.assertEquals(expected, mapper.writeToString(timetable));
+        Assertions.assertEquals(expected, mapper.writeToString(timetable));
+        Assertions.assertEquals(timetable, mapper.readFromString(Timetable.class, expected));
+    }
+}
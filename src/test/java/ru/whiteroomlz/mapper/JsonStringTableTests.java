@@ -0,0 +1,57 @@
+package ru.whiteroomlz.mapper;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.hse.homework4.Exported;
+
+public class JsonStringTableTests {
+    @Exported
+    record Pair(String first, String second) {
+    }
+
+    @Test
+    void equalStrings_ShouldBeSameInstance() {
+        JsonStringTable table = new JsonStringTable(16);
+        String document = "\"active\",\"active\",\"closed\"";
+
+        String first = table.get(document, 1, 7);
+        Assertions.assertEquals("active", first);
+        Assertions.assertSame(first, table.get(document, 10, 16));
+        Assertions.assertEquals("closed", table.get(document, 19, 25));
+    }
+
+    @Test
+    void longStrings_ShouldNotBeRetained() {
+        JsonStringTable table = new JsonStringTable(16);
+        String document = "\"" + "x".repeat(JsonStringTable.MAX_LENGTH + 1) + "\"";
+
+        Assertions.assertNotSame(table.get(document, 1, document.length() - 1),
+                table.get(document, 1, document.length() - 1));
+    }
+
+    @Test
+    void capacity_ShouldBeRoundedUpToPowerOfTwo() {
+        Assertions.assertEquals(1, new JsonStringTable(1).capacity());
+        Assertions.assertEquals(1024, new JsonStringTable(1000).capacity());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new JsonStringTable(0));
+    }
+
+    @Test
+    void readWithStringTable_ShouldShareRepeatedValues() {
+        JsonMapper mapper = new JsonMapper(false);
+        String document = "{\"first\":\"active\",\"second\":\"active\"}";
+
+        Pair pair = mapper.readFromString(Pair.class, document);
+        Assertions.assertNotSame(pair.first(), pair.second());
+
+        mapper.setStringTableSize(256);
+        Assertions.assertEquals(256, mapper.getStringTableSize());
+        pair = mapper.readFromString(Pair.class, document);
+        Assertions.assertEquals(new Pair("active", "active"), pair);
+        Assertions.assertSame(pair.first(), pair.second());
+        Assertions.assertSame(pair.first(), mapper.readFromString(Pair.class, document).second());
+
+        mapper.setStringTableSize(0);
+        Assertions.assertEquals(0, mapper.getStringTableSize());
+    }
+}
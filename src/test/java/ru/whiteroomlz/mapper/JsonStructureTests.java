@@ -54,4 +54,25 @@ public class JsonStructureTests {
         JsonStructure jsonStructure = new JsonStructure(jsonDocument);
         Assertions.assertEquals(jsonStructure.toString(), jsonDocument);
     }
+
+    @Test
+    void equalDocuments_ShouldHaveEqualHashCodes() throws JsonParseException {
+        String jsonDocument = "{\"name\":\"Paul\",\"class\":6,\"marks\":[4,5,5,4,2,3,4,4,4]}";
+        JsonStructure first = new JsonStructure(jsonDocument);
+        JsonStructure second = new JsonStructure(jsonDocument);
+
+        Assertions.assertEquals(first, second);
+        Assertions.assertEquals(first.hashCode(), second.hashCode());
+        Assertions.assertNotEquals(first, new JsonStructure(jsonDocument.replace('6', '7')));
+    }
+
+    @Test
+    void getStructureMap_ShouldBeUnmodifiable() throws JsonParseException {
+        JsonStructure jsonStructure = new JsonStructure("{\"name\":\"Paul\"}");
+
+        Assertions.assertThrows(UnsupportedOperationException.class,
+                () -> jsonStructure.getStructureMap().put("class", new JsonNumber(6)));
+        Assertions.assertThrows(UnsupportedOperationException.class,
+                () -> new JsonStructure(List.of("name"), List.of(new JsonString("Paul"))).getStructureMap().clear());
+    }
 }
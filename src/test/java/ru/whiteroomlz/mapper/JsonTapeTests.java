@@ -0,0 +1,68 @@
+package ru.whiteroomlz.mapper;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class JsonTapeTests {
+    private final String document;
+    private final JsonTape tape;
+
+    JsonTapeTests() throws IOException, JsonParseException {
+        document = Files.readString(Path.of("src", "test", "resources", "paul.json")).strip();
+        tape = new JsonTape(document);
+    }
+
+    @Test
+    void toJsonObject_ShouldEqualParsedDocument() throws JsonParseException {
+        Assertions.assertEquals(JsonMapper.parseDocument(document), tape.toJsonObject(tape.root()));
+        Assertions.assertEquals(document, tape.toJsonObject(tape.root()).toString());
+    }
+
+    @Test
+    void cursor_ShouldReturnDecodedValues() {
+        int root = tape.root();
+        Assertions.assertEquals(JsonTape.Type.STRUCTURE, tape.getType(root));
+        Assertions.assertEquals(7, tape.size(root));
+        Assertions.assertEquals("Paul", tape.getString(tape.get(root, "name")));
+        Assertions.assertEquals(37, tape.getLong(tape.get(root, "age")));
+        Assertions.assertTrue(tape.getBoolean(tape.get(root, "is married")));
+        Assertions.assertEquals(JsonTape.Type.RAW, tape.getType(tape.get(root, "group")));
+        Assertions.assertEquals(-1, tape.get(root, "surname"));
+
+        int children = tape.get(root, "children");
+        Assertions.assertEquals(JsonTape.Type.COLLECTION, tape.getType(children));
+        Assertions.assertEquals(2, tape.size(children));
+        Assertions.assertEquals(-1, tape.get(children, 2));
+
+        int daughter = tape.get(children, 1);
+        Assertions.assertEquals(15, tape.getLong(tape.get(daughter, "age")));
+        Assertions.assertEquals(JsonTape.Type.NULL, tape.getType(tape.get(daughter, "children")));
+        Assertions.assertEquals("date of registration", tape.getKey(tape.get(daughter, "date of registration")));
+        Assertions.assertEquals(0, tape.size(tape.get(tape.get(children, 0), "children")));
+    }
+
+    @Test
+    void numbers_ShouldBeDecodedOnce() throws JsonParseException {
+        JsonTape numbers = new JsonTape("[-9223372036854775808,9223372036854775808,-2.25,1e3,-]");
+
+        Assertions.assertEquals(Long.MIN_VALUE, numbers.getLong(numbers.get(0, 0)));
+        Assertions.assertEquals(JsonTape.Type.DECIMAL, numbers.getType(numbers.get(0, 1)));
+        Assertions.assertEquals(-2.25, numbers.getDouble(numbers.get(0, 2)));
+        Assertions.assertEquals(1000.0, numbers.getDouble(numbers.get(0, 3)));
+        Assertions.assertEquals(JsonTape.Type.RAW, numbers.getType(numbers.get(0, 4)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"a\":[1,2}", "{\"a\":1}}", "{\"a\":[1", "1,2", "[1,,2]", "{\"a\":{}x}", "{a:1}", "[1]]", ""
+    })
+    void incorrectDocument_ShouldThrowJsonParseException(String incorrect) {
+        Assertions.assertThrows(JsonParseException.class, () -> new JsonTape(incorrect));
+    }
+}
@@ -0,0 +1,136 @@
+package ru.whiteroomlz.mapper;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import testingclasses.Point2D;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class ParallelGzipOutputStreamTests {
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 4095, 4096, 100_000})
+    void blocks_ShouldFormStandardGzipStream(int size) throws IOException {
+        Random random = new Random(size);
+        byte[] data = new byte[size];
+        for (int index = 0; index < size; index++) {
+            data[index] = (byte) ('a' + random.nextInt(random.nextBoolean() ? 3 : 26));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream outputStream = new ParallelGzipOutputStream(compressed, executor, 3, 4096,
+                Deflater.DEFAULT_COMPRESSION)) {
+            outputStream.write(data, 0, size / 2);
+            outputStream.flush();
+            for (int index = size / 2; index < size; index++) {
+                outputStream.write(data[index]);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Assertions.assertArrayEquals(data, gunzip(compressed.toByteArray()));
+    }
+
+    @Test
+    void writeCompressed_ShouldBeReadByReadCompressed() throws IOException {
+        JsonMapper mapper = new JsonMapper(false);
+        Point2D point = new Point2D(1.0, -2.5);
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        mapper.writeCompressed(point, compressed);
+
+        Assertions.assertEquals(mapper.writeToString(point), new String(gunzip(compressed.toByteArray()), StandardCharsets.UTF_8));
+        Assertions.assertEquals(point,
+                mapper.readCompressed(Point2D.class, new ByteArrayInputStream(compressed.toByteArray())));
+    }
+
+    @Test
+    void compressedDocument_ShouldBeSmallerThanPlain() throws IOException {
+        JsonMapper mapper = new JsonMapper(false);
+        String document = IntStream.range(0, 20_000)
+                .mapToObj(index -> mapper.writeToString(new Point2D(index + 0.5, index - 0.5)))
+                .collect(Collectors.joining());
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream outputStream = new ParallelGzipOutputStream(compressed, mapper.getForkJoinPool())) {
+            outputStream.write(document.getBytes(StandardCharsets.UTF_8));
+        }
+
+        Assertions.assertTrue(compressed.size() < document.length() / 3);
+        Assertions.assertEquals(document, new String(gunzip(compressed.toByteArray()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void readCompressedArray_ShouldBindElementsBeforeStreamIsExhausted() throws IOException {
+        JsonMapper mapper = new JsonMapper(false);
+        List<Point2D> points = IntStream.range(0, 50_000)
+                .mapToObj(index -> new Point2D(index + 0.5, index - 0.5))
+                .toList();
+        String document = points.stream().map(mapper::writeToString).collect(Collectors.joining(",", "[", "]"));
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream outputStream = new GZIPOutputStream(compressed)) {
+            outputStream.write(document.getBytes(StandardCharsets.UTF_8));
+        }
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(compressed.toByteArray());
+
+        // Распакованный документ занимает много блоков; первый элемент должен быть восстановлен до конца потока.
+        Assertions.assertTrue(document.length() > 10 * 64 * 1024);
+        List<Point2D> restored = new ArrayList<>();
+        int[] remainingAtFirstElement = {-1};
+        mapper.readCompressed(Point2D.class, inputStream, point -> {
+            if (restored.isEmpty()) {
+                remainingAtFirstElement[0] = inputStream.available();
+            }
+            restored.add(point);
+        });
+
+        Assertions.assertEquals(points, restored);
+        Assertions.assertTrue(remainingAtFirstElement[0] > 0);
+    }
+
+    @Test
+    void writeCompressed_ShouldCloseStreamWhenHeaderCannotBeWritten() {
+        boolean[] closed = {false};
+        OutputStream failing = new OutputStream() {
+            @Override
+            public void write(int value) throws IOException {
+                throw new IOException("The disk is full.");
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                throw new IOException("The disk is full.");
+            }
+
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+
+        Assertions.assertThrows(IOException.class,
+                () -> new JsonMapper(false).writeCompressed(new Point2D(1.0, 2.0), failing));
+        Assertions.assertTrue(closed[0]);
+    }
+}
@@ -0,0 +1,44 @@
+package ru.whiteroomlz.mapper;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public class StructuralIndexerTests {
+    private static final String ALPHABET = "{}[],:\"abc 0ŻŽśĬ孝";
+
+    @ParameterizedTest
+    @ValueSource(strings = {"scalar", "vector"})
+    void index_ShouldReturnPositionsOfStructuralSymbols(String implementation) {
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder();
+        for (int index = 0; index < 3 * StructuralIndexer.BLOCK_SIZE + 13; index++) {
+            builder.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        String document = builder.toString();
+
+        int[] expected = IntStream.range(0, document.length())
+                .filter(index -> "{}[],".indexOf(document.charAt(index)) >= 0)
+                .toArray();
+
+        Assertions.assertArrayEquals(expected, StructuralIndexer.create(implementation).index(document));
+    }
+
+    @Test
+    void vectorModule_ShouldBeUsedWhenAvailable() {
+        Assumptions.assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent());
+        Assertions.assertEquals("VectorStructuralIndexer", StructuralIndexer.get().getClass().getSimpleName());
+    }
+
+    @Test
+    void withoutVectorModule_ShouldFallBackToScalar() {
+        Assumptions.assumeFalse(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent());
+        Assertions.assertEquals(StructuralIndexer.class, StructuralIndexer.get().getClass());
+        Assertions.assertEquals(StructuralIndexer.class, StructuralIndexer.create("vector").getClass());
+    }
+}
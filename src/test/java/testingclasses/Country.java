@@ -0,0 +1,16 @@
+package testingclasses;
+
+import ru.hse.homework4.Exported;
+import ru.hse.homework4.Immutable;
+
+@Exported
+@Immutable
+public class Country {
+    private final String name;
+    private final String code;
+
+    public Country(String name, String code) {
+        this.name = name;
+        this.code = code;
+    }
+}
@@ -0,0 +1,10 @@
+package testingclasses;
+
+import ru.hse.homework4.Exported;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Exported
+public record Meeting(LocalDateTime start, LocalDate day) {
+}
@@ -0,0 +1,40 @@
+package ru.whiteroomlz.mapper;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Поиск структурных символов векторными инструкциями: за одну итерацию классифицируется столько символов, сколько
+ * 16-битных ячеек помещается в предпочтительный вектор процессора (16 для AVX2, 32 для AVX-512).
+ * <p>
+ * Использует инкубаторный модуль jdk.incubator.vector и загружается только тогда, когда модуль подключён.
+ */
+final class VectorStructuralIndexer extends StructuralIndexer {
+    /**
+     * Маска вектора переводится в long, поэтому вектор должен содержать не более 64 ячеек.
+     */
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED.length() <= Long.SIZE
+            ? ShortVector.SPECIES_PREFERRED
+            : ShortVector.SPECIES_512;
+
+    @Override
+    void indexBlock(char[] block, int length, int base, Positions positions) {
+        int bound = SPECIES.loopBound(length);
+        int index = 0;
+        for (; index < bound; index += SPECIES.length()) {
+            ShortVector symbols = ShortVector.fromCharArray(SPECIES, block, index);
+
+            // Установка бита 0x20 совмещает '[' с '{' и ']' с '}'.
+            ShortVector folded = symbols.or((short) 0x20);
+            VectorMask<Short> mask = folded.eq((short) '{')
+                    .or(folded.eq((short) '}'))
+                    .or(symbols.eq((short) ','));
+            if (mask.anyTrue()) {
+                positions.addMask(mask.toLong(), base + index, 0);
+            }
+        }
+
+        indexScalar(block, index, length, base, positions);
+    }
+}